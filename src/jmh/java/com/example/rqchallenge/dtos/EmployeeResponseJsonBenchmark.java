@@ -0,0 +1,47 @@
+package com.example.rqchallenge.dtos;
+
+import com.example.rqchallenge.loadtest.SyntheticRoster;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EmployeeResponseJsonBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private EmployeeResponse response;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        response = new EmployeeResponse();
+        response.setStatus(HttpStatus.OK);
+        response.setEmployees(SyntheticRoster.generate(size));
+        payload = objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public EmployeeResponse deserialize() throws IOException {
+        return objectMapper.readValue(payload, EmployeeResponse.class);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.rqchallenge.employees;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Employee input validation against the {@code ResponseEntity} based check it replaced. The build
+ * runs benchmarks with the {@code gc} profiler; compare {@code gc.alloc.rate.norm}, the bytes
+ * allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EmployeeValidationBenchmark {
+
+    @Param({"valid", "invalidSalary", "invalidAge"})
+    private String input;
+
+    private Map<String, Object> employeeInput;
+
+    @Setup
+    public void setUp() {
+        employeeInput = new HashMap<>();
+        employeeInput.put("name", "Mr Benchmark");
+        employeeInput.put("salary", "invalidSalary".equals(input) ? "50k" : "50000");
+        employeeInput.put("age", "invalidAge".equals(input) ? "thirty" : "30");
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return EmployeeValidation.validate(employeeInput).isValid();
+    }
+
+    @Benchmark
+    public boolean validateWithResponseEntity() {
+        return previousValidateEmployeeInput(employeeInput).getStatusCode() == HttpStatus.OK;
+    }
+
+    private static ResponseEntity<String> previousValidateEmployeeInput(Map<String, Object> employeeInput) {
+        String name = (String) employeeInput.get("name");
+        Object salary = employeeInput.get("salary");
+        Object age = employeeInput.get("age");
+        if (name == null || name.trim().isEmpty()) {
+            return ResponseEntity.badRequest().body("Employee name cannot be empty");
+        }
+        if (salary == null || age == null) {
+            return ResponseEntity.badRequest().body("Salary and age must be provided");
+        }
+        try {
+            if (Integer.parseInt(salary.toString()) < 0) {
+                return ResponseEntity.badRequest().body("Salary cannot be negative");
+            }
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body("Invalid salary format");
+        }
+        try {
+            int ageValue = Integer.parseInt(age.toString());
+            if (ageValue < 18 || ageValue > 100) {
+                return ResponseEntity.badRequest().body("Age must be between 18 and 100");
+            }
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body("Invalid age format");
+        }
+        return ResponseEntity.ok("Valid input");
+    }
+}
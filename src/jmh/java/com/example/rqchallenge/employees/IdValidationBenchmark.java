@@ -0,0 +1,30 @@
+package com.example.rqchallenge.employees;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IdValidationBenchmark {
+
+    @Param({"42", "1234567890", "invalid_id"})
+    private String id;
+
+    @Benchmark
+    public boolean isValidId() {
+        return EmployeeValidation.isValidId(id);
+    }
+
+    @Benchmark
+    public boolean isValidIdWithRegex() {
+        return id != null && !id.trim().isEmpty() && id.matches("\\d+");
+    }
+}
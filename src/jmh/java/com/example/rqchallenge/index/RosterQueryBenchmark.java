@@ -0,0 +1,83 @@
+package com.example.rqchallenge.index;
+
+import com.example.rqchallenge.dtos.Employee;
+import com.example.rqchallenge.loadtest.SyntheticRoster;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Name search, highest salary and top ten: the per-request scans the controller used to run,
+ * against the snapshot indexes that replaced them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RosterQueryBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+
+    @Param({"john", "zo"})
+    private String searchString;
+
+    private List<Employee> employees;
+    private SalaryIndex salaryIndex;
+    private NameIndex nameIndex;
+
+    @Setup
+    public void setUp() {
+        employees = SyntheticRoster.generate(size);
+        CompactRoster roster = CompactRoster.of(employees);
+        salaryIndex = SalaryIndex.build(roster);
+        nameIndex = NameIndex.build(roster);
+    }
+
+    @Benchmark
+    public List<Employee> nameSearchLinearScan() {
+        return employees.stream()
+                .filter(e -> e.getEmployeeName().toLowerCase().contains(searchString.toLowerCase()))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Employee> nameSearchIndexed() {
+        return nameIndex.search(searchString, NameMatch.CONTAINS, false, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public int highestSalaryStream() {
+        return employees.stream()
+                .mapToInt(e -> Integer.parseInt(e.getEmployeeSalary()))
+                .max()
+                .orElse(0);
+    }
+
+    @Benchmark
+    public int highestSalaryIndexed() {
+        return salaryIndex.highest().orElse(0);
+    }
+
+    @Benchmark
+    public List<String> topTenSorted() {
+        return employees.stream()
+                .sorted((e1, e2) -> Integer.compare(Integer.parseInt(e2.getEmployeeSalary()), Integer.parseInt(e1.getEmployeeSalary())))
+                .limit(10)
+                .map(Employee::getEmployeeName)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> topTenIndexed() {
+        return salaryIndex.topNames(10);
+    }
+}
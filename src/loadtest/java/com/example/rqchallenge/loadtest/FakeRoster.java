@@ -0,0 +1,98 @@
+package com.example.rqchallenge.loadtest;
+
+import com.example.rqchallenge.dtos.Employee;
+import com.example.rqchallenge.dtos.EmployeeResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The fake upstream's mutable roster. The {@code /employees} payload is serialized once per change
+ * rather than per request, so the fake itself stays cheap under load.
+ */
+@Component
+@Slf4j
+public class FakeRoster {
+
+    private final ObjectMapper objectMapper;
+    private final ConcurrentSkipListMap<Integer, Employee> employees = new ConcurrentSkipListMap<>();
+    private final AtomicInteger nextId;
+    // Bumped after every change; a payload is only reused while it is still the current version
+    private final AtomicLong version = new AtomicLong();
+    private volatile Payload employeesPayload;
+
+    public FakeRoster(FakeUpstreamProperties properties, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        for (Employee employee : SyntheticRoster.generate(properties.getRosterSize())) {
+            employees.put(Integer.parseInt(employee.getId()), employee);
+        }
+        this.nextId = new AtomicInteger(properties.getRosterSize());
+        log.info("Fake upstream serving {} employees", properties.getRosterSize());
+    }
+
+    public byte[] employeesPayload() throws JsonProcessingException {
+        long current = version.get();
+        Payload payload = employeesPayload;
+        if (payload == null || payload.version != current) {
+            // Read after the version, so it holds at least that version's changes
+            EmployeeResponse response = new EmployeeResponse();
+            response.setStatus(HttpStatus.OK);
+            response.setEmployees(new ArrayList<>(employees.values()));
+            payload = new Payload(current, objectMapper.writeValueAsBytes(response));
+            employeesPayload = payload;
+        }
+        return payload.bytes;
+    }
+
+    public Employee find(int id) {
+        return employees.get(id);
+    }
+
+    public Employee create(Map<String, Object> input) {
+        int id = nextId.incrementAndGet();
+        Employee employee = Employee.builder()
+                .id(Integer.toString(id))
+                .employeeName(String.valueOf(input.get("name")))
+                .employeeSalary(String.valueOf(input.get("salary")))
+                .employeeAge(String.valueOf(input.get("age")))
+                .profileImage("")
+                .build();
+        employees.put(id, employee);
+        version.incrementAndGet();
+        return employee;
+    }
+
+    public Employee delete(int id) {
+        Employee removed = employees.remove(id);
+        if (removed != null) {
+            version.incrementAndGet();
+        }
+        return removed;
+    }
+
+    static EmployeeResponse response(HttpStatus status, List<Employee> employees) {
+        EmployeeResponse response = new EmployeeResponse();
+        response.setStatus(status);
+        response.setEmployees(employees);
+        return response;
+    }
+
+    private static final class Payload {
+        private final long version;
+        private final byte[] bytes;
+
+        Payload(long version, byte[] bytes) {
+            this.version = version;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.rqchallenge.loadtest;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+/**
+ * Local stand-in for the upstream employee API, for profiling without the public dummy API.
+ * Reads its settings from {@code fake-upstream.properties} rather than the service's own.
+ */
+@SpringBootApplication
+@ConfigurationPropertiesScan
+public class FakeUpstreamApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(FakeUpstreamApplication.class)
+                .properties("spring.config.name=fake-upstream")
+                .run(args);
+    }
+}
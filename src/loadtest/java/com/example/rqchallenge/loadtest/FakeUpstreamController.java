@@ -0,0 +1,78 @@
+package com.example.rqchallenge.loadtest;
+
+import com.example.rqchallenge.dtos.Employee;
+import com.example.rqchallenge.dtos.EmployeeResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Mirrors the upstream routes used by {@code EmployeeApiClient}. Responses are delayed on a timer
+ * rather than a sleeping thread, so simulated latency does not cap the fake's own throughput.
+ */
+@RestController
+@RequestMapping("/api/v1")
+public class FakeUpstreamController {
+
+    private final FakeRoster roster;
+    private final FakeUpstreamProperties properties;
+
+    public FakeUpstreamController(FakeRoster roster, FakeUpstreamProperties properties) {
+        this.roster = roster;
+        this.properties = properties;
+    }
+
+    @GetMapping(value = "/employees", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<byte[]>> getEmployees() {
+        return respond(() -> {
+            try {
+                return ResponseEntity.ok(roster.employeesPayload());
+            } catch (JsonProcessingException e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            }
+        });
+    }
+
+    @GetMapping("/employee/{id}")
+    public Mono<ResponseEntity<EmployeeResponse>> getEmployee(@PathVariable int id) {
+        return respond(() -> {
+            Employee employee = roster.find(id);
+            return employee != null
+                    ? ResponseEntity.ok(FakeRoster.response(HttpStatus.OK, Collections.singletonList(employee)))
+                    : ResponseEntity.status(HttpStatus.NOT_FOUND).body(FakeRoster.response(HttpStatus.NOT_FOUND, Collections.emptyList()));
+        });
+    }
+
+    @PostMapping("/create")
+    public Mono<ResponseEntity<EmployeeResponse>> createEmployee(@RequestBody Map<String, Object> input) {
+        return respond(() -> ResponseEntity.ok(FakeRoster.response(HttpStatus.OK, Collections.singletonList(roster.create(input)))));
+    }
+
+    @DeleteMapping("/delete/{id}")
+    public Mono<ResponseEntity<EmployeeResponse>> deleteEmployee(@PathVariable int id) {
+        return respond(() -> roster.delete(id) != null
+                ? ResponseEntity.ok(FakeRoster.response(HttpStatus.OK, Collections.emptyList()))
+                : ResponseEntity.status(HttpStatus.NOT_FOUND).body(FakeRoster.response(HttpStatus.NOT_FOUND, Collections.emptyList())));
+    }
+
+    private <T> Mono<ResponseEntity<T>> respond(Supplier<ResponseEntity<T>> handler) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delayMillis = properties.getLatency().toMillis();
+        long jitterMillis = properties.getLatencyJitter().toMillis();
+        if (jitterMillis > 0) {
+            delayMillis += random.nextLong(jitterMillis + 1);
+        }
+        boolean fail = random.nextDouble() < properties.getErrorRate();
+        return Mono.delay(Duration.ofMillis(delayMillis))
+                .map(tick -> fail ? ResponseEntity.status(properties.getErrorStatus()).<T>build() : handler.get());
+    }
+}
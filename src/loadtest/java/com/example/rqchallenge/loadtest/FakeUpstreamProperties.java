@@ -0,0 +1,33 @@
+package com.example.rqchallenge.loadtest;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "fake-upstream")
+public class FakeUpstreamProperties {
+
+    /**
+     * Number of employees generated at startup.
+     */
+    private int rosterSize = 1000;
+
+    /**
+     * Base delay added to every response.
+     */
+    private Duration latency = Duration.ofMillis(50);
+
+    /**
+     * Upper bound of the random delay added on top of {@link #latency}.
+     */
+    private Duration latencyJitter = Duration.ofMillis(20);
+
+    /**
+     * Fraction of requests, between 0 and 1, answered with {@link #errorStatus} instead of data.
+     */
+    private double errorRate = 0.0;
+
+    private int errorStatus = 429;
+}
@@ -0,0 +1,56 @@
+package com.example.rqchallenge.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps every latency sample of one operation so percentiles are exact rather than bucketed.
+ */
+final class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int size;
+    private long errors;
+
+    synchronized void record(long latencyNanos, boolean error) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = latencyNanos;
+        if (error) {
+            errors++;
+        }
+    }
+
+    synchronized void addTo(LatencyRecorder total) {
+        for (int i = 0; i < size; i++) {
+            total.record(samples[i], false);
+        }
+        synchronized (total) {
+            total.errors += errors;
+        }
+    }
+
+    synchronized Map<String, Object> summarize(double seconds) {
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", size);
+        summary.put("errors", errors);
+        summary.put("throughput", size / seconds);
+        summary.put("p50Millis", percentileMillis(sorted, 0.50));
+        summary.put("p99Millis", percentileMillis(sorted, 0.99));
+        summary.put("p999Millis", percentileMillis(sorted, 0.999));
+        summary.put("maxMillis", sorted.length > 0 ? sorted[sorted.length - 1] / 1e6 : 0.0);
+        return summary;
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(rank, 0)] / 1e6;
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.rqchallenge.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the seven {@code IEmployeeController} endpoints of a running service with a weighted mix
+ * and reports p50/p99/p999 latency and throughput per endpoint.
+ * <p>
+ * Without {@code --rate} it runs closed-loop: {@code --concurrency} workers each send the next
+ * request as soon as the previous one completes. With {@code --rate} it runs open-loop at a fixed
+ * arrival rate and measures latency from each request's scheduled start, so a saturated service
+ * shows up as growing latency instead of silently lowering the offered load.
+ * <p>
+ * Options, all {@code --name=value}: target, duration, warmup, concurrency, rate, roster-size,
+ * mix (e.g. {@code getAll:20,search:20,getById:30,highestSalary:10,topTen:10,create:5,delete:5})
+ * and output.
+ */
+public final class LoadGenerator {
+
+    enum Operation {
+        GET_ALL("getAll"),
+        SEARCH("search"),
+        GET_BY_ID("getById"),
+        HIGHEST_SALARY("highestSalary"),
+        TOP_TEN("topTen"),
+        CREATE("create"),
+        DELETE("delete");
+
+        private final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+
+        static Operation fromKey(String key) {
+            for (Operation operation : values()) {
+                if (operation.key.equals(key)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation in mix: " + key);
+        }
+    }
+
+    private static final String[] SEARCH_TERMS = {"john", "smith", "mar", "zoe", "ez", "william"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Map<String, String> options;
+    private final String target;
+    private final int rosterSize;
+    private final Operation[] schedule;
+    private final Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+    private final Queue<String> createdIds = new ConcurrentLinkedQueue<>();
+    private volatile long measureFrom;
+    private volatile long measureUntil;
+
+    private LoadGenerator(Map<String, String> options) {
+        this.options = options;
+        this.target = option("target", "http://localhost:8080");
+        this.rosterSize = Integer.parseInt(option("roster-size", "1000"));
+        this.schedule = schedule(option("mix", "getAll:20,search:20,getById:30,highestSalary:10,topTen:10,create:5,delete:5"));
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new LoadGenerator(options).run();
+    }
+
+    private void run() throws Exception {
+        Duration warmup = Duration.parse("PT" + option("warmup", "10s").toUpperCase());
+        Duration duration = Duration.parse("PT" + option("duration", "60s").toUpperCase());
+        int concurrency = Integer.parseInt(option("concurrency", "64"));
+        double rate = Double.parseDouble(option("rate", "0"));
+
+        long start = System.nanoTime();
+        measureFrom = start + warmup.toNanos();
+        measureUntil = measureFrom + duration.toNanos();
+        System.out.printf("Driving %s for %s after %s warmup (%s)%n", target, duration, warmup,
+                rate > 0 ? String.format("open loop at %.0f req/s", rate) : "closed loop with " + concurrency + " workers");
+
+        if (rate > 0) {
+            runOpenLoop(start, rate);
+        } else {
+            runClosedLoop(concurrency);
+        }
+        report(duration.toNanos() / 1e9);
+    }
+
+    private void runClosedLoop(int concurrency) throws InterruptedException {
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            Thread worker = new Thread(() -> {
+                while (System.nanoTime() < measureUntil) {
+                    Call call = nextCall();
+                    long scheduledAt = System.nanoTime();
+                    try {
+                        complete(call.operation, scheduledAt, httpClient.send(call.request, HttpResponse.BodyHandlers.ofString()), null);
+                    } catch (IOException e) {
+                        complete(call.operation, scheduledAt, null, e);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }, "load-worker-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    private void runOpenLoop(long start, double rate) {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        AtomicInteger inFlight = new AtomicInteger();
+        for (long scheduledAt = start; scheduledAt < measureUntil; scheduledAt += intervalNanos) {
+            long wait = scheduledAt - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Call call = nextCall();
+            long intended = scheduledAt;
+            inFlight.incrementAndGet();
+            httpClient.sendAsync(call.request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        complete(call.operation, intended, response, error);
+                        inFlight.decrementAndGet();
+                    });
+        }
+        while (inFlight.get() > 0) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    private void complete(Operation operation, long scheduledAt, HttpResponse<String> response, Throwable error) {
+        long latency = System.nanoTime() - scheduledAt;
+        if (response != null && operation == Operation.CREATE && response.statusCode() == 201) {
+            rememberCreatedId(response.body());
+        }
+        if (scheduledAt >= measureFrom && scheduledAt < measureUntil) {
+            // A 4xx is as much a failed call as a 5xx: the mix only sends requests that should succeed
+            recorders.get(operation).record(latency, error != null || response.statusCode() / 100 != 2);
+        }
+    }
+
+    private HttpRequest request(Operation operation, String deleteId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(Duration.ofSeconds(30));
+        switch (operation) {
+            case GET_ALL:
+                return builder.uri(uri("/")).GET().build();
+            case SEARCH:
+                return builder.uri(uri("/search/" + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)])).GET().build();
+            case GET_BY_ID:
+                return builder.uri(uri("/" + (1 + random.nextInt(rosterSize)))).GET().build();
+            case HIGHEST_SALARY:
+                return builder.uri(uri("/highestSalary")).GET().build();
+            case TOP_TEN:
+                return builder.uri(uri("/topTenHighestEarningEmployeeNames")).GET().build();
+            case CREATE:
+                String body = String.format("{\"name\":\"Load Test %d\",\"salary\":\"%d\",\"age\":\"%d\"}",
+                        random.nextInt(1_000_000), 20_000 + random.nextInt(480_000), 18 + random.nextInt(65));
+                return builder.uri(uri("/"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+            case DELETE:
+            default:
+                return builder.uri(uri("/" + deleteId)).DELETE().build();
+        }
+    }
+
+    private Call nextCall() {
+        Operation operation = schedule[ThreadLocalRandom.current().nextInt(schedule.length)];
+        String deleteId = null;
+        if (operation == Operation.DELETE) {
+            // Only delete employees this run created, so the roster under test does not shrink
+            deleteId = createdIds.poll();
+            if (deleteId == null) {
+                operation = Operation.CREATE;
+            }
+        }
+        return new Call(operation, request(operation, deleteId));
+    }
+
+    private void rememberCreatedId(String body) {
+        try {
+            JsonNode id = objectMapper.readTree(body).get("id");
+            if (id != null) {
+                createdIds.add(id.asText());
+            }
+        } catch (IOException e) {
+            // Not worth failing the run over; the id is simply never deleted
+        }
+    }
+
+    private void report(double seconds) throws IOException {
+        Map<String, Object> results = new LinkedHashMap<>();
+        LatencyRecorder total = new LatencyRecorder();
+        System.out.printf("%-15s %10s %8s %10s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Map.Entry<Operation, LatencyRecorder> entry : recorders.entrySet()) {
+            entry.getValue().addTo(total);
+            Map<String, Object> summary = entry.getValue().summarize(seconds);
+            results.put(entry.getKey().key, summary);
+            print(entry.getKey().key, summary);
+        }
+        Map<String, Object> overall = total.summarize(seconds);
+        results.put("total", overall);
+        print("total", overall);
+
+        File output = new File(option("output", "build/reports/loadtest/results.json"));
+        if (output.getParentFile() != null) {
+            output.getParentFile().mkdirs();
+        }
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(output, results);
+        System.out.println("Results written to " + output.getAbsolutePath());
+    }
+
+    private static void print(String name, Map<String, Object> summary) {
+        System.out.printf("%-15s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n", name,
+                summary.get("requests"), summary.get("errors"), summary.get("throughput"), summary.get("p50Millis"),
+                summary.get("p99Millis"), summary.get("p999Millis"), summary.get("maxMillis"));
+    }
+
+    private static Operation[] schedule(String mix) {
+        List<Operation> schedule = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] weighted = part.trim().split(":");
+            Operation operation = Operation.fromKey(weighted[0]);
+            int weight = weighted.length > 1 ? Integer.parseInt(weighted[1]) : 1;
+            for (int i = 0; i < weight; i++) {
+                schedule.add(operation);
+            }
+        }
+        return schedule.toArray(new Operation[0]);
+    }
+
+    private URI uri(String path) {
+        return URI.create(target + path);
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private static final class Call {
+        private final Operation operation;
+        private final HttpRequest request;
+
+        Call(Operation operation, HttpRequest request) {
+            this.operation = operation;
+            this.request = request;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.rqchallenge.loadtest;
+
+import com.example.rqchallenge.dtos.Employee;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic rosters for benchmarks and the fake upstream: realistic name, salary and age spreads for any size.
+ */
+public final class SyntheticRoster {
+
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "William", "Elizabeth",
+            "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Zoë"
+    };
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin"
+    };
+
+    private SyntheticRoster() {
+    }
+
+    public static List<Employee> generate(int size) {
+        Random random = new Random(size);
+        List<Employee> employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            employees.add(Employee.builder()
+                    .id(Integer.toString(i + 1))
+                    .employeeName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                            + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + "-" + random.nextInt(1000))
+                    .employeeSalary(Integer.toString(20_000 + random.nextInt(480_000)))
+                    .employeeAge(Integer.toString(18 + random.nextInt(65)))
+                    .profileImage("")
+                    .build());
+        }
+        return employees;
+    }
+}
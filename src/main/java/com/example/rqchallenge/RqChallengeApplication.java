@@ -1,7 +1,11 @@
 package com.example.rqchallenge;
 
+import com.example.rqchallenge.upstream.AdaptiveTimeoutRequestFactory;
+import com.example.rqchallenge.upstream.UpstreamMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.web.client.RestTemplate;
@@ -9,6 +13,7 @@ import org.springframework.web.client.RestTemplate;
 import java.time.Duration;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class RqChallengeApplication {
 
     public static void main(String[] args) {
@@ -16,9 +21,13 @@ public class RqChallengeApplication {
     }
 
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        return builder.setConnectTimeout(Duration.ofMillis(3000))
-                .setReadTimeout(Duration.ofMillis(3000)).build();
+    public RestTemplate restTemplate(RestTemplateBuilder builder, MeterRegistry meterRegistry) {
+        // Read timeouts are tightened per call from observed latency; 3s remains the ceiling
+        return builder.requestFactory(AdaptiveTimeoutRequestFactory::new)
+                .setConnectTimeout(Duration.ofMillis(3000))
+                .setReadTimeout(Duration.ofMillis(3000))
+                .additionalInterceptors(new UpstreamMetricsInterceptor(meterRegistry))
+                .build();
     }
 
 }
@@ -0,0 +1,26 @@
+package com.example.rqchallenge.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "employees.by-id")
+public class ByIdCacheProperties {
+
+    /**
+     * How long a known employee is served from memory after it was last written.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * How long an id that upstream reported as missing keeps answering 404 without a round trip.
+     */
+    private Duration negativeTtl = Duration.ofSeconds(15);
+
+    /**
+     * Upper bound on cached ids, found and missing combined. Eviction beyond it is W-TinyLFU.
+     */
+    private long maximumSize = 100_000;
+}
@@ -0,0 +1,95 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.dtos.Employee;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded per-id cache for single employee lookups, including ids upstream reported as missing.
+ * Ids covered by the current roster snapshot are answered by {@link EmployeeSnapshot#findById(String)}
+ * before this cache is consulted, so the roster is not copied into it a second time and a refreshed
+ * roster wins over an entry cached before it.
+ */
+@Component
+public class EmployeeByIdCache {
+
+    private final Cache<String, Entry> cache;
+
+    public EmployeeByIdCache(ByIdCacheProperties properties, MeterRegistry meterRegistry) {
+        long ttlNanos = properties.getTtl().toNanos();
+        long negativeTtlNanos = properties.getNegativeTtl().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String id, Entry entry, long currentTime) {
+                        return entry.isMissing() ? negativeTtlNanos : ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String id, Entry entry, long currentTime, long currentDuration) {
+                        return entry.isMissing() ? negativeTtlNanos : ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String id, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "employees.byId");
+    }
+
+    /**
+     * Returns the cached entry for {@code id}, or {@code null} when upstream has to be asked.
+     */
+    public Entry get(String id) {
+        return cache.getIfPresent(id);
+    }
+
+    public void put(Employee employee) {
+        if (employee != null && employee.getId() != null) {
+            cache.put(employee.getId(), new Entry(employee));
+        }
+    }
+
+    public void putMissing(String id) {
+        cache.put(id, Entry.MISSING);
+    }
+
+    /**
+     * Drops the cached employees but keeps ids known to be missing, once a roster fetched since
+     * may have updated or deleted them.
+     */
+    public void invalidateFound() {
+        cache.asMap().values().removeIf(entry -> !entry.isMissing());
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public static final class Entry {
+
+        private static final Entry MISSING = new Entry(null);
+
+        private final Employee employee;
+
+        private Entry(Employee employee) {
+            this.employee = employee;
+        }
+
+        public Employee getEmployee() {
+            return employee;
+        }
+
+        public boolean isMissing() {
+            return employee == null;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.dtos.Employee;
+import com.example.rqchallenge.index.CompactRoster;
+import com.example.rqchallenge.index.NameIndex;
+import com.example.rqchallenge.index.SalaryIndex;
+import com.example.rqchallenge.index.SortField;
+import com.example.rqchallenge.index.SortIndex;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Immutable view of the employee roster as returned by a single upstream fetch, together with
+ * the read indexes derived from it. The roster itself is held in {@link CompactRoster} form.
+ * <p>
+ * Successful writes are applied as deltas: {@link #withAdded} and {@link #withRemoved} derive a
+ * new snapshot that shares the roster columns and indexes of this one. {@link #getContentHash()}
+ * is maintained along the way so a later full fetch can tell cheaply whether anything differs.
+ */
+@Getter
+public final class EmployeeSnapshot {
+
+    private final CompactRoster roster;
+    private final Instant loadedAt;
+    private final long version;
+    private final SalaryIndex salaryIndex;
+    private final NameIndex nameIndex;
+    private final long contentHash;
+    @Getter(AccessLevel.NONE)
+    private final AtomicReferenceArray<SortIndex> sortIndexes;
+    @Getter(AccessLevel.NONE)
+    private volatile long representationHash;
+
+    public EmployeeSnapshot(List<Employee> employees, Instant loadedAt, long version) {
+        this(employees, loadedAt, version, null);
+    }
+
+    /**
+     * Builds a snapshot whose indexes reuse whatever they can from {@code previous}.
+     */
+    public EmployeeSnapshot(List<Employee> employees, Instant loadedAt, long version, EmployeeSnapshot previous) {
+        this.roster = CompactRoster.of(employees);
+        this.loadedAt = loadedAt;
+        this.version = version;
+        this.salaryIndex = SalaryIndex.build(roster);
+        this.nameIndex = NameIndex.build(roster, previous != null ? previous.nameIndex : null);
+        this.contentHash = contentHash(employees);
+        this.sortIndexes = new AtomicReferenceArray<>(SortField.values().length);
+    }
+
+    private EmployeeSnapshot(CompactRoster roster, Instant loadedAt, long version, SalaryIndex salaryIndex,
+                             NameIndex nameIndex, long contentHash, AtomicReferenceArray<SortIndex> sortIndexes) {
+        this.roster = roster;
+        this.loadedAt = loadedAt;
+        this.version = version;
+        this.salaryIndex = salaryIndex;
+        this.nameIndex = nameIndex;
+        this.contentHash = contentHash;
+        this.sortIndexes = sortIndexes;
+    }
+
+    /**
+     * The roster as a read-only list; elements are materialized from the compact form on access.
+     */
+    public List<Employee> getEmployees() {
+        return roster.asList();
+    }
+
+    /**
+     * Returns the employee with {@code id}, or {@code null} when it is not part of this snapshot.
+     */
+    public Employee findById(String id) {
+        int position = roster.positionOf(id);
+        return position >= 0 ? roster.employee(position) : null;
+    }
+
+    /**
+     * Returns a snapshot with {@code employee} appended, replacing any employee with the same id.
+     */
+    public EmployeeSnapshot withAdded(Employee employee, long version) {
+        EmployeeSnapshot base = employee.getId() != null ? withRemoved(employee.getId(), version) : this;
+        CompactRoster added = base.roster.withAppended(employee);
+        int position = added.positions() - 1;
+        AtomicReferenceArray<SortIndex> sorted = new AtomicReferenceArray<>(base.sortIndexes.length());
+        for (int i = 0; i < sorted.length(); i++) {
+            SortIndex index = base.sortIndexes.get(i);
+            sorted.set(i, index != null ? index.withAppended(added, position) : null);
+        }
+        return new EmployeeSnapshot(added, loadedAt, version, base.salaryIndex.withAppended(added, position),
+                base.nameIndex.withAppended(added, position), base.contentHash + hash(employee), sorted);
+    }
+
+    /**
+     * Returns a snapshot without the employee with {@code id}, or this snapshot if there is none.
+     */
+    public EmployeeSnapshot withRemoved(String id, long version) {
+        int position = roster.positionOf(id);
+        if (position < 0) {
+            return this;
+        }
+        CompactRoster remaining = roster.withRemoved(position);
+        AtomicReferenceArray<SortIndex> sorted = new AtomicReferenceArray<>(sortIndexes.length());
+        for (int i = 0; i < sorted.length(); i++) {
+            SortIndex index = sortIndexes.get(i);
+            sorted.set(i, index != null ? index.withRemoved(remaining, position) : null);
+        }
+        return new EmployeeSnapshot(remaining, loadedAt, version, salaryIndex.withRoster(remaining),
+                nameIndex.withRoster(remaining), contentHash - hash(roster.employee(position)), sorted);
+    }
+
+    /**
+     * Rebuilds the roster columns and indexes with the accumulated deltas folded in.
+     */
+    public EmployeeSnapshot compacted(long version) {
+        return new EmployeeSnapshot(new ArrayList<>(getEmployees()), loadedAt, version, this);
+    }
+
+    /**
+     * Returns this snapshot marked as confirmed by a full fetch at {@code verifiedAt}.
+     */
+    public EmployeeSnapshot reconciledAt(Instant verifiedAt) {
+        return new EmployeeSnapshot(roster, verifiedAt, version, salaryIndex, nameIndex, contentHash, sortIndexes);
+    }
+
+    /**
+     * Returns the ordering of this roster by {@code field}, built on first use. Indexes already
+     * built are carried through deltas like the salary and name indexes.
+     */
+    public SortIndex sortIndex(SortField field) {
+        SortIndex index = sortIndexes.get(field.ordinal());
+        if (index == null) {
+            index = SortIndex.build(roster, field);
+            if (!sortIndexes.compareAndSet(field.ordinal(), null, index)) {
+                index = sortIndexes.get(field.ordinal());
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Approximate heap retained by the roster and every index built over it so far.
+     */
+    public long estimatedBytes() {
+        long bytes = roster.estimatedBytes() + salaryIndex.estimatedBytes() + nameIndex.estimatedBytes();
+        for (int i = 0; i < sortIndexes.length(); i++) {
+            SortIndex index = sortIndexes.get(i);
+            if (index != null) {
+                bytes += index.estimatedBytes();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Order-sensitive hash of the roster as it is served, computed on first use. Unlike
+     * {@link #getContentHash()} it differs when the same employees are listed in another order,
+     * so it can back strong validators for responses derived from this snapshot.
+     */
+    public long representationHash() {
+        long h = representationHash;
+        if (h == 0) {
+            h = 1;
+            for (Employee employee : getEmployees()) {
+                h = h * 31 + hash(employee);
+            }
+            // Zero marks "not computed yet"
+            representationHash = h != 0 ? h : 1;
+        }
+        return representationHash;
+    }
+
+    public Duration age() {
+        return Duration.between(loadedAt, Instant.now());
+    }
+
+    public boolean isEmpty() {
+        return roster.size() == 0;
+    }
+
+    /**
+     * Order-independent hash of a roster: the sum of a 64-bit hash per employee, so it can be
+     * updated by adding and subtracting single employees.
+     */
+    public static long contentHash(List<Employee> employees) {
+        long sum = 0;
+        for (Employee employee : employees) {
+            sum += hash(employee);
+        }
+        return sum;
+    }
+
+    private static long hash(Employee employee) {
+        long h = Objects.hashCode(employee.getId());
+        h = h * 31 + Objects.hashCode(employee.getEmployeeName());
+        h = h * 31 + Objects.hashCode(employee.getEmployeeSalary());
+        h = h * 31 + Objects.hashCode(employee.getEmployeeAge());
+        h = h * 31 + Objects.hashCode(employee.getProfileImage());
+        // Finalizer from SplitMix64, so similar employees do not produce similar hashes
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+}
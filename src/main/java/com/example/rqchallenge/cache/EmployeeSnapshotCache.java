@@ -0,0 +1,473 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.dtos.Employee;
+import com.example.rqchallenge.upstream.CallPriority;
+import com.example.rqchallenge.upstream.EmployeeApiClient;
+import com.example.rqchallenge.upstream.OutboundScheduler;
+import com.example.rqchallenge.upstream.UpstreamUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Holds the current {@link EmployeeSnapshot} and keeps it fresh in the background.
+ * <p>
+ * Only the very first read (or the first read after {@link #invalidate()}) goes upstream on the
+ * caller's thread; every other read is served from memory, even while a refresh is running.
+ * <p>
+ * Successful creates and deletes are applied to the current snapshot as deltas rather than
+ * dropping it. Each background refresh reconciles against a full fetch: when the fetched roster
+ * hashes the same as the current one, the current snapshot and its indexes are kept. Writes made
+ * while a fetch is in flight are replayed onto the fetched roster, so refreshes keep reconciling
+ * under a steady write rate.
+ */
+@Component
+@Slf4j
+public class EmployeeSnapshotCache {
+
+    private final EmployeeApiClient apiClient;
+    private final SnapshotCacheProperties properties;
+
+    private final Object loadLock = new Object();
+    private final Object stateLock = new Object();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final AtomicLong versions = new AtomicLong();
+    private volatile EmployeeSnapshot current;
+    private volatile EmployeeSnapshot lastLoaded;
+    private volatile boolean restored;
+    private volatile boolean restoredUnconfirmed;
+    private volatile long refreshDeferredUntil = System.nanoTime();
+    private long generation;
+    private long invalidatedAt;
+    private long loadedGeneration;
+    private final Deque<Write> writes = new ArrayDeque<>();
+
+    private final List<Consumer<EmployeeSnapshot>> listeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<EmployeeSnapshot>> fetchListeners = new CopyOnWriteArrayList<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter refreshFailures;
+    private final Counter staleServed;
+    private final Counter deltasApplied;
+    private final Counter writesReplayed;
+    private final Counter reconciledUnchanged;
+    private final Counter reconciledChanged;
+    private final Timer fetchTime;
+    private final Timer buildTime;
+
+    private ScheduledExecutorService scheduler;
+
+    public EmployeeSnapshotCache(EmployeeApiClient apiClient, SnapshotCacheProperties properties, MeterRegistry meterRegistry) {
+        this.apiClient = apiClient;
+        this.properties = properties;
+        this.hits = Counter.builder("employees.snapshot.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("employees.snapshot.requests").tag("result", "miss").register(meterRegistry);
+        this.refreshFailures = Counter.builder("employees.snapshot.refresh.failures").register(meterRegistry);
+        this.staleServed = Counter.builder("employees.snapshot.stale").register(meterRegistry);
+        this.deltasApplied = Counter.builder("employees.snapshot.deltas").register(meterRegistry);
+        this.writesReplayed = Counter.builder("employees.snapshot.reconcile").tag("result", "replayed").register(meterRegistry);
+        this.reconciledUnchanged = Counter.builder("employees.snapshot.reconcile").tag("result", "unchanged").register(meterRegistry);
+        this.reconciledChanged = Counter.builder("employees.snapshot.reconcile").tag("result", "changed").register(meterRegistry);
+        this.fetchTime = Timer.builder("employees.snapshot.fetch")
+                .description("Time to fetch the full roster from upstream")
+                .register(meterRegistry);
+        this.buildTime = Timer.builder("employees.snapshot.build")
+                .description("Time to build the compact roster and its indexes")
+                .register(meterRegistry);
+        Gauge.builder("employees.snapshot.age", this, EmployeeSnapshotCache::ageSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("employees.snapshot.size", this, cache -> cache.current != null ? cache.current.getEmployees().size() : 0)
+                .register(meterRegistry);
+        Gauge.builder("employees.snapshot.bytes", this, cache -> cache.current != null ? cache.current.estimatedBytes() : 0)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        long intervalMillis = properties.getRefreshInterval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "employee-snapshot-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refresh, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        log.info("Employee snapshot refresh scheduled every {}", properties.getRefreshInterval());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public EmployeeSnapshot get() throws RestClientException {
+        EmployeeSnapshot snapshot = current;
+        if (snapshot != null) {
+            hits.increment();
+            return snapshot;
+        }
+        synchronized (loadLock) {
+            snapshot = current;
+            if (snapshot != null) {
+                hits.increment();
+                return snapshot;
+            }
+            misses.increment();
+            try {
+                return load();
+            } catch (UpstreamUnavailableException e) {
+                return lastGood(e);
+            }
+        }
+    }
+
+    /**
+     * Falls back to the last snapshot ever loaded, even if it was invalidated since, when upstream
+     * is known to be unavailable. Rethrows {@code failure} if nothing was ever loaded.
+     */
+    public EmployeeSnapshot lastGood(UpstreamUnavailableException failure) {
+        EmployeeSnapshot snapshot = lastLoaded;
+        if (snapshot == null) {
+            throw failure;
+        }
+        staleServed.increment();
+        log.warn("Serving employee snapshot version {} from {} while upstream is unavailable: {}",
+                snapshot.getVersion(), snapshot.getLoadedAt(), failure.getMessage());
+        return snapshot;
+    }
+
+    /**
+     * Returns the current snapshot without going upstream, or {@code null} when a load is needed.
+     * Callers that load the roster themselves hand it back through {@link #publish(List, long)}.
+     */
+    public EmployeeSnapshot getIfPresent() {
+        EmployeeSnapshot snapshot = current;
+        if (snapshot != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the current snapshot, or {@code null}, without going upstream or counting a hit or miss.
+     */
+    public EmployeeSnapshot peek() {
+        return current;
+    }
+
+    public long generation() {
+        synchronized (stateLock) {
+            return generation;
+        }
+    }
+
+    /**
+     * Wraps a freshly fetched roster in a new snapshot and makes it current. Writes applied after
+     * {@code startGeneration} was read are replayed on top, since the fetch may predate them; if
+     * the cache was invalidated since, or more writes were made than are remembered, the roster
+     * is discarded instead. A roster identical to the last one loaded keeps that snapshot's
+     * indexes and version.
+     *
+     * @return the snapshot made current, or the discarded one
+     */
+    public EmployeeSnapshot publish(List<Employee> employees, long startGeneration) {
+        EmployeeSnapshot previous = lastLoaded;
+        EmployeeSnapshot fetched;
+        if (previous != null && previous.getEmployees().size() == employees.size()
+                && previous.getContentHash() == EmployeeSnapshot.contentHash(employees)) {
+            reconciledUnchanged.increment();
+            fetched = previous.reconciledAt(Instant.now());
+        } else {
+            if (previous != null) {
+                reconciledChanged.increment();
+            }
+            fetched = buildTime.record(
+                    () -> new EmployeeSnapshot(employees, Instant.now(), versions.incrementAndGet(), previous));
+        }
+        EmployeeSnapshot published = null;
+        synchronized (stateLock) {
+            if (generation == startGeneration) {
+                published = fetched;
+            } else if (invalidatedAt <= startGeneration && !writes.isEmpty()
+                    && writes.peekFirst().generation <= startGeneration + 1) {
+                published = fetched;
+                for (Write write : writes) {
+                    if (write.generation > startGeneration && !write.isReflectedIn(published::findById)) {
+                        published = apply(published, write);
+                    }
+                }
+                writesReplayed.increment();
+            }
+            if (published != null) {
+                current = published;
+                lastLoaded = published;
+                loadedGeneration = generation;
+                restored = false;
+                restoredUnconfirmed = false;
+            }
+        }
+        if (published == null) {
+            return fetched;
+        }
+        notifyListeners(published);
+        return published;
+    }
+
+    /**
+     * Publishes a roster another instance fetched, unless it lacks a write applied here since this
+     * instance last loaded the roster: the sender's fetch may predate that write, and publishing
+     * the roster would undo it. The roster is refused as well when the cache was invalidated since,
+     * or more writes were made than are remembered.
+     *
+     * @return whether the roster was published
+     */
+    public boolean publishShared(List<Employee> employees) {
+        long startGeneration;
+        synchronized (stateLock) {
+            if (!reflectsLocalWrites(employees)) {
+                return false;
+            }
+            startGeneration = generation;
+        }
+        // Writes made from here on are replayed by publish like for a fetch of our own
+        EmployeeSnapshot published = publish(employees, startGeneration);
+        return current == published;
+    }
+
+    private boolean reflectsLocalWrites(List<Employee> employees) {
+        if (generation == loadedGeneration) {
+            return true;
+        }
+        if (invalidatedAt > loadedGeneration || writes.isEmpty() || writes.peekFirst().generation > loadedGeneration + 1) {
+            return false;
+        }
+        Map<String, Employee> byId = new HashMap<>();
+        for (Employee employee : employees) {
+            byId.put(employee.getId(), employee);
+        }
+        for (Write write : writes) {
+            if (write.generation > loadedGeneration && !write.isReflectedIn(byId::get)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Makes a roster saved by an earlier run the current snapshot, provided nothing has been loaded
+     * yet, and starts a refresh to confirm it against upstream. Until a fetch succeeds the snapshot
+     * is {@link #isRestored() restored}: reads are served from it, and once a refresh has failed it
+     * is {@link #isReadOnly() read-only} until one succeeds.
+     *
+     * @return whether the roster was taken
+     */
+    public boolean restore(List<Employee> employees, Instant savedAt) {
+        EmployeeSnapshot snapshot = buildTime.record(() -> new EmployeeSnapshot(employees, savedAt, versions.incrementAndGet()));
+        synchronized (stateLock) {
+            if (current != null || lastLoaded != null) {
+                return false;
+            }
+            current = snapshot;
+            lastLoaded = snapshot;
+            loadedGeneration = generation;
+            restored = true;
+        }
+        log.info("Restored employee snapshot of {} employees saved at {}", snapshot.getRoster().size(), savedAt);
+        notifyListeners(snapshot);
+        if (scheduler != null) {
+            scheduler.execute(this::refresh);
+        }
+        return true;
+    }
+
+    /**
+     * Whether the current snapshot was restored from an earlier run and not yet confirmed by a fetch.
+     */
+    public boolean isRestored() {
+        return restored;
+    }
+
+    /**
+     * Whether writes should be refused: the current snapshot was restored from an earlier run and
+     * the last attempt to confirm it against upstream failed. Upstream writes would most likely
+     * fail too, and could not be reconciled with a roster that was never confirmed.
+     */
+    public boolean isReadOnly() {
+        return restored && restoredUnconfirmed;
+    }
+
+    /**
+     * Registers a callback invoked with every snapshot that becomes current.
+     */
+    public void addListener(Consumer<EmployeeSnapshot> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Registers a callback invoked with the result of every full fetch from upstream that became
+     * current, whether or not it changed the roster. Rosters handed to {@link #publish} by other
+     * means are not reported.
+     */
+    public void addFetchListener(Consumer<EmployeeSnapshot> listener) {
+        fetchListeners.add(listener);
+    }
+
+    /**
+     * Skips background refreshes for the next one and a half refresh intervals, because a roster
+     * at least as fresh as a fetch would return was obtained elsewhere.
+     */
+    public void deferRefresh() {
+        refreshDeferredUntil = System.nanoTime() + properties.getRefreshInterval().toNanos() * 3 / 2;
+    }
+
+    /**
+     * Applies a successful upstream create to the current snapshot.
+     */
+    public void applyCreated(Employee employee) {
+        applyWrite(new Write(employee, null));
+    }
+
+    /**
+     * Applies a successful upstream delete to the current snapshot.
+     */
+    public void applyDeleted(String id) {
+        applyWrite(new Write(null, id));
+    }
+
+    private void applyWrite(Write write) {
+        EmployeeSnapshot updated;
+        synchronized (stateLock) {
+            // Remembered so a fetch that started before this write gets it replayed on top
+            write.generation = ++generation;
+            writes.addLast(write);
+            if (writes.size() > properties.getMaxDelta()) {
+                writes.removeFirst();
+            }
+            if (current == null) {
+                return;
+            }
+            updated = apply(current, write);
+            current = updated;
+            lastLoaded = updated;
+        }
+        deltasApplied.increment();
+        notifyListeners(updated);
+    }
+
+    private EmployeeSnapshot apply(EmployeeSnapshot snapshot, Write write) {
+        EmployeeSnapshot updated = write.created != null
+                ? snapshot.withAdded(write.created, versions.incrementAndGet())
+                : snapshot.withRemoved(write.deletedId, versions.incrementAndGet());
+        if (updated.getRoster().deltaSize() > properties.getMaxDelta()) {
+            updated = updated.compacted(updated.getVersion());
+        }
+        return updated;
+    }
+
+    /**
+     * Drops the current snapshot so the next read observes upstream writes. A refresh that
+     * started before the invalidation is discarded rather than published.
+     */
+    public void invalidate() {
+        synchronized (stateLock) {
+            invalidatedAt = ++generation;
+            current = null;
+        }
+        log.info("Employee snapshot invalidated");
+    }
+
+    public void refresh() {
+        // Nothing to refresh until someone has asked for the roster at least once
+        if (current == null || System.nanoTime() - refreshDeferredUntil < 0 || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            // Nobody waits on a refresh, so it yields to calls made for clients
+            OutboundScheduler.withPriority(CallPriority.BACKGROUND, this::load);
+        } catch (RuntimeException e) {
+            refreshFailures.increment();
+            restoredUnconfirmed = restored;
+            log.warn("Background refresh of employee snapshot failed, serving stale data: {}", e.getMessage());
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private EmployeeSnapshot load() {
+        long startGeneration = generation();
+        EmployeeSnapshot snapshot = publish(fetchTime.record(apiClient::fetchAllEmployees), startGeneration);
+        if (current != snapshot) {
+            // Superseded by a write made while fetching
+            return snapshot;
+        }
+        for (Consumer<EmployeeSnapshot> listener : fetchListeners) {
+            try {
+                listener.accept(snapshot);
+            } catch (RuntimeException e) {
+                log.error("Employee fetch listener failed: {}", e.getMessage(), e);
+            }
+        }
+        return snapshot;
+    }
+
+    private void notifyListeners(EmployeeSnapshot snapshot) {
+        for (Consumer<EmployeeSnapshot> listener : listeners) {
+            try {
+                listener.accept(snapshot);
+            } catch (RuntimeException e) {
+                log.error("Employee snapshot listener failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private double ageSeconds() {
+        EmployeeSnapshot snapshot = current;
+        return snapshot != null ? snapshot.age().toMillis() / 1000.0 : Double.NaN;
+    }
+
+    private static final class Write {
+        private final Employee created;
+        private final String deletedId;
+        private long generation;
+
+        Write(Employee created, String deletedId) {
+            this.created = created;
+            this.deletedId = deletedId;
+        }
+
+        boolean isReflectedIn(Function<String, Employee> findById) {
+            if (created != null) {
+                return created.getId() != null && Objects.equals(findById.apply(created.getId()), created);
+            }
+            return findById.apply(deletedId) == null;
+        }
+    }
+}
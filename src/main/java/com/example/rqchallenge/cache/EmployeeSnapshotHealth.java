@@ -0,0 +1,41 @@
+package com.example.rqchallenge.cache;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports where the current roster came from. A snapshot restored from disk and not yet
+ * confirmed by upstream reports {@link #DEGRADED}: reads are served from it, but writes are
+ * refused once confirming it has failed. {@code DEGRADED} ranks between {@code OUT_OF_SERVICE}
+ * and {@code UP} and is served with a 200, so the instance keeps taking read traffic.
+ */
+@Component
+public class EmployeeSnapshotHealth implements HealthIndicator {
+
+    public static final Status DEGRADED = new Status("DEGRADED", "Serving a roster restored from disk");
+
+    private final EmployeeSnapshotCache snapshotCache;
+
+    public EmployeeSnapshotHealth(EmployeeSnapshotCache snapshotCache) {
+        this.snapshotCache = snapshotCache;
+    }
+
+    @Override
+    public Health health() {
+        EmployeeSnapshot snapshot = snapshotCache.peek();
+        if (snapshot == null) {
+            return Health.up().withDetail("loaded", false).build();
+        }
+        boolean restored = snapshotCache.isRestored();
+        return Health.status(restored ? DEGRADED : Status.UP)
+                .withDetail("loaded", true)
+                .withDetail("version", snapshot.getVersion())
+                .withDetail("employees", snapshot.getRoster().size())
+                .withDetail("age", snapshot.age().toString())
+                .withDetail("source", restored ? "disk" : "upstream")
+                .withDetail("readOnly", snapshotCache.isReadOnly())
+                .build();
+    }
+}
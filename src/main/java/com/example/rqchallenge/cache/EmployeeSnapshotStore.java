@@ -0,0 +1,286 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.dtos.Employee;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Keeps the last good roster on disk so a restart starts warm, and can serve reads while
+ * upstream is unreachable.
+ * <p>
+ * The saved roster is restored into the {@link EmployeeSnapshotCache} while the application
+ * context starts, so before the application reports ready. After that, every snapshot that
+ * becomes current is written out on a background thread; a burst of deltas results in one write
+ * of the latest snapshot, and a roster the file already holds is only rewritten once the file is
+ * half of {@code max-age} old. Each write goes to a temporary file that is synced and then moved over
+ * the previous one, so a crash leaves either the old or the new file, never a torn one.
+ * <p>
+ * The file is a flat binary list of employees: a header with the save time and content hash,
+ * length-prefixed UTF-8 fields, and a CRC32 trailer. Anything that does not verify is ignored.
+ */
+@Component
+@ConditionalOnProperty(prefix = "employees.snapshot.store", name = "enabled", havingValue = "true")
+@Slf4j
+public class EmployeeSnapshotStore {
+
+    private static final int MAGIC = 0x454d5053;
+    private static final int FORMAT = 1;
+    private static final int WRITE_BUFFER = 64 * 1024;
+
+    private final EmployeeSnapshotCache snapshotCache;
+    private final SnapshotStoreProperties properties;
+    private final AtomicReference<EmployeeSnapshot> pending = new AtomicReference<>();
+    private final Counter writeFailures;
+    private final Counter writesSkipped;
+    private final Timer writeTime;
+
+    private ExecutorService writer;
+    // Only touched by start() and then the writer thread
+    private Long savedHash;
+    private Instant savedAt;
+
+    public EmployeeSnapshotStore(EmployeeSnapshotCache snapshotCache, SnapshotStoreProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.snapshotCache = snapshotCache;
+        this.properties = properties;
+        this.writeFailures = Counter.builder("employees.snapshot.store.failures").register(meterRegistry);
+        this.writesSkipped = Counter.builder("employees.snapshot.store.skipped")
+                .description("Snapshots not written because the file already holds the same roster")
+                .register(meterRegistry);
+        this.writeTime = Timer.builder("employees.snapshot.store.write")
+                .description("Time to write the roster to disk")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        Saved saved = read(properties.getPath());
+        if (saved != null) {
+            savedHash = EmployeeSnapshot.contentHash(saved.employees);
+            savedAt = saved.savedAt;
+            Duration age = Duration.between(saved.savedAt, Instant.now());
+            if (age.compareTo(properties.getMaxAge()) > 0) {
+                log.info("Ignoring saved employee snapshot from {}, older than {}", saved.savedAt, properties.getMaxAge());
+            } else {
+                snapshotCache.restore(saved.employees, saved.savedAt);
+            }
+        }
+        writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "employee-snapshot-store");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Registered after the restore, so the roster just read is not written straight back
+        snapshotCache.addListener(this::schedule);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer != null) {
+            // Let a write in progress finish rather than leave a stray temporary file
+            writer.shutdown();
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private void schedule(EmployeeSnapshot snapshot) {
+        if (pending.getAndSet(snapshot) == null) {
+            writer.execute(() -> {
+                EmployeeSnapshot latest = pending.getAndSet(null);
+                if (latest != null) {
+                    write(latest);
+                }
+            });
+        }
+    }
+
+    private void write(EmployeeSnapshot snapshot) {
+        // Most refreshes confirm the roster unchanged; rewrite it only to keep the file within max-age
+        if (savedHash != null && savedHash == snapshot.getContentHash()
+                && Duration.between(savedAt, snapshot.getLoadedAt()).compareTo(properties.getMaxAge().dividedBy(2)) < 0) {
+            writesSkipped.increment();
+            return;
+        }
+        Path path = properties.getPath().toAbsolutePath();
+        try {
+            writeTime.recordCallable(() -> {
+                Files.createDirectories(path.getParent());
+                Path temporary = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+                try {
+                    try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                        // Streamed straight to the file, so the roster is never held as one more byte array
+                        OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER);
+                        encode(snapshot.getEmployees(), snapshot.getLoadedAt(), out);
+                        out.flush();
+                        channel.force(true);
+                    }
+                    try {
+                        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                    } catch (AtomicMoveNotSupportedException e) {
+                        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                } finally {
+                    Files.deleteIfExists(temporary);
+                }
+                return null;
+            });
+            savedHash = snapshot.getContentHash();
+            savedAt = snapshot.getLoadedAt();
+            log.info("Saved employee snapshot version {} to {}", snapshot.getVersion(), path);
+        } catch (Exception e) {
+            writeFailures.increment();
+            log.warn("Failed to save employee snapshot to {}: {}", path, e.getMessage());
+        }
+    }
+
+    static Saved read(Path path) {
+        try {
+            return decode(ByteBuffer.wrap(Files.readAllBytes(path)));
+        } catch (NoSuchFileException e) {
+            log.info("No saved employee snapshot at {}", path);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Ignoring unreadable employee snapshot at {}: {}", path, e.getMessage());
+        }
+        return null;
+    }
+
+    static byte[] encode(List<Employee> employees, Instant savedAt) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + employees.size() * 64);
+        encode(employees, savedAt, bytes);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes the file content to {@code target}, checksumming it on the way through and appending
+     * the CRC32 at the end. Flushes {@code target} but leaves it open.
+     */
+    static void encode(List<Employee> employees, Instant savedAt, OutputStream target) throws IOException {
+        CheckedOutputStream checked = new CheckedOutputStream(target, new CRC32());
+        DataOutputStream out = new DataOutputStream(checked);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT);
+        out.writeLong(savedAt.toEpochMilli());
+        out.writeLong(EmployeeSnapshot.contentHash(employees));
+        out.writeInt(employees.size());
+        for (Employee employee : employees) {
+            writeString(out, employee.getId());
+            writeString(out, employee.getEmployeeName());
+            writeString(out, employee.getEmployeeSalary());
+            writeString(out, employee.getEmployeeAge());
+            writeString(out, employee.getProfileImage());
+        }
+        out.flush();
+        DataOutputStream trailer = new DataOutputStream(target);
+        trailer.writeLong(checked.getChecksum().getValue());
+        trailer.flush();
+    }
+
+    /**
+     * @throws IllegalArgumentException when the content is truncated, corrupt or of another format
+     */
+    static Saved decode(ByteBuffer buffer) {
+        try {
+            if (buffer.remaining() < Long.BYTES) {
+                throw new IllegalArgumentException("File is truncated");
+            }
+            CRC32 crc = new CRC32();
+            ByteBuffer content = buffer.duplicate();
+            content.limit(buffer.limit() - Long.BYTES);
+            crc.update(content);
+            if (crc.getValue() != buffer.getLong(buffer.limit() - Long.BYTES)) {
+                throw new IllegalArgumentException("Checksum mismatch");
+            }
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+                throw new IllegalArgumentException("Not an employee snapshot of format " + FORMAT);
+            }
+            Instant savedAt = Instant.ofEpochMilli(buffer.getLong());
+            long contentHash = buffer.getLong();
+            int count = buffer.getInt();
+            if (count < 0) {
+                throw new IllegalArgumentException("Negative employee count");
+            }
+            List<Employee> employees = new ArrayList<>(Math.min(count, buffer.remaining() / 20));
+            for (int i = 0; i < count; i++) {
+                employees.add(Employee.builder()
+                        .id(readString(buffer))
+                        .employeeName(readString(buffer))
+                        .employeeSalary(readString(buffer))
+                        .employeeAge(readString(buffer))
+                        .profileImage(readString(buffer))
+                        .build());
+            }
+            if (EmployeeSnapshot.contentHash(employees) != contentHash) {
+                throw new IllegalArgumentException("Content hash mismatch");
+            }
+            return new Saved(employees, savedAt);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("File is truncated");
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    static final class Saved {
+        final List<Employee> employees;
+        final Instant savedAt;
+
+        Saved(List<Employee> employees, Instant savedAt) {
+            this.employees = employees;
+            this.savedAt = savedAt;
+        }
+    }
+}
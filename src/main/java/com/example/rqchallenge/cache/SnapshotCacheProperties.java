@@ -0,0 +1,23 @@
+package com.example.rqchallenge.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "employees.snapshot")
+public class SnapshotCacheProperties {
+
+    /**
+     * How often the cached roster is refreshed in the background. Reads keep being
+     * served from the previous snapshot while a refresh is in flight.
+     */
+    private Duration refreshInterval = Duration.ofSeconds(30);
+
+    /**
+     * Appended plus removed employees a snapshot may carry on top of its columns before they and
+     * the indexes are rebuilt locally.
+     */
+    private int maxDelta = 1024;
+}
@@ -0,0 +1,29 @@
+package com.example.rqchallenge.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "employees.snapshot.store")
+public class SnapshotStoreProperties {
+
+    /**
+     * Whether the last good roster is kept on disk and restored at startup.
+     */
+    private boolean enabled = false;
+
+    /**
+     * File the roster is written to. It is replaced atomically, through a temporary file in the
+     * same directory.
+     */
+    private Path path = Paths.get("employee-snapshot.bin");
+
+    /**
+     * A saved roster older than this is not restored; the first read goes upstream instead.
+     */
+    private Duration maxAge = Duration.ofDays(1);
+}
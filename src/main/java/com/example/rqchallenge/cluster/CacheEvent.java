@@ -0,0 +1,43 @@
+package com.example.rqchallenge.cluster;
+
+import com.example.rqchallenge.dtos.Employee;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.List;
+
+/**
+ * A change to the employee caches of one instance that the others should apply too.
+ */
+@Data
+@Builder
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CacheEvent {
+
+    public enum Type {
+        /**
+         * {@code employee} was created upstream.
+         */
+        CREATED,
+        /**
+         * The employee with {@code id} was deleted upstream.
+         */
+        DELETED,
+        /**
+         * The sender fetched the full roster from upstream. {@code employees} is only present when
+         * the roster changed since the sender last shared it; otherwise {@code contentHash} lets
+         * receivers check they already have it.
+         */
+        ROSTER
+    }
+
+    private String origin;
+    private Type type;
+    private Employee employee;
+    private String id;
+    private Long contentHash;
+    private List<Employee> employees;
+}
@@ -0,0 +1,17 @@
+package com.example.rqchallenge.cluster;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link CacheEvent}s between the instances of the service. Delivery is best effort:
+ * an instance that misses an event catches up at its next refresh from upstream.
+ */
+public interface CacheEventBus {
+
+    void publish(CacheEvent event);
+
+    /**
+     * Registers a callback for every event delivered to this instance, including its own.
+     */
+    void subscribe(Consumer<CacheEvent> listener);
+}
@@ -0,0 +1,44 @@
+package com.example.rqchallenge.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Receives the events other instances send through {@link HttpCacheEventBus}. When
+ * {@code employees.cluster.port} is set, the endpoint answers only on that port.
+ */
+@RestController
+@ConditionalOnProperty(prefix = "employees.cluster", name = "transport", havingValue = "http")
+@Slf4j
+public class CacheEventController {
+
+    private final HttpCacheEventBus bus;
+    private final Integer port;
+
+    public CacheEventController(HttpCacheEventBus bus, ClusterProperties properties) {
+        this.bus = bus;
+        this.port = properties.getPort();
+    }
+
+    @PostMapping(HttpCacheEventBus.PATH)
+    public ResponseEntity<Void> receive(@RequestHeader(value = HttpCacheEventBus.SECRET_HEADER, required = false) String secret,
+                                        @RequestBody CacheEvent event, HttpServletRequest request) {
+        if (port != null && request.getLocalPort() != port) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!bus.accepts(secret)) {
+            log.warn("Rejected {} cache event from {} with a missing or wrong secret", event.getType(), request.getRemoteAddr());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        bus.receive(event);
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.rqchallenge.cluster;
+
+import org.apache.catalina.connector.Connector;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Active when {@code employees.cluster.transport=http}. Opens the connector for
+ * {@code employees.cluster.port} when it is set.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "employees.cluster", name = "transport", havingValue = "http")
+public class ClusterHttpConfiguration {
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> cacheEventConnector(ClusterProperties properties) {
+        return factory -> {
+            if (properties.getPort() != null) {
+                Connector connector = new Connector(TomcatServletWebServerFactory.DEFAULT_PROTOCOL);
+                connector.setPort(properties.getPort());
+                factory.addAdditionalTomcatConnectors(connector);
+            }
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.rqchallenge.cluster;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@ConfigurationProperties(prefix = "employees.cluster")
+public class ClusterProperties {
+
+    private ClusterTransport transport = ClusterTransport.LOCAL;
+
+    /**
+     * Identifies this instance in the events it sends, so it can ignore its own.
+     */
+    private String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * Base URLs of the other instances, for the HTTP transport.
+     */
+    private List<URI> peers = new ArrayList<>();
+
+    /**
+     * Shared secret sent with every event and required on receipt. Required for the HTTP transport.
+     */
+    private String secret;
+
+    /**
+     * Port of a separate connector that alone serves the cache event endpoint, for the HTTP
+     * transport, so it can be kept off the public network. Peer URLs must use it. When not set,
+     * the endpoint is served on the application port.
+     */
+    private Integer port;
+
+    /**
+     * How long delivering one event to one peer may take, retries included.
+     */
+    private Duration publishTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Events waiting to be sent to one peer before further ones are dropped, for the HTTP transport.
+     */
+    private int maxQueued = 1000;
+}
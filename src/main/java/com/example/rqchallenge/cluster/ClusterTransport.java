@@ -0,0 +1,12 @@
+package com.example.rqchallenge.cluster;
+
+public enum ClusterTransport {
+    /**
+     * Events stay inside this JVM; a single instance, or several wired to one bus in tests.
+     */
+    LOCAL,
+    /**
+     * Events are posted to every configured peer over HTTP.
+     */
+    HTTP
+}
@@ -0,0 +1,132 @@
+package com.example.rqchallenge.cluster;
+
+import com.example.rqchallenge.cache.EmployeeByIdCache;
+import com.example.rqchallenge.cache.EmployeeSnapshot;
+import com.example.rqchallenge.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.dtos.Employee;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the employee caches of every instance in step, so each one can answer from its own memory
+ * without fetching what another instance already knows.
+ * <p>
+ * Successful writes are applied locally and broadcast as deltas, which the other instances apply
+ * to their snapshots and by-id caches in the same way. Every full fetch from upstream is announced
+ * too, with the roster itself when it changed since this instance last shared it, and only its
+ * content hash otherwise. Instances holding that roster postpone their own refresh, so upstream
+ * sees roughly one full fetch per refresh interval however many instances run. A received roster
+ * that lacks a write this instance applied since its own last load is refused instead, and the
+ * refresh is left to fetch the roster itself. A roster fetched here or received from another
+ * instance also drops the employees cached by id before it.
+ */
+@Component
+@Slf4j
+public class EmployeeCacheSync {
+
+    private final EmployeeSnapshotCache snapshotCache;
+    private final EmployeeByIdCache byIdCache;
+    private final CacheEventBus bus;
+    private final String nodeId;
+    private final Counter received;
+    private final Counter refreshesDeferred;
+    private final Counter rostersRefused;
+
+    private long lastSharedHash;
+    private boolean shared;
+
+    public EmployeeCacheSync(EmployeeSnapshotCache snapshotCache, EmployeeByIdCache byIdCache, CacheEventBus bus,
+                             ClusterProperties properties, MeterRegistry meterRegistry) {
+        this.snapshotCache = snapshotCache;
+        this.byIdCache = byIdCache;
+        this.bus = bus;
+        this.nodeId = properties.getNodeId();
+        this.received = Counter.builder("employees.cluster.events.received").register(meterRegistry);
+        this.refreshesDeferred = Counter.builder("employees.cluster.refreshes.deferred").register(meterRegistry);
+        this.rostersRefused = Counter.builder("employees.cluster.rosters.refused").register(meterRegistry);
+        bus.subscribe(this::onEvent);
+        snapshotCache.addFetchListener(this::onFetch);
+    }
+
+    /**
+     * Records an employee created upstream, here and on the other instances.
+     */
+    public void created(Employee employee) {
+        snapshotCache.applyCreated(employee);
+        byIdCache.put(employee);
+        bus.publish(CacheEvent.builder().origin(nodeId).type(CacheEvent.Type.CREATED).employee(employee).build());
+    }
+
+    /**
+     * Records an employee deleted upstream, here and on the other instances.
+     */
+    public void deleted(String id) {
+        snapshotCache.applyDeleted(id);
+        byIdCache.putMissing(id);
+        bus.publish(CacheEvent.builder().origin(nodeId).type(CacheEvent.Type.DELETED).id(id).build());
+    }
+
+    private void onFetch(EmployeeSnapshot snapshot) {
+        byIdCache.invalidateFound();
+        CacheEvent.CacheEventBuilder event = CacheEvent.builder()
+                .origin(nodeId)
+                .type(CacheEvent.Type.ROSTER)
+                .contentHash(snapshot.getContentHash());
+        synchronized (this) {
+            if (!shared || lastSharedHash != snapshot.getContentHash()) {
+                event.employees(snapshot.getEmployees());
+                lastSharedHash = snapshot.getContentHash();
+                shared = true;
+            }
+        }
+        bus.publish(event.build());
+    }
+
+    void onEvent(CacheEvent event) {
+        if (nodeId.equals(event.getOrigin()) || event.getType() == null) {
+            return;
+        }
+        received.increment();
+        switch (event.getType()) {
+            case CREATED:
+                if (event.getEmployee() != null) {
+                    snapshotCache.applyCreated(event.getEmployee());
+                    byIdCache.put(event.getEmployee());
+                }
+                break;
+            case DELETED:
+                if (event.getId() != null) {
+                    snapshotCache.applyDeleted(event.getId());
+                    byIdCache.putMissing(event.getId());
+                }
+                break;
+            case ROSTER:
+                onRoster(event);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void onRoster(CacheEvent event) {
+        EmployeeSnapshot current = snapshotCache.peek();
+        boolean held = current != null && !snapshotCache.isRestored()
+                && event.getContentHash() != null && current.getContentHash() == event.getContentHash();
+        if (!held) {
+            if (event.getEmployees() == null) {
+                // Missed the roster it refers to; the next refresh fetches it
+                return;
+            }
+            if (!snapshotCache.publishShared(event.getEmployees())) {
+                rostersRefused.increment();
+                log.info("Refused roster from {}, which may predate writes applied here", event.getOrigin());
+                return;
+            }
+            byIdCache.invalidateFound();
+        }
+        snapshotCache.deferRefresh();
+        refreshesDeferred.increment();
+    }
+}
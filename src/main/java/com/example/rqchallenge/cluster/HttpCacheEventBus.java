@@ -0,0 +1,122 @@
+package com.example.rqchallenge.cluster;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+import reactor.util.retry.Retry;
+
+import javax.annotation.PreDestroy;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Posts events to every peer in {@code employees.cluster.peers}, where {@link CacheEventController}
+ * hands them to that instance's subscribers.
+ * <p>
+ * Each peer has its own bounded outbox, sent one event at a time so a peer sees events in the
+ * order they were published. A peer that stays unreachable loses events rather than holding
+ * back the others; it catches up at its next refresh from upstream.
+ */
+@Component
+@ConditionalOnProperty(prefix = "employees.cluster", name = "transport", havingValue = "http")
+@Slf4j
+public class HttpCacheEventBus implements CacheEventBus {
+
+    public static final String PATH = "/internal/cache/events";
+    public static final String SECRET_HEADER = "X-Cache-Secret";
+
+    private final ClusterProperties properties;
+    private final WebClient webClient;
+    private final List<Consumer<CacheEvent>> listeners = new CopyOnWriteArrayList<>();
+    private final List<Sinks.Many<CacheEvent>> outboxes = new ArrayList<>();
+    private final List<Disposable> senders = new ArrayList<>();
+    private final Counter sendFailures;
+    private final Counter dropped;
+
+    public HttpCacheEventBus(ClusterProperties properties, WebClient.Builder webClientBuilder, MeterRegistry meterRegistry) {
+        if (properties.getSecret() == null || properties.getSecret().trim().isEmpty()) {
+            throw new IllegalStateException("employees.cluster.secret must be set when employees.cluster.transport=http");
+        }
+        this.properties = properties;
+        this.webClient = webClientBuilder.build();
+        this.sendFailures = Counter.builder("employees.cluster.send.failures").register(meterRegistry);
+        this.dropped = Counter.builder("employees.cluster.send.dropped").register(meterRegistry);
+        for (URI peer : properties.getPeers()) {
+            URI target = UriComponentsBuilder.fromUri(peer).path(PATH).build().toUri();
+            Sinks.Many<CacheEvent> outbox = Sinks.many().unicast()
+                    .onBackpressureBuffer(Queues.<CacheEvent>get(properties.getMaxQueued()).get());
+            outboxes.add(outbox);
+            senders.add(outbox.asFlux().concatMap(event -> send(target, event)).subscribe());
+        }
+        log.info("Sending cache events to {} peers as node {}", properties.getPeers().size(), properties.getNodeId());
+    }
+
+    @PreDestroy
+    public void stop() {
+        senders.forEach(Disposable::dispose);
+    }
+
+    @Override
+    public synchronized void publish(CacheEvent event) {
+        receive(event);
+        for (Sinks.Many<CacheEvent> outbox : outboxes) {
+            if (outbox.tryEmitNext(event).isFailure()) {
+                dropped.increment();
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheEvent> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Whether an event sent with {@code secret} may be accepted.
+     */
+    boolean accepts(String secret) {
+        return secret != null && MessageDigest.isEqual(
+                properties.getSecret().getBytes(StandardCharsets.UTF_8), secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    void receive(CacheEvent event) {
+        for (Consumer<CacheEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                log.error("Cache event listener failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private Mono<Void> send(URI target, CacheEvent event) {
+        return webClient.post()
+                .uri(target)
+                .header(SECRET_HEADER, properties.getSecret())
+                .bodyValue(event)
+                .retrieve()
+                .toBodilessEntity()
+                .retryWhen(Retry.backoff(2, Duration.ofMillis(100)))
+                .timeout(properties.getPublishTimeout())
+                .then()
+                .onErrorResume(e -> {
+                    sendFailures.increment();
+                    log.warn("Failed to send {} cache event to {}: {}", event.getType(), target, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
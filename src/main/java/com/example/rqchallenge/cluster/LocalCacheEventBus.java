@@ -0,0 +1,36 @@
+package com.example.rqchallenge.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers events synchronously to the subscribers in this JVM.
+ */
+@Component
+@ConditionalOnProperty(prefix = "employees.cluster", name = "transport", havingValue = "local", matchIfMissing = true)
+@Slf4j
+public class LocalCacheEventBus implements CacheEventBus {
+
+    private final List<Consumer<CacheEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(CacheEvent event) {
+        for (Consumer<CacheEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                log.error("Cache event listener failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheEvent> listener) {
+        listeners.add(listener);
+    }
+}
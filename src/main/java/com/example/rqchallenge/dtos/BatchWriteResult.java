@@ -0,0 +1,23 @@
+package com.example.rqchallenge.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Outcome of one item of a batch create or delete, streamed back as soon as it is known.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchWriteResult {
+    /**
+     * Position of the item in the request, since results arrive in completion order.
+     */
+    private int index;
+    private String id;
+    private int status;
+    private int attempts;
+    private Employee employee;
+    private String error;
+}
@@ -2,9 +2,11 @@ package com.example.rqchallenge.dtos;
 
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 @Data
 @Builder
+@Jacksonized
 public class Employee {
     private String id;
     private String employeeName;
@@ -0,0 +1,15 @@
+package com.example.rqchallenge.dtos;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class EmployeeBatchResponse {
+    private List<Employee> employees;
+    private List<String> missing;
+    private List<String> failed;
+    private List<String> unresolved;
+}
@@ -0,0 +1,26 @@
+package com.example.rqchallenge.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of a sorted, optionally filtered employee listing, with only the requested fields.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EmployeePage {
+    private List<Map<String, Object>> employees;
+    /**
+     * Number of employees across all pages.
+     */
+    private int total;
+    /**
+     * Opaque token for the page after this one; absent on the last page.
+     */
+    private String nextCursor;
+}
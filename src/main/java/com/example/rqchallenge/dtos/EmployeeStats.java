@@ -0,0 +1,52 @@
+package com.example.rqchallenge.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregate salary and age figures of one roster snapshot.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EmployeeStats {
+    /**
+     * Version of the snapshot these figures describe.
+     */
+    private long version;
+    private int count;
+    private Summary salary;
+    private Summary age;
+    private List<Bucket> salaryHistogram;
+    private List<Bucket> ageBands;
+
+    @Data
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Summary {
+        private long count;
+        private Long min;
+        private Long max;
+        private Double mean;
+        /**
+         * Nearest-rank percentiles keyed like {@code p50} or {@code p99.9}.
+         */
+        private Map<String, Long> percentiles;
+    }
+
+    /**
+     * Employees with a value in {@code [from, to)}; an absent bound is open.
+     */
+    @Data
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Bucket {
+        private Long from;
+        private Long to;
+        private long count;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.rqchallenge.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Difference between two consecutive roster snapshots, or, for the first event of a change feed
+ * and after a resync, the state a client starts from.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RosterChange {
+    private long version;
+    /**
+     * Version this change applies on top of; absent on a starting state.
+     */
+    private Long previousVersion;
+    private Integer count;
+    private List<Employee> added;
+    private List<String> removed;
+    private List<Employee> changed;
+    /**
+     * Highest salary, present on a starting state and whenever it changed.
+     */
+    private Integer highestSalary;
+}
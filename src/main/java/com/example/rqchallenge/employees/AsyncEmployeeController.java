@@ -0,0 +1,140 @@
+package com.example.rqchallenge.employees;
+
+import com.example.rqchallenge.dtos.BatchWriteResult;
+import com.example.rqchallenge.dtos.Employee;
+import com.example.rqchallenge.dtos.EmployeeBatchResponse;
+import com.example.rqchallenge.dtos.EmployeePage;
+import com.example.rqchallenge.dtos.EmployeeStats;
+import com.example.rqchallenge.execution.EndpointExecutor;
+import com.example.rqchallenge.index.NameMatch;
+import com.example.rqchallenge.index.SortDirection;
+import com.example.rqchallenge.index.SortField;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs every {@link EmployeeController} operation on the {@link EndpointExecutor}, so request threads
+ * are returned to the container while upstream calls block. Requests over an endpoint's limits get a 503.
+ */
+@RestController
+@ConditionalOnProperty(prefix = "employees.execution", name = "mode", havingValue = "async")
+@Slf4j
+public class AsyncEmployeeController implements IAsyncEmployeeController {
+
+    private final EmployeeController delegate;
+    private final EndpointExecutor executor;
+
+    public AsyncEmployeeController(EmployeeController delegate, EndpointExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<List<Employee>>> getAllEmployees() {
+        return submit("getAllEmployees", delegate::getAllEmployees);
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> streamAllEmployees(String format) {
+        // Only upstream's status and headers are awaited here; the body is written on the MVC task executor
+        return delegate.streamAllEmployees(format);
+    }
+
+    @Override
+    public ResponseEntity<SseEmitter> streamChanges(String lastEventId) {
+        // Already asynchronous: the emitter is fed from the change feed
+        return delegate.streamChanges(lastEventId);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<List<Employee>>> getEmployeesByNameSearch(String searchString) {
+        return submit("getEmployeesByNameSearch", () -> delegate.getEmployeesByNameSearch(searchString));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<List<Employee>>> searchEmployees(String q, NameMatch match, boolean ignoreAccents, int limit) {
+        return submit("searchEmployees", () -> delegate.searchEmployees(q, match, ignoreAccents, limit));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<EmployeePage>> getEmployeesPage(String q, NameMatch match, SortField sort, SortDirection order,
+                                                                            String cursor, int offset, int limit, List<String> fields) {
+        return submit("getEmployeesPage", () -> delegate.getEmployeesPage(q, match, sort, order, cursor, offset, limit, fields));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Employee>> getEmployeeById(String id) {
+        return submit("getEmployeeById", () -> delegate.getEmployeeById(id));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<EmployeeBatchResponse>> getEmployeesByIds(List<String> ids) {
+        return submit("getEmployeesByIds", () -> delegate.getEmployeesByIds(ids));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Integer>> getHighestSalaryOfEmployees() {
+        return submit("getHighestSalaryOfEmployees", delegate::getHighestSalaryOfEmployees);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<List<String>>> getTopTenHighestEarningEmployeeNames() {
+        return submit("getTopTenHighestEarningEmployeeNames", delegate::getTopTenHighestEarningEmployeeNames);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<List<Employee>>> getTopEarners(int n) {
+        return submit("getTopEarners", () -> delegate.getTopEarners(n));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<EmployeeStats>> getEmployeeStats() {
+        return submit("getEmployeeStats", delegate::getEmployeeStats);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Employee>> createEmployee(Map<String, Object> employeeInput) {
+        return submit("createEmployee", () -> delegate.createEmployee(employeeInput));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<String>> deleteEmployeeById(String id) {
+        return submit("deleteEmployeeById", () -> delegate.deleteEmployeeById(id));
+    }
+
+    @Override
+    public ResponseEntity<Flux<BatchWriteResult>> createEmployees(List<Map<String, Object>> employeeInputs) {
+        // Already asynchronous: the writes are pipelined on the reactive client
+        return delegate.createEmployees(employeeInputs);
+    }
+
+    @Override
+    public ResponseEntity<Flux<BatchWriteResult>> deleteEmployeesByIds(List<String> ids) {
+        return delegate.deleteEmployeesByIds(ids);
+    }
+
+    private <T> CompletableFuture<ResponseEntity<T>> submit(String endpoint, Supplier<ResponseEntity<T>> call) {
+        return executor.submit(endpoint, call).exceptionally(e -> {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RejectedExecutionException) {
+                log.warn("Rejected {} request: {}", endpoint, cause.getMessage());
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+            log.error("Error while running {}: {}", endpoint, cause.getMessage(), cause);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        });
+    }
+}
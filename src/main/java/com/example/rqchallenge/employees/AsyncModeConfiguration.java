@@ -0,0 +1,30 @@
+package com.example.rqchallenge.employees;
+
+import com.example.rqchallenge.execution.EndpointExecutor;
+import com.example.rqchallenge.execution.ExecutionProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.HandlerTypePredicate;
+import org.springframework.web.servlet.config.annotation.PathMatchConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Active when {@code employees.execution.mode=async}. {@link AsyncEmployeeController} then serves the
+ * employee endpoints and the blocking {@link EmployeeController} it delegates to moves under {@code /sync}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "employees.execution", name = "mode", havingValue = "async")
+public class AsyncModeConfiguration implements WebMvcConfigurer {
+
+    @Bean(destroyMethod = "shutdown")
+    public EndpointExecutor endpointExecutor(ExecutionProperties properties, MeterRegistry meterRegistry) {
+        return new EndpointExecutor(properties, meterRegistry);
+    }
+
+    @Override
+    public void configurePathMatch(PathMatchConfigurer configurer) {
+        configurer.addPathPrefix("/sync", HandlerTypePredicate.forAssignableType(EmployeeController.class));
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.rqchallenge.employees;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "employees.batch")
+public class BatchLookupProperties {
+
+    /**
+     * Largest number of ids accepted by a single batch request.
+     */
+    private int maxIds = 1000;
+
+    /**
+     * Batches with more uncached ids than this are answered from the roster alone instead of
+     * individual lookups; ids it does not list are reported unresolved.
+     */
+    private int bulkThreshold = 20;
+
+    /**
+     * Individual upstream lookups in flight at once, shared by all batch requests.
+     */
+    private int parallelism = 8;
+
+    /**
+     * Individual lookups waiting for one of the {@code parallelism} slots. Lookups beyond this are
+     * not attempted and their ids are reported as failed.
+     */
+    private int maxQueued = 200;
+}
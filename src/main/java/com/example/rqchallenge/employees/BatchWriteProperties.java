@@ -0,0 +1,37 @@
+package com.example.rqchallenge.employees;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "employees.batch-write")
+public class BatchWriteProperties {
+
+    /**
+     * Largest number of items accepted by a single batch create or delete.
+     */
+    private int maxItems = 10000;
+
+    /**
+     * Upstream writes a batch may have in flight at once. Kept below the create and delete
+     * bulkheads so single writes still get through while a batch runs.
+     */
+    private int parallelism = 4;
+
+    /**
+     * Upstream writes per second across all batches. Paused for the Retry-After period when
+     * upstream answers 429.
+     */
+    private double ratePerSecond = 50;
+
+    /**
+     * Attempts per item, including the first, for failures that are safe to retry.
+     */
+    private int maxAttempts = 4;
+
+    private Duration minBackoff = Duration.ofMillis(200);
+
+    private Duration maxBackoff = Duration.ofSeconds(5);
+}
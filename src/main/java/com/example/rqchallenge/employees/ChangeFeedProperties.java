@@ -0,0 +1,44 @@
+package com.example.rqchallenge.employees;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "employees.changes")
+public class ChangeFeedProperties {
+
+    /**
+     * Interval of the comment lines sent to idle subscribers, which keep proxies from closing the
+     * connection and detect clients that went away.
+     */
+    private Duration heartbeat = Duration.ofSeconds(15);
+
+    /**
+     * Recent changes kept for subscribers that reconnect with a {@code Last-Event-ID}.
+     */
+    private int history = 256;
+
+    /**
+     * Changes queued for one subscriber before it is disconnected as too slow.
+     */
+    private int maxPending = 64;
+
+    /**
+     * Threads writing events to subscriber connections. A write blocks while its client is slow to
+     * read, so keep a few spare for the subscribers that keep up.
+     */
+    private int sendThreads = 4;
+
+    /**
+     * Subscribers waiting for a send thread before further sends are refused and their streams end.
+     */
+    private int maxQueuedSends = 1024;
+
+    /**
+     * How long one subscription stays open before its stream completes and the client reconnects
+     * with its {@code Last-Event-ID}. The stream's own async timeout is set a minute past it.
+     */
+    private Duration maxConnectionAge = Duration.ofMinutes(30);
+}
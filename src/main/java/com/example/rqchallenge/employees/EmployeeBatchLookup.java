@@ -0,0 +1,173 @@
+package com.example.rqchallenge.employees;
+
+import com.example.rqchallenge.cache.EmployeeByIdCache;
+import com.example.rqchallenge.cache.EmployeeSnapshot;
+import com.example.rqchallenge.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.dtos.Employee;
+import com.example.rqchallenge.dtos.EmployeeBatchResponse;
+import com.example.rqchallenge.dtos.EmployeeResponse;
+import com.example.rqchallenge.upstream.EmployeeApiClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolves many employee ids at once. Ids are answered from the roster snapshot in memory first, then
+ * from {@link EmployeeByIdCache}. A few remaining ids are looked up individually, on a pool of
+ * {@code employees.batch.parallelism} threads shared by all batches with a bounded queue; many are
+ * answered from the roster alone, and those it does not list are reported unresolved. An id is
+ * only reported missing when upstream said so, as for GET /{id}.
+ */
+@Component
+@Slf4j
+public class EmployeeBatchLookup {
+
+    private final EmployeeApiClient apiClient;
+    private final EmployeeSnapshotCache snapshotCache;
+    private final EmployeeByIdCache byIdCache;
+    private final BatchLookupProperties properties;
+    private final ExecutorService lookupExecutor;
+
+    public EmployeeBatchLookup(EmployeeApiClient apiClient, EmployeeSnapshotCache snapshotCache,
+                               EmployeeByIdCache byIdCache, BatchLookupProperties properties) {
+        this.apiClient = apiClient;
+        this.snapshotCache = snapshotCache;
+        this.byIdCache = byIdCache;
+        this.properties = properties;
+        AtomicInteger threads = new AtomicInteger();
+        this.lookupExecutor = new ThreadPoolExecutor(properties.getParallelism(), properties.getParallelism(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getMaxQueued()), runnable -> {
+            Thread thread = new Thread(runnable, "employee-batch-lookup-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        lookupExecutor.shutdownNow();
+    }
+
+    public int getMaxIds() {
+        return properties.getMaxIds();
+    }
+
+    public EmployeeBatchResponse lookup(List<String> ids) throws RestClientException {
+        Map<String, Employee> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        List<String> unresolved = new ArrayList<>();
+        List<String> uncached = new ArrayList<>();
+
+        // The snapshot first, as for single lookups: by-id entries may predate its last refresh
+        EmployeeSnapshot snapshot = snapshotCache.getIfPresent();
+        for (String id : new LinkedHashSet<>(ids)) {
+            Employee listed = snapshot != null ? snapshot.findById(id) : null;
+            if (listed != null) {
+                found.put(id, listed);
+                continue;
+            }
+            EmployeeByIdCache.Entry cached = byIdCache.get(id);
+            if (cached == null) {
+                uncached.add(id);
+            } else if (cached.isMissing()) {
+                missing.add(id);
+            } else {
+                found.put(id, cached.getEmployee());
+            }
+        }
+
+        if (!uncached.isEmpty()) {
+            if (uncached.size() <= properties.getBulkThreshold()) {
+                // Asked upstream one by one, like a single lookup the roster cannot answer
+                resolveIndividually(uncached, found, missing, failed);
+            } else {
+                resolveFromSnapshot(snapshot != null ? snapshot : snapshotCache.get(), uncached, found, unresolved);
+            }
+        }
+
+        List<Employee> employees = new ArrayList<>(found.size());
+        for (String id : new LinkedHashSet<>(ids)) {
+            Employee employee = found.get(id);
+            if (employee != null) {
+                employees.add(employee);
+            }
+        }
+        return EmployeeBatchResponse.builder()
+                .employees(employees)
+                .missing(missing)
+                .failed(failed)
+                .unresolved(unresolved)
+                .build();
+    }
+
+    private void resolveFromSnapshot(EmployeeSnapshot snapshot, List<String> ids, Map<String, Employee> found, List<String> unresolved) {
+        for (String id : ids) {
+            Employee employee = snapshot.findById(id);
+            if (employee != null) {
+                found.put(id, employee);
+            } else {
+                unresolved.add(id);
+            }
+        }
+    }
+
+    private void resolveIndividually(List<String> ids, Map<String, Employee> found, List<String> missing, List<String> failed) {
+        List<CompletableFuture<Employee>> lookups = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            try {
+                lookups.add(CompletableFuture.supplyAsync(() -> fetch(id), lookupExecutor));
+            } catch (RejectedExecutionException e) {
+                lookups.add(CompletableFuture.failedFuture(e));
+            }
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            String id = ids.get(i);
+            try {
+                Employee employee = lookups.get(i).join();
+                if (employee != null) {
+                    found.put(id, employee);
+                } else {
+                    missing.add(id);
+                }
+            } catch (RuntimeException e) {
+                log.error("Error while fetching employee {} for batch: {}", id, e.getMessage());
+                failed.add(id);
+            }
+        }
+    }
+
+    private Employee fetch(String id) {
+        try {
+            ResponseEntity<EmployeeResponse> response = apiClient.getEmployee(id);
+            if (response.getBody() != null && HttpStatus.OK.equals(response.getBody().getStatus())) {
+                Employee employee = response.getBody().getEmployees().get(0);
+                byIdCache.put(employee);
+                return employee;
+            }
+        } catch (HttpStatusCodeException e) {
+            if (e.getStatusCode() != HttpStatus.NOT_FOUND) {
+                throw e;
+            }
+        }
+        byIdCache.putMissing(id);
+        return null;
+    }
+}
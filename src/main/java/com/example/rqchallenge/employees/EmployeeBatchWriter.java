@@ -0,0 +1,193 @@
+package com.example.rqchallenge.employees;
+
+import com.example.rqchallenge.cluster.EmployeeCacheSync;
+import com.example.rqchallenge.dtos.BatchWriteResult;
+import com.example.rqchallenge.dtos.Employee;
+import com.example.rqchallenge.dtos.EmployeeResponse;
+import com.example.rqchallenge.upstream.CallPriority;
+import com.example.rqchallenge.upstream.ReactiveEmployeeApiClient;
+import com.example.rqchallenge.upstream.RetryAfter;
+import com.example.rqchallenge.upstream.TokenBucket;
+import com.example.rqchallenge.upstream.UpstreamUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs batch creates and deletes as pipelined upstream writes over the pooled reactive client.
+ * <p>
+ * At most {@code parallelism} writes of a batch are in flight at once, and all batches share one
+ * rate limit that pauses when upstream answers 429. Results are emitted per item as soon as each
+ * write settles. Only failures that are safe to repeat are retried, with jittered exponential
+ * backoff: throttling and unavailability for every write, plus gateway errors, timeouts and
+ * dropped connections for deletes, which are idempotent. A create that may have reached upstream
+ * is never sent twice.
+ */
+@Component
+@Slf4j
+public class EmployeeBatchWriter {
+
+    private final ReactiveEmployeeApiClient apiClient;
+    private final EmployeeCacheSync cacheSync;
+    private final BatchWriteProperties properties;
+    private final TokenBucket rateLimit;
+    private final Counter retries;
+    private final Counter throttled;
+
+    public EmployeeBatchWriter(ReactiveEmployeeApiClient apiClient, EmployeeCacheSync cacheSync,
+                               BatchWriteProperties properties, MeterRegistry meterRegistry) {
+        this.apiClient = apiClient;
+        this.cacheSync = cacheSync;
+        this.properties = properties;
+        this.rateLimit = new TokenBucket(properties.getRatePerSecond());
+        this.retries = Counter.builder("employees.batch.write.retries").register(meterRegistry);
+        this.throttled = Counter.builder("employees.batch.write.throttled").register(meterRegistry);
+    }
+
+    public int getMaxItems() {
+        return properties.getMaxItems();
+    }
+
+    public Flux<BatchWriteResult> create(List<Map<String, Object>> inputs) {
+        return Flux.range(0, inputs.size())
+                .flatMap(index -> createOne(index, inputs.get(index)), properties.getParallelism());
+    }
+
+    public Flux<BatchWriteResult> delete(List<String> ids) {
+        return Flux.range(0, ids.size())
+                .flatMap(index -> deleteOne(index, ids.get(index)), properties.getParallelism());
+    }
+
+    private Mono<BatchWriteResult> createOne(int index, Map<String, Object> input) {
+        EmployeeValidation.Result validation = EmployeeValidation.validate(input);
+        if (!validation.isValid()) {
+            return Mono.just(BatchWriteResult.builder()
+                    .index(index).status(HttpStatus.BAD_REQUEST.value()).error(validation.getMessage()).build());
+        }
+
+        AtomicInteger attempts = new AtomicInteger();
+        return write(() -> apiClient.createEmployee(input), attempts, false)
+                .map(response -> {
+                    EmployeeResponse body = response.getBody();
+                    if (body == null || !HttpStatus.OK.equals(body.getStatus())
+                            || body.getEmployees() == null || body.getEmployees().isEmpty()) {
+                        return rejected(index, null, response, attempts);
+                    }
+                    Employee created = body.getEmployees().get(0);
+                    cacheSync.created(created);
+                    return BatchWriteResult.builder().index(index).id(created.getId())
+                            .status(HttpStatus.CREATED.value()).attempts(attempts.get()).employee(created).build();
+                })
+                .onErrorResume(e -> Mono.just(failed(index, null, e, attempts)));
+    }
+
+    private Mono<BatchWriteResult> deleteOne(int index, String id) {
+        if (!EmployeeValidation.isValidId(id)) {
+            return Mono.just(BatchWriteResult.builder()
+                    .index(index).id(id).status(HttpStatus.BAD_REQUEST.value()).error("Invalid employee ID").build());
+        }
+
+        AtomicInteger attempts = new AtomicInteger();
+        return write(() -> apiClient.deleteEmployee(id), attempts, true)
+                .map(response -> {
+                    if (response.getBody() == null || !HttpStatus.OK.equals(response.getBody().getStatus())) {
+                        return rejected(index, id, response, attempts);
+                    }
+                    cacheSync.deleted(id);
+                    return BatchWriteResult.builder().index(index).id(id)
+                            .status(HttpStatus.OK.value()).attempts(attempts.get()).build();
+                })
+                .onErrorResume(e -> Mono.just(failed(index, id, e, attempts)));
+    }
+
+    private Mono<ResponseEntity<EmployeeResponse>> write(Supplier<Mono<ResponseEntity<EmployeeResponse>>> call,
+                                                         AtomicInteger attempts, boolean idempotent) {
+        Mono<ResponseEntity<EmployeeResponse>> attempt = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            Duration wait = rateLimit.reserve();
+            return wait.isZero() ? call.get() : Mono.delay(wait).then(Mono.defer(call));
+        });
+        // Queued behind interactive calls by the outbound scheduler
+        attempt = attempt.contextWrite(context -> context.put(CallPriority.class, CallPriority.BATCH));
+        if (properties.getMaxAttempts() <= 1) {
+            return attempt;
+        }
+        return attempt.retryWhen(Retry.backoff(properties.getMaxAttempts() - 1, properties.getMinBackoff())
+                .maxBackoff(properties.getMaxBackoff())
+                .jitter(0.5)
+                .filter(e -> isRetryable(e, idempotent))
+                .doBeforeRetry(signal -> {
+                    retries.increment();
+                    throttleOn(signal.failure());
+                })
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    private void throttleOn(Throwable failure) {
+        if (failure instanceof WebClientResponseException
+                && ((WebClientResponseException) failure).getRawStatusCode() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            Duration pause = RetryAfter.of(((WebClientResponseException) failure).getHeaders(), properties.getMinBackoff());
+            throttled.increment();
+            log.warn("Upstream is throttling writes, pausing batch writes for {}", pause);
+            rateLimit.pauseFor(pause);
+        }
+    }
+
+    static boolean isRetryable(Throwable e, boolean idempotent) {
+        if (e instanceof UpstreamUnavailableException) {
+            // Rejected by the breaker or bulkhead before anything was sent
+            return true;
+        }
+        if (e instanceof WebClientResponseException) {
+            int status = ((WebClientResponseException) e).getRawStatusCode();
+            if (status == HttpStatus.TOO_MANY_REQUESTS.value() || status == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+                return true;
+            }
+            return idempotent && (status == HttpStatus.BAD_GATEWAY.value() || status == HttpStatus.GATEWAY_TIMEOUT.value());
+        }
+        if (e instanceof WebClientRequestException) {
+            // A refused connection never reached upstream; anything else may have
+            return idempotent || e.getCause() instanceof ConnectException;
+        }
+        return idempotent && e instanceof TimeoutException;
+    }
+
+    private static BatchWriteResult rejected(int index, String id, ResponseEntity<EmployeeResponse> response, AtomicInteger attempts) {
+        String upstreamStatus = response.getBody() != null ? String.valueOf(response.getBody().getStatus()) : "Unknown error";
+        log.error("Upstream rejected batch item {}: {}", index, upstreamStatus);
+        // Upstream answered, but not with a usable result; its HTTP status alone would read as success
+        return BatchWriteResult.builder().index(index).id(id).status(HttpStatus.BAD_GATEWAY.value())
+                .attempts(attempts.get()).error("Upstream rejected the request: " + upstreamStatus).build();
+    }
+
+    private static BatchWriteResult failed(int index, String id, Throwable e, AtomicInteger attempts) {
+        log.error("Batch item {} failed after {} attempts: {}", index, attempts.get(), e.getMessage());
+        int status = HttpStatus.INTERNAL_SERVER_ERROR.value();
+        if (e instanceof WebClientResponseException) {
+            status = ((WebClientResponseException) e).getRawStatusCode();
+        } else if (e instanceof HttpStatusCodeException) {
+            status = ((HttpStatusCodeException) e).getRawStatusCode();
+        } else if (e instanceof TimeoutException) {
+            status = HttpStatus.GATEWAY_TIMEOUT.value();
+        }
+        return BatchWriteResult.builder().index(index).id(id).status(status)
+                .attempts(attempts.get()).error(e.getMessage()).build();
+    }
+}
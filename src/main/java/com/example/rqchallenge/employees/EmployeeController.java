@@ -1,41 +1,67 @@
 package com.example.rqchallenge.employees;
 
+import com.example.rqchallenge.cache.EmployeeByIdCache;
+import com.example.rqchallenge.cache.EmployeeSnapshot;
+import com.example.rqchallenge.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.cluster.EmployeeCacheSync;
+import com.example.rqchallenge.dtos.BatchWriteResult;
 import com.example.rqchallenge.dtos.Employee;
+import com.example.rqchallenge.dtos.EmployeeBatchResponse;
+import com.example.rqchallenge.dtos.EmployeePage;
+import com.example.rqchallenge.dtos.EmployeeStats;
 import com.example.rqchallenge.dtos.EmployeeResponse;
+import com.example.rqchallenge.index.NameMatch;
+import com.example.rqchallenge.index.SortDirection;
+import com.example.rqchallenge.index.SortField;
+import com.example.rqchallenge.upstream.EmployeeApiClient;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @RestController
 @Slf4j
 public class EmployeeController implements IEmployeeController {
 
-    private final RestTemplate restTemplate;
-    private static final String BASE_URL = "https://dummy.restapiexample.com/api/v1";
+    private final EmployeeApiClient apiClient;
+    private final EmployeeSnapshotCache snapshotCache;
+    private final EmployeeByIdCache byIdCache;
+    private final EmployeeBatchLookup batchLookup;
+    private final EmployeeStreamWriter streamWriter;
+    private final EmployeeBatchWriter batchWriter;
+    private final EmployeeStatistics statistics;
+    private final RosterChangeFeed changeFeed;
+    private final EmployeeCacheSync cacheSync;
 
-    public EmployeeController(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
+    public EmployeeController(EmployeeApiClient apiClient, EmployeeSnapshotCache snapshotCache,
+                              EmployeeByIdCache byIdCache, EmployeeBatchLookup batchLookup,
+                              EmployeeStreamWriter streamWriter, EmployeeBatchWriter batchWriter,
+                              EmployeeStatistics statistics, RosterChangeFeed changeFeed,
+                              EmployeeCacheSync cacheSync) {
+        this.apiClient = apiClient;
+        this.snapshotCache = snapshotCache;
+        this.byIdCache = byIdCache;
+        this.batchLookup = batchLookup;
+        this.streamWriter = streamWriter;
+        this.batchWriter = batchWriter;
+        this.statistics = statistics;
+        this.changeFeed = changeFeed;
+        this.cacheSync = cacheSync;
     }
 
     @Override
     public ResponseEntity<List<Employee>> getAllEmployees() {
         log.info("Fetching all employees");
         try {
-            ResponseEntity<EmployeeResponse> response = restTemplate.getForEntity(BASE_URL + "/employees", EmployeeResponse.class);
-            if (response.getBody() != null && HttpStatus.OK.equals(response.getBody().getStatus())) {
-                return ResponseEntity.ok(response.getBody().getEmployees());
-            } else {
-                log.error("Failed to fetch employees: {}", response.getBody() != null ? response.getBody().getStatus() : "Unknown error");
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Collections.emptyList());
-            }
+            return ResponseEntity.ok(snapshotCache.get().getEmployees());
         } catch (RestClientException e) {
             log.error("Error while fetching employees: {}", e.getMessage(), e);
             HttpStatus status = HttpStatus.INTERNAL_SERVER_ERROR;  // Default to 500
@@ -47,6 +73,39 @@ public class EmployeeController implements IEmployeeController {
         }
     }
 
+    @Override
+    public ResponseEntity<StreamingResponseBody> streamAllEmployees(String format) {
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        if (!ndjson && !"json".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        log.info("Streaming all employees as {}", ndjson ? "NDJSON" : "JSON");
+        try {
+            StreamingResponseBody body = streamWriter.prepare(ndjson);
+            return ResponseEntity.ok()
+                    .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                    .body(body);
+        } catch (RestClientException e) {
+            log.error("Error while fetching employees: {}", e.getMessage(), e);
+            HttpStatus status = HttpStatus.INTERNAL_SERVER_ERROR;
+            if (e instanceof HttpStatusCodeException) {
+                status = ((HttpStatusCodeException) e).getStatusCode();
+            }
+            return ResponseEntity.status(status).build();
+        }
+    }
+
+    @Override
+    public ResponseEntity<SseEmitter> streamChanges(String lastEventId) {
+        log.info("Subscribing to roster changes after event {}", lastEventId);
+        // Changes are diffs between snapshots, so make sure there is one for the refresh loop to follow
+        loadSnapshot();
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(changeFeed.open(lastEventId));
+    }
+
     @Override
     public ResponseEntity<List<Employee>> getEmployeesByNameSearch(String searchString) {
         if (searchString == null || searchString.isEmpty()) {
@@ -54,16 +113,46 @@ public class EmployeeController implements IEmployeeController {
         }
 
         log.info("Searching employees with name containing: {}", searchString);
+        EmployeeSnapshot snapshot = loadSnapshot();
+        if (snapshot == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Collections.emptyList());
+        }
+        return ResponseEntity.ok(snapshot.getNameIndex().search(searchString, NameMatch.CONTAINS, false, Integer.MAX_VALUE));
+    }
 
-            List<Employee> allEmployees = getAllEmployees().getBody();
-            if (allEmployees == null) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Collections.emptyList());
-            }
-            List<Employee> filteredEmployees = allEmployees.stream()
-                    .filter(e -> e.getEmployeeName().toLowerCase().contains(searchString.toLowerCase()))
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(filteredEmployees);
+    @Override
+    public ResponseEntity<List<Employee>> searchEmployees(String q, NameMatch match, boolean ignoreAccents, int limit) {
+        if (q == null || q.isEmpty() || limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        log.info("Searching employees with {} name match for: {} (ignoreAccents={}, limit={})", match, q, ignoreAccents, limit);
+        EmployeeSnapshot snapshot = loadSnapshot();
+        if (snapshot == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Collections.emptyList());
+        }
+        return ResponseEntity.ok(snapshot.getNameIndex().search(q, match, ignoreAccents, limit));
+    }
+
+    @Override
+    public ResponseEntity<EmployeePage> getEmployeesPage(String q, NameMatch match, SortField sort, SortDirection order,
+                                                         String cursor, int offset, int limit, List<String> fields) {
+        if ((q != null && q.isEmpty()) || offset < 0 || limit < 1 || limit > EmployeePaging.MAX_LIMIT
+                || (cursor != null && offset != 0)) {
+            return ResponseEntity.badRequest().build();
+        }
 
+        log.info("Fetching page of employees (q={}, sort={} {}, offset={}, limit={}, fields={})", q, sort, order, offset, limit, fields);
+        EmployeeSnapshot snapshot = loadSnapshot();
+        if (snapshot == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        try {
+            return ResponseEntity.ok(EmployeePaging.page(snapshot, q, match, sort, order, cursor, offset, limit, fields));
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid page request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @Override
@@ -71,19 +160,59 @@ public class EmployeeController implements IEmployeeController {
         if (id == null || id.isEmpty()) {
             return ResponseEntity.badRequest().build();
         }
-        if (!isValidId(id)) {
+        if (!EmployeeValidation.isValidId(id)) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
 
         log.info("Fetching employee with id: {}", id);
+        // The snapshot first: it is refreshed as a whole, while by-id entries live out their TTL
+        EmployeeSnapshot snapshot = snapshotCache.getIfPresent();
+        Employee listed = snapshot != null ? snapshot.findById(id) : null;
+        if (listed != null) {
+            return ResponseEntity.ok(listed);
+        }
+        EmployeeByIdCache.Entry cached = byIdCache.get(id);
+        if (cached != null) {
+            return cached.isMissing() ? ResponseEntity.notFound().build() : ResponseEntity.ok(cached.getEmployee());
+        }
         try {
-            ResponseEntity<EmployeeResponse> response = restTemplate.getForEntity(BASE_URL + "/employee/" + id, EmployeeResponse.class);
+            ResponseEntity<EmployeeResponse> response = apiClient.getEmployee(id);
             if (response.getBody() != null && HttpStatus.OK.equals(response.getBody().getStatus())) {
-                return ResponseEntity.ok(response.getBody().getEmployees().get(0));
+                Employee employee = response.getBody().getEmployees().get(0);
+                byIdCache.put(employee);
+                return ResponseEntity.ok(employee);
             } else {
                 log.error("Employee not found with id: {}", id);
+                byIdCache.putMissing(id);
                 return ResponseEntity.notFound().build();
             }
+        } catch (RestClientException e) {
+            log.error("Error while fetching employees: {}", e.getMessage(), e);
+            HttpStatus status = HttpStatus.INTERNAL_SERVER_ERROR;
+            if (e instanceof HttpStatusCodeException) {
+                status = ((HttpStatusCodeException) e).getStatusCode();
+            }
+            if (status == HttpStatus.NOT_FOUND) {
+                byIdCache.putMissing(id);
+            }
+            return ResponseEntity.status(status).build();
+        }
+    }
+
+    @Override
+    public ResponseEntity<EmployeeBatchResponse> getEmployeesByIds(List<String> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > batchLookup.getMaxIds()) {
+            return ResponseEntity.badRequest().build();
+        }
+        for (String id : ids) {
+            if (!EmployeeValidation.isValidId(id)) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        log.info("Fetching batch of {} employees", ids.size());
+        try {
+            return ResponseEntity.ok(batchLookup.lookup(ids));
         } catch (RestClientException e) {
             log.error("Error while fetching employees: {}", e.getMessage(), e);
             HttpStatus status = HttpStatus.INTERNAL_SERVER_ERROR;
@@ -97,47 +226,62 @@ public class EmployeeController implements IEmployeeController {
     @Override
     public ResponseEntity<Integer> getHighestSalaryOfEmployees() {
         log.info("Fetching highest salary of employees");
-            List<Employee> allEmployees = getAllEmployees().getBody();
-            if (allEmployees == null || allEmployees.isEmpty()) {
-                return ResponseEntity.notFound().build();
-            }
-            int highestSalary = allEmployees.stream()
-                    .mapToInt(e -> Integer.parseInt(e.getEmployeeSalary()))
-                    .max()
-                    .orElse(0);
-            return ResponseEntity.ok(highestSalary);
+        EmployeeSnapshot snapshot = loadSnapshot();
+        if (snapshot == null || snapshot.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(snapshot.getSalaryIndex().highest().orElse(0));
     }
 
     @Override
     public ResponseEntity<List<String>> getTopTenHighestEarningEmployeeNames() {
         log.info("Fetching top 10 highest earning employee names");
-            List<Employee> allEmployees = getAllEmployees().getBody();
-            if (allEmployees == null || allEmployees.isEmpty()) {
-                return ResponseEntity.notFound().build();
-            }
-            List<String> topTenNames = allEmployees.stream()
-                    .sorted((e1, e2) -> Integer.compare(Integer.parseInt(e2.getEmployeeSalary()), Integer.parseInt(e1.getEmployeeSalary())))
-                    .limit(10)
-                    .map(Employee::getEmployeeName)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(topTenNames);
+        EmployeeSnapshot snapshot = loadSnapshot();
+        if (snapshot == null || snapshot.isEmpty()) {
+            return ResponseEntity.notFound().build();
         }
+        return ResponseEntity.ok(snapshot.getSalaryIndex().topNames(10));
+    }
 
+    @Override
+    public ResponseEntity<List<Employee>> getTopEarners(int n) {
+        if (n < 1) {
+            return ResponseEntity.badRequest().build();
+        }
 
+        log.info("Fetching top {} highest earning employees", n);
+        EmployeeSnapshot snapshot = loadSnapshot();
+        if (snapshot == null || snapshot.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(snapshot.getSalaryIndex().top(n));
+    }
+
+    @Override
+    public ResponseEntity<EmployeeStats> getEmployeeStats() {
+        log.info("Fetching employee statistics");
+        EmployeeSnapshot snapshot = loadSnapshot();
+        if (snapshot == null || snapshot.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(statistics.statsFor(snapshot));
+    }
 
     @Override
     public ResponseEntity<Employee> createEmployee(Map<String, Object> employeeInput) {
-        ResponseEntity<String> validationResult = validateEmployeeInput(employeeInput);
-        if (validationResult.getStatusCode() != HttpStatus.OK) {
+        EmployeeValidation.Result validation = EmployeeValidation.validate(employeeInput);
+        if (!validation.isValid()) {
+            log.info("Rejected employee input: {}", validation.getMessage());
             return ResponseEntity.badRequest().build();
         }
 
         log.info("Creating new employee with input: {}", employeeInput);
         try {
-            ResponseEntity<EmployeeResponse> response = restTemplate.postForEntity(BASE_URL + "/create", employeeInput, EmployeeResponse.class);
+            ResponseEntity<EmployeeResponse> response = apiClient.createEmployee(employeeInput);
             if (response.getBody() != null && HttpStatus.OK.equals(response.getBody().getStatus())) {
                 Employee createdEmployee = response.getBody().getEmployees().get(0);
                 log.info("Successfully created employee: {}", createdEmployee);
+                cacheSync.created(createdEmployee);
                 return ResponseEntity.status(HttpStatus.CREATED).body(createdEmployee);
             } else {
                 log.error("Failed to create employee: {}", response.getBody() != null ? response.getBody().getStatus() : "Unknown error");
@@ -156,19 +300,15 @@ public class EmployeeController implements IEmployeeController {
 
     @Override
     public ResponseEntity<String> deleteEmployeeById(String id) {
-        if (!isValidId(id)) {
+        if (!EmployeeValidation.isValidId(id)) {
             return ResponseEntity.badRequest().body("Invalid employee ID");
         }
 
         log.info("Deleting employee with id: {}", id);
         try {
-            ResponseEntity<EmployeeResponse> response = restTemplate.exchange(
-                    BASE_URL + "/delete/" + id,
-                    HttpMethod.DELETE,
-                    null,
-                    EmployeeResponse.class
-            );
+            ResponseEntity<EmployeeResponse> response = apiClient.deleteEmployee(id);
             if (response.getBody() != null && HttpStatus.OK.equals(response.getBody().getStatus())) {
+                cacheSync.deleted(id);
                 return ResponseEntity.ok("Successfully deleted employee with id: " + id);
             } else {
                 log.error("Failed to delete employee: {}", response.getBody() != null ? response.getBody().getStatus() : "Unknown error");
@@ -185,41 +325,36 @@ public class EmployeeController implements IEmployeeController {
         }
     }
 
-    private ResponseEntity<String> validateEmployeeInput(Map<String, Object> employeeInput) {
-        String name = (String) employeeInput.get("name");
-        Object salary = employeeInput.get("salary");
-        Object age = employeeInput.get("age");
-
-        if (name == null || name.trim().isEmpty()) {
-            return ResponseEntity.badRequest().body("Employee name cannot be empty");
-        }
-
-        if (salary == null || age == null) {
-            return ResponseEntity.badRequest().body("Salary and age must be provided");
+    @Override
+    public ResponseEntity<Flux<BatchWriteResult>> createEmployees(List<Map<String, Object>> employeeInputs) {
+        if (employeeInputs == null || employeeInputs.isEmpty() || employeeInputs.size() > batchWriter.getMaxItems()) {
+            return ResponseEntity.badRequest().build();
         }
 
-        try {
-            int salaryValue = Integer.parseInt(salary.toString());
-            if (salaryValue < 0) {
-                return ResponseEntity.badRequest().body("Salary cannot be negative");
-            }
-        } catch (NumberFormatException e) {
-            return ResponseEntity.badRequest().body("Invalid salary format");
-        }
+        log.info("Creating batch of {} employees", employeeInputs.size());
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(batchWriter.create(employeeInputs));
+    }
 
-        try {
-            int ageValue = Integer.parseInt(age.toString());
-            if (ageValue < 18 || ageValue > 100) {
-                return ResponseEntity.badRequest().body("Age must be between 18 and 100");
-            }
-        } catch (NumberFormatException e) {
-            return ResponseEntity.badRequest().body("Invalid age format");
+    @Override
+    public ResponseEntity<Flux<BatchWriteResult>> deleteEmployeesByIds(List<String> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > batchWriter.getMaxItems()) {
+            return ResponseEntity.badRequest().build();
         }
 
-        return ResponseEntity.ok("Valid input");
+        log.info("Deleting batch of {} employees", ids.size());
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(batchWriter.delete(ids));
     }
 
-    private boolean isValidId(String id) {
-        return id != null && !id.trim().isEmpty() && id.matches("\\d+");
+    private EmployeeSnapshot loadSnapshot() {
+        try {
+            return snapshotCache.get();
+        } catch (RestClientException e) {
+            log.error("Error while fetching employees: {}", e.getMessage(), e);
+            return null;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,195 @@
+package com.example.rqchallenge.employees;
+
+import com.example.rqchallenge.cache.EmployeeSnapshot;
+import com.example.rqchallenge.dtos.Employee;
+import com.example.rqchallenge.dtos.EmployeePage;
+import com.example.rqchallenge.index.CompactRoster;
+import com.example.rqchallenge.index.NameMatch;
+import com.example.rqchallenge.index.SortDirection;
+import com.example.rqchallenge.index.SortField;
+import com.example.rqchallenge.index.SortIndex;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Pages over a snapshot, sorted by a {@link SortField} or in roster order, optionally restricted to
+ * a name search, with each employee projected onto the requested fields.
+ * <p>
+ * Unfiltered pages are read out of the snapshot's {@link SortIndex}, so page N costs its size plus
+ * a binary search. Search matches are few enough to sort per request.
+ * <p>
+ * Cursors name the sort they belong to and the last employee returned, by sort key and roster
+ * position. They stay exact across creates and deletes, which keep positions stable; after a full
+ * refresh they resume at the same sort key.
+ */
+final class EmployeePaging {
+
+    static final int MAX_LIMIT = 1000;
+
+    private static final String ROSTER_ORDER = "ROSTER";
+    private static final int[] NONE = new int[0];
+
+    private static final Map<String, Function<Employee, Object>> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put("id", Employee::getId);
+        FIELDS.put("employeeName", Employee::getEmployeeName);
+        FIELDS.put("employeeSalary", Employee::getEmployeeSalary);
+        FIELDS.put("employeeAge", Employee::getEmployeeAge);
+        FIELDS.put("profileImage", Employee::getProfileImage);
+    }
+
+    private EmployeePaging() {
+    }
+
+    /**
+     * @throws IllegalArgumentException when a field is unknown or the cursor is malformed or
+     *                                  belongs to another sort
+     */
+    static EmployeePage page(EmployeeSnapshot snapshot, String q, NameMatch match, SortField sort, SortDirection direction,
+                             String cursor, int offset, int limit, List<String> fields) {
+        List<String> projection = fields == null || fields.isEmpty() ? new ArrayList<>(FIELDS.keySet()) : fields;
+        for (String field : projection) {
+            if (!FIELDS.containsKey(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+        }
+        Cursor after = cursor != null ? Cursor.decode(cursor, sort, direction) : null;
+
+        // One extra employee tells whether there is a next page
+        int[] positions;
+        int total;
+        if (q != null) {
+            int[] matches = snapshot.getNameIndex().searchPositions(q, match, false, Integer.MAX_VALUE);
+            total = matches.length;
+            positions = pageOfMatches(snapshot, matches, sort, direction, after, offset, limit + 1);
+        } else if (sort != null) {
+            SortIndex index = snapshot.sortIndex(sort);
+            total = index.size();
+            positions = after != null
+                    ? index.pageAfter(after.key, after.position, limit + 1, direction)
+                    : index.page(offset, limit + 1, direction);
+        } else {
+            total = snapshot.getRoster().size();
+            positions = pageInRosterOrder(snapshot.getRoster(), direction, after, offset, limit + 1);
+        }
+
+        int count = Math.min(positions.length, limit);
+        CompactRoster roster = snapshot.getRoster();
+        List<Map<String, Object>> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Employee employee = roster.employee(positions[i]);
+            Map<String, Object> projected = new LinkedHashMap<>();
+            for (String field : projection) {
+                projected.put(field, FIELDS.get(field).apply(employee));
+            }
+            employees.add(projected);
+        }
+
+        String nextCursor = null;
+        if (positions.length > limit) {
+            int last = positions[limit - 1];
+            Object key = sort != null ? snapshot.sortIndex(sort).keyOf(last) : (long) last;
+            nextCursor = new Cursor(sort, direction, last, key).encode();
+        }
+        return EmployeePage.builder().employees(employees).total(total).nextCursor(nextCursor).build();
+    }
+
+    private static int[] pageInRosterOrder(CompactRoster roster, SortDirection direction, Cursor after, int offset, int limit) {
+        int size = roster.size();
+        int start;
+        if (direction == SortDirection.ASC) {
+            start = after != null ? roster.liveBefore(after.position + 1) : offset;
+        } else {
+            start = Math.min(size - 1, after != null ? roster.liveBefore(after.position) - 1 : size - 1 - offset);
+        }
+        int[] page = new int[Math.max(0, Math.min(limit, direction == SortDirection.ASC ? size - start : start + 1))];
+        for (int i = 0; i < page.length; i++) {
+            page[i] = roster.positionAt(direction == SortDirection.ASC ? start + i : start - i);
+        }
+        return page;
+    }
+
+    private static int[] pageOfMatches(EmployeeSnapshot snapshot, int[] matches, SortField sort, SortDirection direction,
+                                       Cursor after, int offset, int limit) {
+        SortIndex index = sort != null ? snapshot.sortIndex(sort) : null;
+        int[] sorted;
+        if (index != null) {
+            sorted = index.sort(matches);
+        } else {
+            sorted = matches.clone();
+            Arrays.sort(sorted);
+        }
+
+        int start;
+        if (after == null) {
+            start = direction == SortDirection.ASC ? offset : sorted.length - 1 - offset;
+        } else if (index != null) {
+            start = direction == SortDirection.ASC
+                    ? index.firstAfter(sorted, after.key, after.position, true)
+                    : index.firstAfter(sorted, after.key, after.position, false) - 1;
+        } else {
+            int found = Arrays.binarySearch(sorted, after.position);
+            int insertion = found >= 0 ? found : -found - 1;
+            start = direction == SortDirection.ASC ? (found >= 0 ? found + 1 : insertion) : insertion - 1;
+        }
+        if (start < 0 || start >= sorted.length) {
+            return NONE;
+        }
+        int count = Math.min(limit, direction == SortDirection.ASC ? sorted.length - start : start + 1);
+        int[] page = new int[count];
+        for (int i = 0; i < count; i++) {
+            page[i] = sorted[direction == SortDirection.ASC ? start + i : start - i];
+        }
+        return page;
+    }
+
+    private static final class Cursor {
+        private final SortField sort;
+        private final SortDirection direction;
+        private final int position;
+        private final Object key;
+
+        Cursor(SortField sort, SortDirection direction, int position, Object key) {
+            this.sort = sort;
+            this.direction = direction;
+            this.position = position;
+            this.key = key;
+        }
+
+        String encode() {
+            String token = (sort != null ? sort.name() : ROSTER_ORDER) + ":" + direction + ":" + position + ":" + key;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token, SortField sort, SortDirection direction) {
+            String[] parts;
+            try {
+                parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":", 4);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            if (parts.length != 4 || !parts[0].equals(sort != null ? sort.name() : ROSTER_ORDER)
+                    || !parts[1].equals(direction.name())) {
+                throw new IllegalArgumentException("Cursor does not belong to this sort");
+            }
+            try {
+                int position = Integer.parseInt(parts[2]);
+                Object key = sort == SortField.NAME ? parts[3] : (Object) Long.parseLong(parts[3]);
+                if (position < 0) {
+                    throw new IllegalArgumentException("Malformed cursor");
+                }
+                return new Cursor(sort, direction, position, key);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.rqchallenge.employees;
+
+import com.example.rqchallenge.cache.EmployeeSnapshot;
+import com.example.rqchallenge.dtos.EmployeeStats;
+import com.example.rqchallenge.index.CompactRoster;
+import com.example.rqchallenge.index.RosterAggregate;
+import com.example.rqchallenge.index.SortDirection;
+import com.example.rqchallenge.index.SortField;
+import com.example.rqchallenge.index.SortIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Salary and age statistics of a snapshot, computed once per snapshot version.
+ * <p>
+ * Totals, the salary histogram and the age distribution come from a single {@link RosterAggregate}
+ * pass. Salary percentiles are exact: they are read by rank from the snapshot's salary
+ * {@link SortIndex} rather than sorted. Age percentiles are exact from the per-age counts.
+ */
+@Component
+@Slf4j
+public class EmployeeStatistics {
+
+    private final StatsProperties properties;
+    private final Timer computeTime;
+    private volatile Computed latest;
+
+    public EmployeeStatistics(StatsProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.computeTime = Timer.builder("employees.stats.compute")
+                .description("Time to compute roster statistics for a new snapshot version")
+                .register(meterRegistry);
+    }
+
+    public EmployeeStats statsFor(EmployeeSnapshot snapshot) {
+        Computed computed = latest;
+        if (computed != null && computed.version == snapshot.getVersion()) {
+            return computed.stats;
+        }
+        synchronized (this) {
+            computed = latest;
+            if (computed != null && computed.version == snapshot.getVersion()) {
+                return computed.stats;
+            }
+            EmployeeStats stats = computeTime.record(() -> compute(snapshot));
+            // A request still holding an older snapshot must not evict the current figures
+            if (computed == null || snapshot.getVersion() > computed.version) {
+                latest = new Computed(snapshot.getVersion(), stats);
+            }
+            log.info("Computed statistics for employee snapshot version {}", snapshot.getVersion());
+            return stats;
+        }
+    }
+
+    private EmployeeStats compute(EmployeeSnapshot snapshot) {
+        CompactRoster roster = snapshot.getRoster();
+        RosterAggregate aggregate = RosterAggregate.of(roster, properties.getSalaryBucketWidth(), properties.getChunkSize());
+
+        return EmployeeStats.builder()
+                .version(snapshot.getVersion())
+                .count(roster.size())
+                .salary(salarySummary(snapshot, aggregate))
+                .age(ageSummary(aggregate))
+                .salaryHistogram(salaryHistogram(aggregate))
+                .ageBands(ageBands(aggregate))
+                .build();
+    }
+
+    private EmployeeStats.Summary salarySummary(EmployeeSnapshot snapshot, RosterAggregate aggregate) {
+        long count = aggregate.getSalaryCount();
+        EmployeeStats.Summary.SummaryBuilder summary = EmployeeStats.Summary.builder().count(count);
+        if (count == 0) {
+            return summary.build();
+        }
+        // Unparsable salaries sort first in the salary ordering; skip past them
+        SortIndex bySalary = snapshot.sortIndex(SortField.SALARY);
+        long unparsable = snapshot.getRoster().size() - count;
+        Map<String, Long> percentiles = new LinkedHashMap<>();
+        for (double percentile : properties.getPercentiles()) {
+            int[] position = bySalary.page((int) (unparsable + rank(percentile, count)), 1, SortDirection.ASC);
+            percentiles.put(label(percentile), (long) snapshot.getRoster().salary(position[0]));
+        }
+        return summary.min((long) aggregate.getSalaryMin())
+                .max((long) aggregate.getSalaryMax())
+                .mean(aggregate.getSalaryMean())
+                .percentiles(percentiles)
+                .build();
+    }
+
+    private EmployeeStats.Summary ageSummary(RosterAggregate aggregate) {
+        long count = aggregate.getAgeCount();
+        EmployeeStats.Summary.SummaryBuilder summary = EmployeeStats.Summary.builder().count(count);
+        if (count == 0) {
+            return summary.build();
+        }
+        long min = -1;
+        long max = -1;
+        for (int age = 0; age <= RosterAggregate.MAX_AGE; age++) {
+            if (aggregate.ageCount(age) > 0) {
+                min = min < 0 ? age : min;
+                max = age;
+            }
+        }
+        Map<String, Long> percentiles = new LinkedHashMap<>();
+        for (double percentile : properties.getPercentiles()) {
+            long target = rank(percentile, count) + 1;
+            long seen = 0;
+            int age = 0;
+            while (age < RosterAggregate.MAX_AGE && seen + aggregate.ageCount(age) < target) {
+                seen += aggregate.ageCount(age++);
+            }
+            percentiles.put(label(percentile), (long) age);
+        }
+        return summary.min(min).max(max).mean(aggregate.getAgeMean()).percentiles(percentiles).build();
+    }
+
+    private List<EmployeeStats.Bucket> salaryHistogram(RosterAggregate aggregate) {
+        List<EmployeeStats.Bucket> buckets = new ArrayList<>();
+        aggregate.getSalaryBuckets().forEach((from, count) -> buckets.add(EmployeeStats.Bucket.builder()
+                .from(from).to(from + properties.getSalaryBucketWidth()).count(count).build()));
+        return buckets;
+    }
+
+    private List<EmployeeStats.Bucket> ageBands(RosterAggregate aggregate) {
+        List<EmployeeStats.Bucket> bands = new ArrayList<>();
+        Integer from = null;
+        for (Integer to : new TreeSet<>(properties.getAgeBands())) {
+            bands.add(ageBand(aggregate, from, to));
+            from = to;
+        }
+        bands.add(ageBand(aggregate, from, null));
+        return bands;
+    }
+
+    private static EmployeeStats.Bucket ageBand(RosterAggregate aggregate, Integer from, Integer to) {
+        long count = 0;
+        int start = from != null ? Math.max(0, from) : 0;
+        int end = to != null ? Math.min(RosterAggregate.MAX_AGE + 1, to) : RosterAggregate.MAX_AGE + 1;
+        for (int age = start; age < end; age++) {
+            count += aggregate.ageCount(age);
+        }
+        return EmployeeStats.Bucket.builder()
+                .from(from != null ? Long.valueOf(from) : null)
+                .to(to != null ? Long.valueOf(to) : null)
+                .count(count)
+                .build();
+    }
+
+    /**
+     * Zero-based nearest-rank index of {@code percentile} among {@code count} values.
+     */
+    private static long rank(double percentile, long count) {
+        long rank = (long) Math.ceil(percentile * count) - 1;
+        return Math.max(0, Math.min(count - 1, rank));
+    }
+
+    private static String label(double percentile) {
+        return "p" + BigDecimal.valueOf(percentile).movePointRight(2).stripTrailingZeros().toPlainString();
+    }
+
+    private static final class Computed {
+        private final long version;
+        private final EmployeeStats stats;
+
+        Computed(long version, EmployeeStats stats) {
+            this.version = version;
+            this.stats = stats;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.rqchallenge.employees;
+
+import com.example.rqchallenge.cache.EmployeeSnapshot;
+import com.example.rqchallenge.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.dtos.Employee;
+import com.example.rqchallenge.upstream.EmployeeApiClient;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the roster to a response one employee at a time, as a JSON array or as NDJSON.
+ * <p>
+ * A roster that is already cached is serialized straight from the snapshot. Otherwise upstream is
+ * asked before the response is committed: an error status, or a non-OK {@code status} field ahead
+ * of the {@code employees} array, is thrown to the caller instead of being streamed behind a 200.
+ * The array is then read token by token and each element is bound to {@link Employee} and written
+ * as soon as it has arrived, so the output has the same shape as the other endpoints and memory use
+ * does not grow with the roster size.
+ */
+@Component
+@Slf4j
+public class EmployeeStreamWriter {
+
+    private static final String EMPLOYEES_FIELD = "employees";
+    private static final String STATUS_FIELD = "status";
+    private static final String OK = "OK";
+    // NDJSON lines are pushed to the client in batches rather than one chunk per employee
+    private static final int FLUSH_EVERY_LINES = 512;
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private final EmployeeApiClient apiClient;
+    private final EmployeeSnapshotCache snapshotCache;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader employeeReader;
+    private final ObjectWriter employeeWriter;
+
+    public EmployeeStreamWriter(EmployeeApiClient apiClient, EmployeeSnapshotCache snapshotCache, ObjectMapper objectMapper) {
+        this.apiClient = apiClient;
+        this.snapshotCache = snapshotCache;
+        this.objectMapper = objectMapper;
+        this.employeeReader = objectMapper.readerFor(Employee.class);
+        this.employeeWriter = objectMapper.writerFor(Employee.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Picks the source of the roster and, when it is upstream, checks its response. Nothing is
+     * written until the returned body runs.
+     */
+    public StreamingResponseBody prepare(boolean ndjson) throws RestClientException {
+        EmployeeSnapshot snapshot = snapshotCache.getIfPresent();
+        if (snapshot != null) {
+            return out -> {
+                try (JsonGenerator generator = open(out, ndjson)) {
+                    LineFlusher flusher = new LineFlusher(generator, ndjson);
+                    for (Employee employee : snapshot.getEmployees()) {
+                        employeeWriter.writeValue(generator, employee);
+                        flusher.endElement();
+                    }
+                    finish(generator, ndjson);
+                }
+            };
+        }
+
+        ClientHttpResponse response = apiClient.openEmployees();
+        try {
+            JsonParser parser = objectMapper.getFactory().createParser(response.getBody());
+            if (!seekEmployees(parser)) {
+                response.close();
+                return out -> {
+                    try (JsonGenerator generator = open(out, ndjson)) {
+                        finish(generator, ndjson);
+                    }
+                };
+            }
+            return out -> {
+                try (response; parser) {
+                    int count = copyEmployees(parser, out, ndjson);
+                    log.info("Streamed {} employees from upstream", count);
+                }
+            };
+        } catch (IOException e) {
+            response.close();
+            throw new ResourceAccessException("Failed to read upstream employee list: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            response.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Advances {@code parser} to the first element of the {@code employees} array. Returns
+     * {@code false} when the payload has no such array but reported no error either.
+     */
+    private static boolean seekEmployees(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY, "Unexpected upstream payload for employee list");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (EMPLOYEES_FIELD.equals(field) && value == JsonToken.START_ARRAY) {
+                return true;
+            } else if (STATUS_FIELD.equals(field)) {
+                checkStatus(parser.getValueAsString());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return false;
+    }
+
+    private static void checkStatus(String status) {
+        if (status != null && !OK.equals(status)) {
+            log.error("Upstream reported status {} for the employee list", status);
+            throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to fetch employees");
+        }
+    }
+
+    private int copyEmployees(JsonParser parser, OutputStream out, boolean ndjson) throws IOException {
+        int count = 0;
+        try (JsonGenerator generator = open(out, ndjson)) {
+            LineFlusher flusher = new LineFlusher(generator, ndjson);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                employeeWriter.writeValue(generator, employeeReader.<Employee>readValue(parser));
+                flusher.endElement();
+                count++;
+            }
+            finish(generator, ndjson);
+        }
+        // A status after the array comes too late to change the response
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if (STATUS_FIELD.equals(field) && !OK.equals(parser.getValueAsString())) {
+                log.error("Upstream reported status {} after streaming {} employees", parser.getValueAsString(), count);
+            }
+            parser.skipChildren();
+        }
+        return count;
+    }
+
+    private JsonGenerator open(OutputStream out, boolean ndjson) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // The array is only closed by finish(), so a read failing partway leaves it visibly truncated
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        generator.setRootValueSeparator(null);
+        if (!ndjson) {
+            generator.writeStartArray();
+        }
+        return generator;
+    }
+
+    private static void finish(JsonGenerator generator, boolean ndjson) throws IOException {
+        if (!ndjson) {
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Ends NDJSON lines and flushes them every {@link #FLUSH_EVERY_LINES} lines, or sooner when
+     * upstream is slow, so the client neither waits long for a line nor gets a chunk per line.
+     */
+    private static final class LineFlusher {
+        private final JsonGenerator generator;
+        private final boolean ndjson;
+        private int unflushed;
+        private long flushedAt = System.nanoTime();
+
+        LineFlusher(JsonGenerator generator, boolean ndjson) {
+            this.generator = generator;
+            this.ndjson = ndjson;
+        }
+
+        void endElement() throws IOException {
+            if (!ndjson) {
+                return;
+            }
+            generator.writeRaw('\n');
+            long now = System.nanoTime();
+            if (++unflushed >= FLUSH_EVERY_LINES || now - flushedAt >= FLUSH_INTERVAL_NANOS) {
+                generator.flush();
+                unflushed = 0;
+                flushedAt = now;
+            }
+        }
+    }
+}
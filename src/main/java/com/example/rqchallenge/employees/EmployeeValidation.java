@@ -0,0 +1,163 @@
+package com.example.rqchallenge.employees;
+
+import java.util.Map;
+
+/**
+ * Request validation for ids and employee input.
+ * <p>
+ * Every check is a single pass over the characters, without regexes, substrings, boxing or
+ * exceptions, and the outcome is one of the shared {@link Result} constants, so validating a
+ * request allocates nothing.
+ */
+final class EmployeeValidation {
+
+    static final int MIN_AGE = 18;
+    static final int MAX_AGE = 100;
+
+    /**
+     * Returned by {@link #parseInt} for anything that {@link Integer#parseInt(String)} would reject.
+     */
+    static final long NOT_AN_INT = Long.MIN_VALUE;
+
+    enum Result {
+        VALID("Valid input"),
+        EMPTY_INPUT("Employee input cannot be empty"),
+        EMPTY_NAME("Employee name cannot be empty"),
+        MISSING_SALARY_OR_AGE("Salary and age must be provided"),
+        INVALID_SALARY("Invalid salary format"),
+        NEGATIVE_SALARY("Salary cannot be negative"),
+        INVALID_AGE("Invalid age format"),
+        AGE_OUT_OF_RANGE("Age must be between " + MIN_AGE + " and " + MAX_AGE);
+
+        private final String message;
+
+        Result(String message) {
+            this.message = message;
+        }
+
+        String getMessage() {
+            return message;
+        }
+
+        boolean isValid() {
+            return this == VALID;
+        }
+    }
+
+    private EmployeeValidation() {
+    }
+
+    static Result validate(Map<String, Object> employeeInput) {
+        if (employeeInput == null) {
+            return Result.EMPTY_INPUT;
+        }
+        Object name = employeeInput.get("name");
+        Object salary = employeeInput.get("salary");
+        Object age = employeeInput.get("age");
+
+        if (!(name instanceof CharSequence) || isBlank((CharSequence) name)) {
+            return Result.EMPTY_NAME;
+        }
+
+        if (salary == null || age == null) {
+            return Result.MISSING_SALARY_OR_AGE;
+        }
+
+        long salaryValue = toInt(salary);
+        if (salaryValue == NOT_AN_INT) {
+            return Result.INVALID_SALARY;
+        }
+        if (salaryValue < 0) {
+            return Result.NEGATIVE_SALARY;
+        }
+
+        long ageValue = toInt(age);
+        if (ageValue == NOT_AN_INT) {
+            return Result.INVALID_AGE;
+        }
+        if (ageValue < MIN_AGE || ageValue > MAX_AGE) {
+            return Result.AGE_OUT_OF_RANGE;
+        }
+
+        return Result.VALID;
+    }
+
+    /**
+     * Whether {@code id} is a non-empty run of ASCII digits.
+     */
+    static boolean isValidId(String id) {
+        if (id == null || id.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses {@code value} with the rules of {@link Integer#parseInt(String)}: an optional sign
+     * followed by at least one decimal digit, within the range of an {@code int}.
+     *
+     * @return the value, or {@link #NOT_AN_INT}
+     */
+    static long parseInt(CharSequence value) {
+        int length = value.length();
+        if (length == 0) {
+            return NOT_AN_INT;
+        }
+        int i = 0;
+        boolean negative = false;
+        char first = value.charAt(0);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++i == length) {
+                return NOT_AN_INT;
+            }
+        }
+        long limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long result = 0;
+        for (; i < length; i++) {
+            int digit = Character.digit(value.charAt(i), 10);
+            if (digit < 0) {
+                return NOT_AN_INT;
+            }
+            result = result * 10 + digit;
+            if (result > limit) {
+                return NOT_AN_INT;
+            }
+        }
+        return negative ? -result : result;
+    }
+
+    /**
+     * Reads an {@code int} from a JSON value, which Jackson binds to a string or a boxed number.
+     */
+    private static long toInt(Object value) {
+        if (value instanceof CharSequence) {
+            return parseInt((CharSequence) value);
+        }
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).intValue();
+        }
+        if (value instanceof Long) {
+            long longValue = (Long) value;
+            return longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE ? longValue : NOT_AN_INT;
+        }
+        // Decimals and big numbers are rare enough to go through their text form
+        return parseInt(value.toString());
+    }
+
+    private static boolean isBlank(CharSequence value) {
+        // Same notion of blank as String.trim()
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.rqchallenge.employees;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an endpoint that creates or deletes employees upstream, so {@link ReadOnlyMode} can refuse
+ * it while the roster cannot be confirmed.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface EmployeeWrite {
+}
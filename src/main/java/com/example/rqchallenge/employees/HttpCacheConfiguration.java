@@ -0,0 +1,35 @@
+package com.example.rqchallenge.employees;
+
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Wires {@link SnapshotETags} in front of the employee endpoints and lets Tomcat compress
+ * responses that carry a strong ETag.
+ */
+@Configuration
+public class HttpCacheConfiguration implements WebMvcConfigurer {
+
+    private final SnapshotETags snapshotETags;
+
+    public HttpCacheConfiguration(SnapshotETags snapshotETags) {
+        this.snapshotETags = snapshotETags;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(snapshotETags);
+    }
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> strongETagCompression() {
+        // Tomcat skips compression for strong ETags by default; SnapshotETags already gives gzip
+        // clients their own tag, so compressing them is safe
+        return factory -> factory.addConnectorCustomizers(
+                connector -> connector.setProperty("noCompressionStrongETag", "false"));
+    }
+}
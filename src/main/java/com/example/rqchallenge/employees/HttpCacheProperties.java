@@ -0,0 +1,18 @@
+package com.example.rqchallenge.employees;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "employees.http-cache")
+public class HttpCacheProperties {
+
+    /**
+     * How long clients may reuse a snapshot-derived response without revalidating. Zero sends
+     * {@code no-cache}, so every poll revalidates with {@code If-None-Match} and gets a 304 while
+     * the roster is unchanged.
+     */
+    private Duration maxAge = Duration.ZERO;
+}
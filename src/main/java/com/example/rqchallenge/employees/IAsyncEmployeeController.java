@@ -0,0 +1,95 @@
+package com.example.rqchallenge.employees;
+
+import com.example.rqchallenge.dtos.BatchWriteResult;
+import com.example.rqchallenge.dtos.Employee;
+import com.example.rqchallenge.dtos.EmployeeBatchResponse;
+import com.example.rqchallenge.dtos.EmployeePage;
+import com.example.rqchallenge.dtos.EmployeeStats;
+import com.example.rqchallenge.index.NameMatch;
+import com.example.rqchallenge.index.SortDirection;
+import com.example.rqchallenge.index.SortField;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+public interface IAsyncEmployeeController {
+
+    @SnapshotETag
+    @GetMapping()
+    CompletableFuture<ResponseEntity<List<Employee>>> getAllEmployees();
+
+    @GetMapping("/stream")
+    ResponseEntity<StreamingResponseBody> streamAllEmployees(@RequestParam(defaultValue = "json") String format);
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    ResponseEntity<SseEmitter> streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId);
+
+    @SnapshotETag
+    @GetMapping("/search/{searchString}")
+    CompletableFuture<ResponseEntity<List<Employee>>> getEmployeesByNameSearch(@PathVariable String searchString);
+
+    @SnapshotETag
+    @GetMapping("/search")
+    CompletableFuture<ResponseEntity<List<Employee>>> searchEmployees(@RequestParam String q,
+                                                                      @RequestParam(defaultValue = "CONTAINS") NameMatch match,
+                                                                      @RequestParam(defaultValue = "false") boolean ignoreAccents,
+                                                                      @RequestParam(defaultValue = "100") int limit);
+
+    @SnapshotETag
+    @GetMapping("/page")
+    CompletableFuture<ResponseEntity<EmployeePage>> getEmployeesPage(@RequestParam(required = false) String q,
+                                                                     @RequestParam(defaultValue = "CONTAINS") NameMatch match,
+                                                                     @RequestParam(required = false) SortField sort,
+                                                                     @RequestParam(defaultValue = "ASC") SortDirection order,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(defaultValue = "0") int offset,
+                                                                     @RequestParam(defaultValue = "50") int limit,
+                                                                     @RequestParam(required = false) List<String> fields);
+
+    @GetMapping("/{id}")
+    CompletableFuture<ResponseEntity<Employee>> getEmployeeById(@PathVariable String id);
+
+    @PostMapping("/batch")
+    CompletableFuture<ResponseEntity<EmployeeBatchResponse>> getEmployeesByIds(@RequestBody List<String> ids);
+
+    @SnapshotETag
+    @GetMapping("/highestSalary")
+    CompletableFuture<ResponseEntity<Integer>> getHighestSalaryOfEmployees();
+
+    @SnapshotETag
+    @GetMapping("/topTenHighestEarningEmployeeNames")
+    CompletableFuture<ResponseEntity<List<String>>> getTopTenHighestEarningEmployeeNames();
+
+    @SnapshotETag
+    @GetMapping("/topEarners")
+    CompletableFuture<ResponseEntity<List<Employee>>> getTopEarners(@RequestParam(defaultValue = "10") int n);
+
+    @SnapshotETag
+    @GetMapping("/stats")
+    CompletableFuture<ResponseEntity<EmployeeStats>> getEmployeeStats();
+
+    @EmployeeWrite
+    @PostMapping()
+    CompletableFuture<ResponseEntity<Employee>> createEmployee(@RequestBody Map<String, Object> employeeInput);
+
+    @EmployeeWrite
+    @DeleteMapping("/{id}")
+    CompletableFuture<ResponseEntity<String>> deleteEmployeeById(@PathVariable String id);
+
+    @EmployeeWrite
+    @PostMapping(value = "/batch/create", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<Flux<BatchWriteResult>> createEmployees(@RequestBody List<Map<String, Object>> employeeInputs);
+
+    @EmployeeWrite
+    @PostMapping(value = "/batch/delete", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<Flux<BatchWriteResult>> deleteEmployeesByIds(@RequestBody List<String> ids);
+
+}
@@ -1,8 +1,19 @@
 package com.example.rqchallenge.employees;
 
+import com.example.rqchallenge.dtos.BatchWriteResult;
 import com.example.rqchallenge.dtos.Employee;
+import com.example.rqchallenge.dtos.EmployeeBatchResponse;
+import com.example.rqchallenge.dtos.EmployeePage;
+import com.example.rqchallenge.dtos.EmployeeStats;
+import com.example.rqchallenge.index.NameMatch;
+import com.example.rqchallenge.index.SortDirection;
+import com.example.rqchallenge.index.SortField;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
 import java.io.IOException;
 import java.util.List;
@@ -11,25 +22,74 @@ import java.util.Map;
 @RestController
 public interface IEmployeeController {
 
+    @SnapshotETag
     @GetMapping()
     ResponseEntity<List<Employee>> getAllEmployees() throws IOException;
 
+    @GetMapping("/stream")
+    ResponseEntity<StreamingResponseBody> streamAllEmployees(@RequestParam(defaultValue = "json") String format);
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    ResponseEntity<SseEmitter> streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId);
+
+    @SnapshotETag
     @GetMapping("/search/{searchString}")
     ResponseEntity<List<Employee>> getEmployeesByNameSearch(@PathVariable String searchString);
 
+    @SnapshotETag
+    @GetMapping("/search")
+    ResponseEntity<List<Employee>> searchEmployees(@RequestParam String q,
+                                                   @RequestParam(defaultValue = "CONTAINS") NameMatch match,
+                                                   @RequestParam(defaultValue = "false") boolean ignoreAccents,
+                                                   @RequestParam(defaultValue = "100") int limit);
+
+    @SnapshotETag
+    @GetMapping("/page")
+    ResponseEntity<EmployeePage> getEmployeesPage(@RequestParam(required = false) String q,
+                                                  @RequestParam(defaultValue = "CONTAINS") NameMatch match,
+                                                  @RequestParam(required = false) SortField sort,
+                                                  @RequestParam(defaultValue = "ASC") SortDirection order,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = "0") int offset,
+                                                  @RequestParam(defaultValue = "50") int limit,
+                                                  @RequestParam(required = false) List<String> fields);
+
     @GetMapping("/{id}")
     ResponseEntity<Employee> getEmployeeById(@PathVariable String id);
 
+    @PostMapping("/batch")
+    ResponseEntity<EmployeeBatchResponse> getEmployeesByIds(@RequestBody List<String> ids);
+
+    @SnapshotETag
     @GetMapping("/highestSalary")
     ResponseEntity<Integer> getHighestSalaryOfEmployees();
 
+    @SnapshotETag
     @GetMapping("/topTenHighestEarningEmployeeNames")
     ResponseEntity<List<String>> getTopTenHighestEarningEmployeeNames();
 
+    @SnapshotETag
+    @GetMapping("/topEarners")
+    ResponseEntity<List<Employee>> getTopEarners(@RequestParam(defaultValue = "10") int n);
+
+    @SnapshotETag
+    @GetMapping("/stats")
+    ResponseEntity<EmployeeStats> getEmployeeStats();
+
+    @EmployeeWrite
     @PostMapping()
     ResponseEntity<Employee> createEmployee(@RequestBody Map<String, Object> employeeInput);
 
+    @EmployeeWrite
     @DeleteMapping("/{id}")
     ResponseEntity<String> deleteEmployeeById(@PathVariable String id);
 
+    @EmployeeWrite
+    @PostMapping(value = "/batch/create", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<Flux<BatchWriteResult>> createEmployees(@RequestBody List<Map<String, Object>> employeeInputs);
+
+    @EmployeeWrite
+    @PostMapping(value = "/batch/delete", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<Flux<BatchWriteResult>> deleteEmployeesByIds(@RequestBody List<String> ids);
+
 }
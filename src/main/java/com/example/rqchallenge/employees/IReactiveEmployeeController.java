@@ -0,0 +1,47 @@
+package com.example.rqchallenge.employees;
+
+import com.example.rqchallenge.dtos.Employee;
+import com.example.rqchallenge.index.NameMatch;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+public interface IReactiveEmployeeController {
+
+    @GetMapping()
+    Mono<ResponseEntity<List<Employee>>> getAllEmployees();
+
+    @GetMapping("/search/{searchString}")
+    Mono<ResponseEntity<List<Employee>>> getEmployeesByNameSearch(@PathVariable String searchString);
+
+    @GetMapping("/search")
+    Mono<ResponseEntity<List<Employee>>> searchEmployees(@RequestParam String q,
+                                                         @RequestParam(defaultValue = "CONTAINS") NameMatch match,
+                                                         @RequestParam(defaultValue = "false") boolean ignoreAccents,
+                                                         @RequestParam(defaultValue = "100") int limit);
+
+    @GetMapping("/{id}")
+    Mono<ResponseEntity<Employee>> getEmployeeById(@PathVariable String id);
+
+    @GetMapping("/highestSalary")
+    Mono<ResponseEntity<Integer>> getHighestSalaryOfEmployees();
+
+    @GetMapping("/topTenHighestEarningEmployeeNames")
+    Mono<ResponseEntity<List<String>>> getTopTenHighestEarningEmployeeNames();
+
+    @GetMapping("/topEarners")
+    Mono<ResponseEntity<List<Employee>>> getTopEarners(@RequestParam(defaultValue = "10") int n);
+
+    @EmployeeWrite
+    @PostMapping()
+    Mono<ResponseEntity<Employee>> createEmployee(@RequestBody Map<String, Object> employeeInput);
+
+    @EmployeeWrite
+    @DeleteMapping("/{id}")
+    Mono<ResponseEntity<String>> deleteEmployeeById(@PathVariable String id);
+
+}
@@ -0,0 +1,41 @@
+package com.example.rqchallenge.employees;
+
+import com.example.rqchallenge.cache.EmployeeSnapshotCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+
+/**
+ * Active unless {@code employees.listing.pre-rendered=false}. Puts {@link PreRenderedListingConverter}
+ * ahead of the Jackson converter and has it render every roster fetched from upstream, so the full
+ * listing is served from pre-rendered bytes.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "employees.listing", name = "pre-rendered", havingValue = "true", matchIfMissing = true)
+public class ListingConfiguration implements WebMvcConfigurer {
+
+    private final PreRenderedListingConverter converter;
+
+    public ListingConfiguration(ObjectMapper objectMapper, ServerProperties serverProperties, EmployeeSnapshotCache snapshotCache,
+                                MeterRegistry meterRegistry) {
+        this.converter = new PreRenderedListingConverter(objectMapper, serverProperties, meterRegistry);
+        snapshotCache.addFetchListener(converter::onFetch);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        converter.stop();
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, converter);
+    }
+}
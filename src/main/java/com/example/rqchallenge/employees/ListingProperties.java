@@ -0,0 +1,16 @@
+package com.example.rqchallenge.employees;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "employees.listing")
+public class ListingProperties {
+
+    /**
+     * Whether the full listing is serialized in the background once per fetched roster and served
+     * from the stored bytes, gzipped up front when response compression is on, instead of being
+     * serialized per request.
+     */
+    private boolean preRendered = true;
+}
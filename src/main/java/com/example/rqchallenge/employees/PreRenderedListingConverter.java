@@ -0,0 +1,186 @@
+package com.example.rqchallenge.employees;
+
+import com.example.rqchallenge.cache.EmployeeSnapshot;
+import com.example.rqchallenge.index.CompactRoster;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the full listing, a snapshot's {@link CompactRoster#asList() roster view}, from bytes
+ * serialized once per fetched roster instead of running Jackson on every request.
+ * <p>
+ * The bytes are rendered by the application's {@link ObjectMapper} on a background thread after
+ * each full fetch, so they are exactly what the Jackson converter would produce. Snapshots made by
+ * writes in between are small deltas of the rendered roster and are not rendered; they, and any
+ * snapshot whose render is not ready yet, are serialized by Jackson per request as usual.
+ * <p>
+ * When response compression is on and the listing is above its minimum size, only a gzipped copy
+ * is kept, and sent as-is to clients that accept it; Tomcat leaves responses that already have a
+ * {@code Content-Encoding} alone. Other clients get the listing through Jackson.
+ */
+@Slf4j
+public class PreRenderedListingConverter extends AbstractHttpMessageConverter<List<?>> {
+
+    private final ObjectMapper objectMapper;
+    private final boolean compression;
+    private final long minCompressionSize;
+    private final Timer renderTime;
+    private final AtomicReference<List<?>> pending = new AtomicReference<>();
+    private final ExecutorService renderer;
+    private volatile Rendered latest;
+
+    public PreRenderedListingConverter(ObjectMapper objectMapper, ServerProperties serverProperties, MeterRegistry meterRegistry) {
+        super(MediaType.APPLICATION_JSON);
+        this.objectMapper = objectMapper;
+        this.compression = serverProperties.getCompression().getEnabled();
+        this.minCompressionSize = serverProperties.getCompression().getMinResponseSize().toBytes();
+        this.renderTime = Timer.builder("employees.listing.render")
+                .description("Time to serialize, and gzip, the full listing of a fetched roster")
+                .register(meterRegistry);
+        this.renderer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "employee-listing-render");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Renders the listing of a freshly fetched snapshot in the background. Renders still queued
+     * when a newer snapshot arrives are skipped.
+     */
+    public void onFetch(EmployeeSnapshot snapshot) {
+        Rendered rendered = latest;
+        if (rendered != null && rendered.employees == snapshot.getEmployees()) {
+            // Reconciled unchanged; the roster view and its bytes are the same
+            return;
+        }
+        if (pending.getAndSet(snapshot.getEmployees()) == null) {
+            renderer.execute(() -> {
+                List<?> employees = pending.getAndSet(null);
+                if (employees != null) {
+                    try {
+                        render(employees);
+                    } catch (IOException | RuntimeException e) {
+                        log.warn("Failed to render listing of {} employees: {}", employees.size(), e.getMessage());
+                    }
+                }
+            });
+        }
+    }
+
+    public void stop() throws InterruptedException {
+        renderer.shutdown();
+        renderer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return CompactRoster.isView(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected List<?> readInternal(Class<? extends List<?>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Listings are written only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(List<?> employees, HttpOutputMessage outputMessage) throws IOException {
+        Rendered rendered = latest;
+        if (rendered != null && rendered.employees == employees) {
+            if (rendered.gzipped) {
+                outputMessage.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            if (!rendered.gzipped || clientAcceptsGzip()) {
+                if (rendered.gzipped) {
+                    outputMessage.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                }
+                outputMessage.getHeaders().setContentLength(rendered.body.length);
+                outputMessage.getBody().write(rendered.body);
+                return;
+            }
+        }
+        objectMapper.writeValue(StreamUtils.nonClosing(outputMessage.getBody()), employees);
+    }
+
+    void render(List<?> employees) throws IOException {
+        Timer.Sample sample = Timer.start();
+        Rendered rendered = null;
+        if (compression) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ListingGzip out = new ListingGzip(bytes)) {
+                objectMapper.writeValue(StreamUtils.nonClosing(out), employees);
+                out.finish();
+                if (out.uncompressedSize() >= minCompressionSize) {
+                    rendered = new Rendered(employees, bytes.toByteArray(), true);
+                }
+            }
+        }
+        if (rendered == null) {
+            rendered = new Rendered(employees, objectMapper.writeValueAsBytes(employees), false);
+        }
+        sample.stop(renderTime);
+        log.info("Rendered listing of {} employees: {} bytes{}", employees.size(), rendered.body.length,
+                rendered.gzipped ? " gzipped" : "");
+        latest = rendered;
+    }
+
+    private static boolean clientAcceptsGzip() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes
+                && SnapshotETags.acceptsGzip(((ServletRequestAttributes) attributes).getRequest());
+    }
+
+    private static final class ListingGzip extends GZIPOutputStream {
+
+        ListingGzip(OutputStream out) throws IOException {
+            super(out);
+        }
+
+        /**
+         * Bytes written so far, before compression. Only valid until the stream is closed.
+         */
+        long uncompressedSize() {
+            return def.getBytesRead();
+        }
+    }
+
+    private static final class Rendered {
+        private final List<?> employees;
+        private final byte[] body;
+        private final boolean gzipped;
+
+        Rendered(List<?> employees, byte[] body, boolean gzipped) {
+            this.employees = employees;
+            this.body = body;
+            this.gzipped = gzipped;
+        }
+    }
+}
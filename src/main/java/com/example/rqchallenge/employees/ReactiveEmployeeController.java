@@ -0,0 +1,243 @@
+package com.example.rqchallenge.employees;
+
+import com.example.rqchallenge.cache.EmployeeByIdCache;
+import com.example.rqchallenge.cache.EmployeeSnapshot;
+import com.example.rqchallenge.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.cluster.EmployeeCacheSync;
+import com.example.rqchallenge.dtos.Employee;
+import com.example.rqchallenge.index.NameMatch;
+import com.example.rqchallenge.upstream.ReactiveEmployeeApiClient;
+import com.example.rqchallenge.upstream.UpstreamUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking variants of the {@link EmployeeController} operations, served under {@code /reactive}.
+ * Request threads are released while upstream calls are in flight.
+ */
+@RestController
+@RequestMapping("/reactive")
+@Slf4j
+public class ReactiveEmployeeController implements IReactiveEmployeeController {
+
+    private final ReactiveEmployeeApiClient apiClient;
+    private final EmployeeSnapshotCache snapshotCache;
+    private final EmployeeByIdCache byIdCache;
+    private final EmployeeCacheSync cacheSync;
+
+    public ReactiveEmployeeController(ReactiveEmployeeApiClient apiClient, EmployeeSnapshotCache snapshotCache,
+                                      EmployeeByIdCache byIdCache, EmployeeCacheSync cacheSync) {
+        this.apiClient = apiClient;
+        this.snapshotCache = snapshotCache;
+        this.byIdCache = byIdCache;
+        this.cacheSync = cacheSync;
+    }
+
+    @Override
+    public Mono<ResponseEntity<List<Employee>>> getAllEmployees() {
+        log.info("Fetching all employees");
+        return snapshot()
+                .map(snapshot -> ResponseEntity.ok(snapshot.getEmployees()))
+                .onErrorResume(e -> {
+                    log.error("Error while fetching employees: {}", e.getMessage(), e);
+                    return Mono.just(ResponseEntity.status(statusOf(e)).body(Collections.emptyList()));
+                });
+    }
+
+    @Override
+    public Mono<ResponseEntity<List<Employee>>> getEmployeesByNameSearch(String searchString) {
+        if (searchString == null || searchString.isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        log.info("Searching employees with name containing: {}", searchString);
+        return snapshot()
+                .map(snapshot -> ResponseEntity.ok(snapshot.getNameIndex().search(searchString, NameMatch.CONTAINS, false, Integer.MAX_VALUE)))
+                .onErrorResume(e -> {
+                    log.error("Error while fetching employees: {}", e.getMessage(), e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(Collections.emptyList()));
+                });
+    }
+
+    @Override
+    public Mono<ResponseEntity<List<Employee>>> searchEmployees(String q, NameMatch match, boolean ignoreAccents, int limit) {
+        if (q == null || q.isEmpty() || limit < 1) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        log.info("Searching employees with {} name match for: {} (ignoreAccents={}, limit={})", match, q, ignoreAccents, limit);
+        return snapshot()
+                .map(snapshot -> ResponseEntity.ok(snapshot.getNameIndex().search(q, match, ignoreAccents, limit)))
+                .onErrorResume(e -> {
+                    log.error("Error while fetching employees: {}", e.getMessage(), e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(Collections.emptyList()));
+                });
+    }
+
+    @Override
+    public Mono<ResponseEntity<Employee>> getEmployeeById(String id) {
+        if (!EmployeeValidation.isValidId(id)) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        log.info("Fetching employee with id: {}", id);
+        // The snapshot first: it is refreshed as a whole, while by-id entries live out their TTL
+        EmployeeSnapshot snapshot = snapshotCache.getIfPresent();
+        Employee listed = snapshot != null ? snapshot.findById(id) : null;
+        if (listed != null) {
+            return Mono.just(ResponseEntity.ok(listed));
+        }
+        EmployeeByIdCache.Entry cached = byIdCache.get(id);
+        if (cached != null) {
+            return Mono.just(cached.isMissing() ? ResponseEntity.notFound().<Employee>build() : ResponseEntity.ok(cached.getEmployee()));
+        }
+        return apiClient.getEmployee(id)
+                .map(response -> {
+                    if (response.getBody() != null && HttpStatus.OK.equals(response.getBody().getStatus())) {
+                        Employee employee = response.getBody().getEmployees().get(0);
+                        byIdCache.put(employee);
+                        return ResponseEntity.ok(employee);
+                    }
+                    log.error("Employee not found with id: {}", id);
+                    byIdCache.putMissing(id);
+                    return ResponseEntity.notFound().<Employee>build();
+                })
+                .onErrorResume(e -> {
+                    log.error("Error while fetching employees: {}", e.getMessage(), e);
+                    HttpStatus status = statusOf(e);
+                    if (status == HttpStatus.NOT_FOUND) {
+                        byIdCache.putMissing(id);
+                    }
+                    return Mono.just(ResponseEntity.status(status).build());
+                });
+    }
+
+    @Override
+    public Mono<ResponseEntity<Integer>> getHighestSalaryOfEmployees() {
+        log.info("Fetching highest salary of employees");
+        return snapshot()
+                .filter(snapshot -> !snapshot.isEmpty())
+                .map(snapshot -> ResponseEntity.ok(snapshot.getSalaryIndex().highest().orElse(0)))
+                .onErrorResume(e -> {
+                    log.error("Error while fetching employees: {}", e.getMessage(), e);
+                    return Mono.empty();
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @Override
+    public Mono<ResponseEntity<List<String>>> getTopTenHighestEarningEmployeeNames() {
+        log.info("Fetching top 10 highest earning employee names");
+        return snapshot()
+                .filter(snapshot -> !snapshot.isEmpty())
+                .map(snapshot -> ResponseEntity.ok(snapshot.getSalaryIndex().topNames(10)))
+                .onErrorResume(e -> {
+                    log.error("Error while fetching employees: {}", e.getMessage(), e);
+                    return Mono.empty();
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @Override
+    public Mono<ResponseEntity<List<Employee>>> getTopEarners(int n) {
+        if (n < 1) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        log.info("Fetching top {} highest earning employees", n);
+        return snapshot()
+                .filter(snapshot -> !snapshot.isEmpty())
+                .map(snapshot -> ResponseEntity.ok(snapshot.getSalaryIndex().top(n)))
+                .onErrorResume(e -> {
+                    log.error("Error while fetching employees: {}", e.getMessage(), e);
+                    return Mono.empty();
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @Override
+    public Mono<ResponseEntity<Employee>> createEmployee(Map<String, Object> employeeInput) {
+        EmployeeValidation.Result validation = EmployeeValidation.validate(employeeInput);
+        if (!validation.isValid()) {
+            log.info("Rejected employee input: {}", validation.getMessage());
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        log.info("Creating new employee with input: {}", employeeInput);
+        return apiClient.createEmployee(employeeInput)
+                .map(response -> {
+                    if (response.getBody() != null && HttpStatus.OK.equals(response.getBody().getStatus())) {
+                        Employee createdEmployee = response.getBody().getEmployees().get(0);
+                        log.info("Successfully created employee: {}", createdEmployee);
+                        cacheSync.created(createdEmployee);
+                        return ResponseEntity.status(HttpStatus.CREATED).body(createdEmployee);
+                    }
+                    log.error("Failed to create employee: {}", response.getBody() != null ? response.getBody().getStatus() : "Unknown error");
+                    return ResponseEntity.status(response.getStatusCode()).<Employee>build();
+                })
+                .onErrorResume(e -> {
+                    log.error("Error while creating employee: {}", e.getMessage(), e);
+                    return Mono.just(ResponseEntity.status(statusOf(e)).build());
+                });
+    }
+
+    @Override
+    public Mono<ResponseEntity<String>> deleteEmployeeById(String id) {
+        if (!EmployeeValidation.isValidId(id)) {
+            return Mono.just(ResponseEntity.badRequest().body("Invalid employee ID"));
+        }
+
+        log.info("Deleting employee with id: {}", id);
+        return apiClient.deleteEmployee(id)
+                .map(response -> {
+                    if (response.getBody() != null && HttpStatus.OK.equals(response.getBody().getStatus())) {
+                        cacheSync.deleted(id);
+                        return ResponseEntity.ok("Successfully deleted employee with id: " + id);
+                    }
+                    log.error("Failed to delete employee: {}", response.getBody() != null ? response.getBody().getStatus() : "Unknown error");
+                    return ResponseEntity.status(response.getStatusCode())
+                            .body("Failed to delete employee: " + (response.getBody() != null ? response.getBody().getStatus() : "Unknown error"));
+                })
+                .onErrorResume(e -> {
+                    log.error("Error while deleting employee: {}", e.getMessage(), e);
+                    return Mono.just(ResponseEntity.status(statusOf(e)).<String>build());
+                });
+    }
+
+    private Mono<EmployeeSnapshot> snapshot() {
+        return Mono.defer(() -> {
+            EmployeeSnapshot snapshot = snapshotCache.getIfPresent();
+            if (snapshot != null) {
+                return Mono.just(snapshot);
+            }
+            long generation = snapshotCache.generation();
+            // Building the indexes and running the snapshot listeners would otherwise hold a Netty event loop
+            return apiClient.fetchAllEmployees()
+                    .publishOn(Schedulers.boundedElastic())
+                    .map(employees -> snapshotCache.publish(employees, generation))
+                    .onErrorResume(UpstreamUnavailableException.class, e -> Mono.fromCallable(() -> snapshotCache.lastGood(e)));
+        });
+    }
+
+    private static HttpStatus statusOf(Throwable e) {
+        if (e instanceof WebClientResponseException) {
+            HttpStatus status = HttpStatus.resolve(((WebClientResponseException) e).getRawStatusCode());
+            return status != null ? status : HttpStatus.INTERNAL_SERVER_ERROR;
+        }
+        if (e instanceof HttpStatusCodeException) {
+            return ((HttpStatusCodeException) e).getStatusCode();
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.rqchallenge.employees;
+
+import com.example.rqchallenge.cache.EmployeeSnapshotCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Refuses {@link EmployeeWrite} endpoints with a 503 while the roster is
+ * {@link EmployeeSnapshotCache#isReadOnly() read-only}, i.e. restored from disk and not confirmed by
+ * upstream. Reads keep being served from the restored roster.
+ */
+@Configuration
+@Slf4j
+public class ReadOnlyMode implements WebMvcConfigurer, HandlerInterceptor {
+
+    private final EmployeeSnapshotCache snapshotCache;
+    private final Counter rejected;
+
+    public ReadOnlyMode(EmployeeSnapshotCache snapshotCache, MeterRegistry meterRegistry) {
+        this.snapshotCache = snapshotCache;
+        this.rejected = Counter.builder("employees.writes.read.only").register(meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!isEmployeeWrite(request, handler) || !snapshotCache.isReadOnly()) {
+            return true;
+        }
+        rejected.increment();
+        log.warn("Rejected {} {}: serving a restored roster while upstream is unavailable", request.getMethod(), request.getRequestURI());
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        return false;
+    }
+
+    private static boolean isEmployeeWrite(HttpServletRequest request, Object handler) {
+        // Async dispatches were let through when the request first came in
+        return request.getDispatcherType() != DispatcherType.ASYNC && handler instanceof HandlerMethod
+                && ((HandlerMethod) handler).hasMethodAnnotation(EmployeeWrite.class);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.rqchallenge.employees;
+
+import com.example.rqchallenge.dtos.EmployeeBatchResponse;
+import com.example.rqchallenge.dtos.EmployeePage;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how many items each employee endpoint returns, as {@code employees.endpoint.results}
+ * tagged with the controller method name. Latency per endpoint is already covered by the
+ * actuator's {@code http.server.requests}.
+ */
+@ControllerAdvice(assignableTypes = {EmployeeController.class, ReactiveEmployeeController.class, AsyncEmployeeController.class})
+public class ResultCardinalityMetrics implements ResponseBodyAdvice<Object> {
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public ResultCardinalityMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.getMethod() != null;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        int size = -1;
+        if (body instanceof Collection) {
+            size = ((Collection<?>) body).size();
+        } else if (body instanceof EmployeeBatchResponse && ((EmployeeBatchResponse) body).getEmployees() != null) {
+            size = ((EmployeeBatchResponse) body).getEmployees().size();
+        } else if (body instanceof EmployeePage && ((EmployeePage) body).getEmployees() != null) {
+            size = ((EmployeePage) body).getEmployees().size();
+        }
+        if (size >= 0) {
+            summaries.computeIfAbsent(returnType.getMethod(), method -> DistributionSummary.builder("employees.endpoint.results")
+                    .baseUnit("employees")
+                    .tag("endpoint", method.getName())
+                    .register(meterRegistry))
+                    .record(size);
+        }
+        return body;
+    }
+}
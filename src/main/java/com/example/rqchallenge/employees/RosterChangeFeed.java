@@ -0,0 +1,365 @@
+package com.example.rqchallenge.employees;
+
+import com.example.rqchallenge.cache.EmployeeSnapshot;
+import com.example.rqchallenge.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.dtos.Employee;
+import com.example.rqchallenge.dtos.RosterChange;
+import com.example.rqchallenge.index.CompactRoster;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent event feed of roster changes.
+ * <p>
+ * Every snapshot that becomes current is diffed once against the previous one, on the thread that
+ * published it, and the resulting {@link RosterChange} is queued to every subscriber. Subscribers
+ * hold no thread while idle: each has a bounded queue drained by a small pool of send threads, and
+ * one shared timer sends heartbeats to all of them. A subscriber whose queue
+ * fills up is disconnected and resumes from its {@code Last-Event-ID} when it reconnects.
+ * <p>
+ * Event ids are snapshot versions prefixed with an id of this feed instance, since versions restart
+ * with the process and differ between nodes. A new subscriber first receives a {@code snapshot}
+ * event with the current version, count and highest salary; one reconnecting with a recent id of
+ * this instance receives the {@code change} events it missed, and any other id gets a
+ * {@code resync} event. Each subscription ends after {@code maxConnectionAge} and the client resumes
+ * from its last event id; {@link #open} gives its emitter a timeout just past that age, so the feed
+ * leaves the application-wide async request timeout alone.
+ */
+@Component
+@Slf4j
+public class RosterChangeFeed {
+
+    static final String SNAPSHOT = "snapshot";
+    static final String CHANGE = "change";
+    static final String RESYNC = "resync";
+
+    /**
+     * Added to {@code maxConnectionAge} for the emitter timeout, so streams end themselves first.
+     */
+    private static final Duration TIMEOUT_MARGIN = Duration.ofMinutes(1);
+
+    private final ChangeFeedProperties properties;
+    private final String instance = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final Set<Sinks.Many<ServerSentEvent<RosterChange>>> subscribers = ConcurrentHashMap.newKeySet();
+    private final Deque<ServerSentEvent<RosterChange>> history = new ArrayDeque<>();
+    private final Counter changes;
+    private final Counter overflows;
+    private final Timer diffTime;
+    private final ExecutorService sendExecutor;
+    private final Scheduler sendScheduler;
+
+    private EmployeeSnapshot last;
+    private long lastEventVersion;
+    private Disposable heartbeats;
+
+    public RosterChangeFeed(EmployeeSnapshotCache snapshotCache, ChangeFeedProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.changes = Counter.builder("employees.changes.events").register(meterRegistry);
+        this.overflows = Counter.builder("employees.changes.overflows").register(meterRegistry);
+        this.diffTime = Timer.builder("employees.changes.diff")
+                .description("Time to diff a new roster snapshot against the previous one")
+                .register(meterRegistry);
+        Gauge.builder("employees.changes.subscribers", subscribers, Set::size).register(meterRegistry);
+        AtomicInteger threads = new AtomicInteger();
+        this.sendExecutor = new ThreadPoolExecutor(properties.getSendThreads(), properties.getSendThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getMaxQueuedSends()), runnable -> {
+            Thread thread = new Thread(runnable, "employee-changes-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sendScheduler = Schedulers.fromExecutorService(sendExecutor, "employee-changes");
+        synchronized (this) {
+            last = snapshotCache.peek();
+            lastEventVersion = last != null ? last.getVersion() : 0;
+        }
+        snapshotCache.addListener(this::onSnapshot);
+    }
+
+    @PostConstruct
+    public void start() {
+        heartbeats = Flux.interval(properties.getHeartbeat())
+                .subscribe(tick -> broadcast(ServerSentEvent.<RosterChange>builder().comment("heartbeat").build()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (heartbeats != null) {
+            heartbeats.dispose();
+        }
+        for (Sinks.Many<ServerSentEvent<RosterChange>> sink : subscribers) {
+            sink.tryEmitComplete();
+        }
+        sendScheduler.dispose();
+        sendExecutor.shutdownNow();
+    }
+
+    /**
+     * Returns the events for one subscriber, starting after {@code lastEventId} when it is given.
+     */
+    public Flux<ServerSentEvent<RosterChange>> subscribe(String lastEventId) {
+        return Flux.defer(() -> {
+            Sinks.Many<ServerSentEvent<RosterChange>> sink;
+            synchronized (this) {
+                // Queued and registered under the same lock as publishing, so nothing falls in between
+                List<ServerSentEvent<RosterChange>> catchUp = catchUp(lastEventId);
+                sink = Sinks.many().unicast().onBackpressureBuffer(
+                        Queues.<ServerSentEvent<RosterChange>>get(catchUp.size() + properties.getMaxPending()).get());
+                for (ServerSentEvent<RosterChange> event : catchUp) {
+                    sink.tryEmitNext(event);
+                }
+                subscribers.add(sink);
+            }
+            return sink.asFlux()
+                    .take(properties.getMaxConnectionAge())
+                    .doFinally(signal -> subscribers.remove(sink));
+        });
+    }
+
+    /**
+     * Streams {@link #subscribe} to a new {@link SseEmitter} for the {@code /changes} endpoint.
+     */
+    public SseEmitter open(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(properties.getMaxConnectionAge().plus(TIMEOUT_MARGIN).toMillis());
+        // Sends block on the connection, so they run on the feed's own bounded pool rather than on the
+        // thread publishing snapshots. Taking one event at a time leaves the backlog in the subscriber's
+        // queue, where max-pending disconnects a client too slow to read it.
+        Disposable subscription = subscribe(lastEventId)
+                .publishOn(sendScheduler, 1)
+                .subscribe(event -> send(emitter, event), emitter::completeWithError, emitter::complete);
+        emitter.onCompletion(subscription::dispose);
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(error -> subscription.dispose());
+        return emitter;
+    }
+
+    synchronized void onSnapshot(EmployeeSnapshot snapshot) {
+        EmployeeSnapshot previous = last;
+        // Reconciled snapshots keep their version, and listeners may be told about deltas out of order
+        if (previous != null && snapshot.getVersion() <= previous.getVersion()) {
+            return;
+        }
+        last = snapshot;
+        if (previous == null) {
+            lastEventVersion = snapshot.getVersion();
+            broadcast(state(SNAPSHOT, snapshot));
+            return;
+        }
+
+        RosterChange change = diffTime.record(() -> diff(previous, snapshot));
+        if (change == null) {
+            return;
+        }
+        change.setVersion(snapshot.getVersion());
+        change.setPreviousVersion(lastEventVersion);
+        lastEventVersion = snapshot.getVersion();
+
+        ServerSentEvent<RosterChange> event = ServerSentEvent.builder(change)
+                .id(eventId(change.getVersion()))
+                .event(CHANGE)
+                .build();
+        history.addLast(event);
+        while (history.size() > properties.getHistory()) {
+            history.removeFirst();
+        }
+        changes.increment();
+        broadcast(event);
+    }
+
+    private synchronized void broadcast(ServerSentEvent<RosterChange> event) {
+        for (Sinks.Many<ServerSentEvent<RosterChange>> sink : subscribers) {
+            Sinks.EmitResult result = sink.tryEmitNext(event);
+            if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+                // Too slow to keep up: end its stream once the queue drains; it resumes from its last event id
+                overflows.increment();
+                subscribers.remove(sink);
+                sink.tryEmitComplete();
+                log.warn("Disconnected a roster change subscriber that fell {} events behind", properties.getMaxPending());
+            } else if (result == Sinks.EmitResult.FAIL_CANCELLED || result == Sinks.EmitResult.FAIL_TERMINATED) {
+                subscribers.remove(sink);
+            }
+        }
+    }
+
+    private List<ServerSentEvent<RosterChange>> catchUp(String lastEventId) {
+        if (last == null) {
+            // Nothing loaded yet; the first snapshot is sent as it arrives
+            return Collections.emptyList();
+        }
+        if (lastEventId == null) {
+            return Collections.singletonList(state(SNAPSHOT, last));
+        }
+        String prefix = instance + "-";
+        long since;
+        try {
+            // Ids of another instance or an earlier run name versions this feed never had
+            if (!lastEventId.trim().startsWith(prefix)) {
+                return Collections.singletonList(state(RESYNC, last));
+            }
+            since = Long.parseLong(lastEventId.trim().substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return Collections.singletonList(state(RESYNC, last));
+        }
+        if (since == lastEventVersion) {
+            return Collections.emptyList();
+        }
+        List<ServerSentEvent<RosterChange>> missed = new ArrayList<>();
+        for (ServerSentEvent<RosterChange> event : history) {
+            if (!missed.isEmpty() || event.data().getPreviousVersion() == since) {
+                missed.add(event);
+            }
+        }
+        return !missed.isEmpty() ? missed : Collections.singletonList(state(RESYNC, last));
+    }
+
+    private ServerSentEvent<RosterChange> state(String type, EmployeeSnapshot snapshot) {
+        OptionalInt highest = snapshot.getSalaryIndex().highest();
+        RosterChange state = RosterChange.builder()
+                .version(lastEventVersion)
+                .count(snapshot.getRoster().size())
+                .highestSalary(highest.isPresent() ? highest.getAsInt() : null)
+                .build();
+        return ServerSentEvent.builder(state).id(eventId(lastEventVersion)).event(type).build();
+    }
+
+    private static void send(SseEmitter emitter, ServerSentEvent<RosterChange> event) {
+        SseEmitter.SseEventBuilder builder = SseEmitter.event();
+        if (event.id() != null) {
+            builder.id(event.id());
+        }
+        if (event.event() != null) {
+            builder.name(event.event());
+        }
+        if (event.comment() != null) {
+            builder.comment(event.comment());
+        }
+        if (event.data() != null) {
+            builder.data(event.data(), MediaType.APPLICATION_JSON);
+        }
+        try {
+            emitter.send(builder);
+        } catch (IOException e) {
+            // The client went away; failing the subscriber cancels it
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String eventId(long version) {
+        return instance + "-" + version;
+    }
+
+    /**
+     * Employees added, removed and changed between two snapshots, keyed by id, or {@code null} when
+     * the rosters hold the same employees. Snapshots derived from one another by deltas are
+     * compared on their deltas alone.
+     */
+    static RosterChange diff(EmployeeSnapshot before, EmployeeSnapshot after) {
+        CompactRoster from = before.getRoster();
+        CompactRoster to = after.getRoster();
+        if (before.getContentHash() == after.getContentHash() && from.size() == to.size()) {
+            return null;
+        }
+
+        Map<String, Employee> gone = new LinkedHashMap<>();
+        Map<String, Employee> fresh = new LinkedHashMap<>();
+        if (to.sharesColumnsWith(from) && to.positions() >= from.positions()) {
+            for (int position : to.removedPositions()) {
+                if (from.isLive(position)) {
+                    putById(gone, from.employee(position));
+                }
+            }
+            for (int position = from.positions(); position < to.positions(); position++) {
+                if (to.isLive(position)) {
+                    putById(fresh, to.employee(position));
+                }
+            }
+        } else {
+            for (int position = 0; position < from.positions(); position++) {
+                if (from.isLive(position)) {
+                    Employee employee = from.employee(position);
+                    int found = employee.getId() != null ? to.positionOf(employee.getId()) : -1;
+                    Employee now = found >= 0 ? to.employee(found) : null;
+                    if (!employee.equals(now)) {
+                        putById(gone, employee);
+                        if (now != null) {
+                            fresh.put(now.getId(), now);
+                        }
+                    }
+                }
+            }
+            for (int position = 0; position < to.positions(); position++) {
+                if (to.isLive(position)) {
+                    Employee employee = to.employee(position);
+                    if (employee.getId() != null && from.positionOf(employee.getId()) < 0) {
+                        fresh.put(employee.getId(), employee);
+                    }
+                }
+            }
+        }
+
+        List<Employee> added = new ArrayList<>();
+        List<Employee> changed = new ArrayList<>();
+        for (Employee employee : fresh.values()) {
+            Employee old = gone.remove(employee.getId());
+            if (old == null) {
+                added.add(employee);
+            } else if (!old.equals(employee)) {
+                changed.add(employee);
+            }
+        }
+        List<String> removed = new ArrayList<>(gone.keySet());
+        if (added.isEmpty() && removed.isEmpty() && changed.isEmpty()) {
+            return null;
+        }
+
+        OptionalInt highest = after.getSalaryIndex().highest();
+        return RosterChange.builder()
+                .count(to.size())
+                .added(added.isEmpty() ? null : added)
+                .removed(removed.isEmpty() ? null : removed)
+                .changed(changed.isEmpty() ? null : changed)
+                .highestSalary(highest.isPresent() && !highest.equals(before.getSalaryIndex().highest())
+                        ? highest.getAsInt() : null)
+                .build();
+    }
+
+    private static void putById(Map<String, Employee> employees, Employee employee) {
+        if (employee.getId() != null) {
+            employees.put(employee.getId(), employee);
+        }
+    }
+}
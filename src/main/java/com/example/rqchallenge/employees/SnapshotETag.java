@@ -0,0 +1,17 @@
+package com.example.rqchallenge.employees;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read endpoint whose response is derived entirely from the employee snapshot and its
+ * request URI, so {@link SnapshotETags} can validate it without running the endpoint.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SnapshotETag {
+}
@@ -0,0 +1,154 @@
+package com.example.rqchallenge.employees;
+
+import com.example.rqchallenge.cache.EmployeeSnapshot;
+import com.example.rqchallenge.cache.EmployeeSnapshotCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Locale;
+
+/**
+ * Strong ETags and {@code Cache-Control} for the {@link SnapshotETag} endpoints.
+ * <p>
+ * The ETag is a hash of the snapshot's {@link EmployeeSnapshot#representationHash()} and the
+ * request URI, so it is computed without running the endpoint. As an interceptor, a GET whose
+ * {@code If-None-Match} matches is answered with a 304 before the handler runs or anything is
+ * serialized. As a body advice, the ETag is attached to a 200 only if the snapshot it was computed
+ * from is still current, so a refresh racing the request never labels new content with an old tag.
+ * <p>
+ * When response compression is on, clients accepting gzip get a distinct ETag, since the bytes
+ * they receive differ from the identity encoding.
+ */
+@ControllerAdvice(assignableTypes = {EmployeeController.class, AsyncEmployeeController.class})
+public class SnapshotETags implements HandlerInterceptor, ResponseBodyAdvice<Object> {
+
+    private static final String ETAG_ATTRIBUTE = SnapshotETags.class.getName() + ".etag";
+    private static final String VERSION_ATTRIBUTE = SnapshotETags.class.getName() + ".version";
+
+    private final EmployeeSnapshotCache snapshotCache;
+    private final CacheControl cacheControl;
+    private final boolean compression;
+    private final Counter notModified;
+
+    public SnapshotETags(EmployeeSnapshotCache snapshotCache, HttpCacheProperties properties,
+                         ServerProperties serverProperties, MeterRegistry meterRegistry) {
+        this.snapshotCache = snapshotCache;
+        this.cacheControl = properties.getMaxAge().isZero()
+                ? CacheControl.noCache()
+                : CacheControl.maxAge(properties.getMaxAge()).mustRevalidate();
+        this.compression = serverProperties.getCompression().getEnabled();
+        this.notModified = Counter.builder("employees.http.not.modified").register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod) || !((HandlerMethod) handler).hasMethodAnnotation(SnapshotETag.class)
+                || !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()))) {
+            return true;
+        }
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            // Already checked when the request first came in; keep the version the handler started from
+            return true;
+        }
+        EmployeeSnapshot snapshot = snapshotCache.peek();
+        if (snapshot == null) {
+            // Nothing loaded yet: the endpoint loads it and the response goes out without an ETag
+            return true;
+        }
+        String etag = etagFor(snapshot, request);
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            notModified.increment();
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+            return false;
+        }
+        request.setAttribute(ETAG_ATTRIBUTE, etag);
+        request.setAttribute(VERSION_ATTRIBUTE, snapshot.getVersion());
+        return true;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.hasMethodAnnotation(SnapshotETag.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest) || !(response instanceof ServletServerHttpResponse)) {
+            return body;
+        }
+        HttpServletRequest servletRequest = ((ServletServerHttpRequest) request).getServletRequest();
+        Object etag = servletRequest.getAttribute(ETAG_ATTRIBUTE);
+        Object version = servletRequest.getAttribute(VERSION_ATTRIBUTE);
+        EmployeeSnapshot snapshot = snapshotCache.peek();
+        if (etag != null && snapshot != null && version.equals(snapshot.getVersion())
+                && ((ServletServerHttpResponse) response).getServletResponse().getStatus() == HttpStatus.OK.value()) {
+            response.getHeaders().setETag((String) etag);
+            response.getHeaders().setCacheControl(cacheControl);
+        }
+        return body;
+    }
+
+    String etagFor(EmployeeSnapshot snapshot, HttpServletRequest request) {
+        long h = snapshot.representationHash();
+        h = h * 31 + request.getRequestURI().hashCode();
+        h = h * 31 + (request.getQueryString() != null ? request.getQueryString().hashCode() : 0);
+        // Finalizer from SplitMix64, so neighbouring URIs do not get neighbouring tags
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        h = h ^ (h >>> 31);
+        return "\"" + Long.toHexString(h) + (compression && acceptsGzip(request) ? "-gzip" : "") + "\"";
+    }
+
+    static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.split(";");
+            if ("gzip".equals(parts[0].trim())) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        // If-None-Match uses the weak comparison, so a W/ prefix added by an intermediary still matches
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if ("*".equals(tag) || etag.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.rqchallenge.employees;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Arrays;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "employees.stats")
+public class StatsProperties {
+
+    /**
+     * Width of the salary histogram buckets.
+     */
+    private int salaryBucketWidth = 10000;
+
+    /**
+     * Lower bounds of the age bands after the first; the first band holds everyone younger.
+     */
+    private List<Integer> ageBands = Arrays.asList(25, 35, 45, 55, 65);
+
+    /**
+     * Percentiles reported for salary and age, as fractions.
+     */
+    private List<Double> percentiles = Arrays.asList(0.5, 0.9, 0.99);
+
+    /**
+     * Roster positions summed by one fork-join task; larger rosters are split and summed in parallel.
+     */
+    private int chunkSize = 16384;
+}
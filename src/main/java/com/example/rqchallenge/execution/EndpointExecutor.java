@@ -0,0 +1,191 @@
+package com.example.rqchallenge.execution;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs controller work off the request thread, with a concurrency limit and a bounded wait
+ * queue per endpoint. Tasks over the limit of their endpoint wait in that endpoint's queue so a
+ * slow endpoint cannot take over the shared executor; tasks beyond the queue are rejected.
+ */
+@Slf4j
+public class EndpointExecutor {
+
+    private final ExecutorService executor;
+    private final ExecutionProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    public EndpointExecutor(ExecutionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        ExecutorService virtualThreads = properties.isVirtualThreads() ? newVirtualThreadPerTaskExecutor() : null;
+        if (virtualThreads != null) {
+            log.info("Running async endpoints on virtual threads");
+            this.executor = virtualThreads;
+        } else {
+            log.info("Running async endpoints on a pool of {} platform threads", properties.getPoolSize());
+            this.executor = newBoundedPool(properties, meterRegistry);
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(String endpoint, Supplier<T> work) {
+        Task<T> task = new Task<>(work);
+        lanes.computeIfAbsent(endpoint, this::newLane).submit(task);
+        return task.result;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private Lane newLane(String endpoint) {
+        return new Lane(endpoint, properties.limitsFor(endpoint), meterRegistry);
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        // Looked up reflectively so the build keeps targeting Java 11
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService newBoundedPool(ExecutionProperties properties, MeterRegistry meterRegistry) {
+        AtomicInteger threads = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(properties.getPoolSize(), properties.getPoolSize(),
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "employee-async-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Gauge.builder("employees.executor.pool.queued", pool, executor -> executor.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("employees.executor.pool.active", pool, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        return pool;
+    }
+
+    private static final class Task<T> {
+        private final Supplier<T> work;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final long enqueuedAt = System.nanoTime();
+
+        Task(Supplier<T> work) {
+            this.work = work;
+        }
+
+        void run() {
+            try {
+                result.complete(work.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private final class Lane {
+        private final String endpoint;
+        private final ExecutionProperties.Limits limits;
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final Queue<Task<?>> queue = new ConcurrentLinkedQueue<>();
+        private final Counter rejected;
+        private final Timer queueWait;
+
+        Lane(String endpoint, ExecutionProperties.Limits limits, MeterRegistry meterRegistry) {
+            this.endpoint = endpoint;
+            this.limits = limits;
+            Gauge.builder("employees.executor.active", active, AtomicInteger::get)
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+            Gauge.builder("employees.executor.queued", queued, AtomicInteger::get)
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("employees.executor.rejected")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+            this.queueWait = Timer.builder("employees.executor.queue.wait")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+        }
+
+        void submit(Task<?> task) {
+            if (tryAcquire()) {
+                dispatch(task);
+                return;
+            }
+            if (queued.incrementAndGet() > limits.getMaxQueued()) {
+                queued.decrementAndGet();
+                rejected.increment();
+                task.result.completeExceptionally(new RejectedExecutionException("Too many pending requests for " + endpoint));
+                return;
+            }
+            queue.add(task);
+            // A slot may have been released between tryAcquire and add
+            drain();
+        }
+
+        private boolean tryAcquire() {
+            while (true) {
+                int current = active.get();
+                if (current >= limits.getMaxConcurrency()) {
+                    return false;
+                }
+                if (active.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private void drain() {
+            while (!queue.isEmpty() && tryAcquire()) {
+                Task<?> next = queue.poll();
+                if (next == null) {
+                    active.decrementAndGet();
+                    return;
+                }
+                queued.decrementAndGet();
+                dispatch(next);
+            }
+        }
+
+        private void dispatch(Task<?> task) {
+            queueWait.record(System.nanoTime() - task.enqueuedAt, TimeUnit.NANOSECONDS);
+            try {
+                executor.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        active.decrementAndGet();
+                        drain();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                active.decrementAndGet();
+                rejected.increment();
+                task.result.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.rqchallenge.execution;
+
+public enum ExecutionMode {
+    /**
+     * Controller methods run on the servlet request thread.
+     */
+    BLOCKING,
+    /**
+     * Controller methods hand their work to the {@link EndpointExecutor} and release the request thread.
+     */
+    ASYNC
+}
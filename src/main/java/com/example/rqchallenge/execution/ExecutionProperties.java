@@ -0,0 +1,52 @@
+package com.example.rqchallenge.execution;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "employees.execution")
+public class ExecutionProperties {
+
+    private ExecutionMode mode = ExecutionMode.BLOCKING;
+
+    /**
+     * Run each task on its own virtual thread when the JDK supports it. Otherwise a fixed
+     * platform thread pool of {@code poolSize} threads and {@code queueCapacity} slots is used.
+     */
+    private boolean virtualThreads = true;
+
+    private int poolSize = 64;
+
+    private int queueCapacity = 1000;
+
+    /**
+     * Limits applied to every endpoint without an entry in {@code endpoints}.
+     */
+    private Limits defaults = new Limits();
+
+    /**
+     * Per-endpoint overrides, keyed by controller method name (e.g. {@code getAllEmployees}).
+     */
+    private Map<String, Limits> endpoints = new HashMap<>();
+
+    public Limits limitsFor(String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaults);
+    }
+
+    @Data
+    public static class Limits {
+
+        /**
+         * Tasks of one endpoint allowed to run at the same time.
+         */
+        private int maxConcurrency = 32;
+
+        /**
+         * Tasks of one endpoint allowed to wait for a slot before new ones are rejected.
+         */
+        private int maxQueued = 100;
+    }
+}
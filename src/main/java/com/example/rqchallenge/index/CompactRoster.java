@@ -0,0 +1,431 @@
+package com.example.rqchallenge.index;
+
+import com.example.rqchallenge.dtos.Employee;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Column-oriented, primitive-typed copy of a roster.
+ * <p>
+ * Ids, salaries and ages are parsed once at ingest and kept in {@code int[]} columns; names and
+ * profile images are dictionary-encoded so repeated values are stored once. {@link Employee}
+ * objects are only materialized when a caller asks for one, with exactly the strings upstream sent:
+ * the rare record whose numbers do not round-trip through an {@code int} (leading zeros, blanks,
+ * overflow) is kept as-is on the side.
+ * <p>
+ * A roster can also carry a small delta on top of its columns: employees appended after the last
+ * column position and positions removed since the columns were built. Positions stay stable across
+ * deltas, so indexes built over the columns remain valid and only need to learn about the delta.
+ */
+public final class CompactRoster {
+
+    private static final int NO_VALUE = -1;
+    private static final int[] NO_POSITIONS = new int[0];
+    private static final Employee[] NO_EMPLOYEES = new Employee[0];
+
+    private final int baseSize;
+    private final int[] ids;
+    private final int[] salaries;
+    private final int[] ages;
+    private final BitSet salaryPresent;
+    private final BitSet agePresent;
+    private final int[] nameRefs;
+    private final int[] imageRefs;
+    private final String[] dictionary;
+    private final Map<Integer, Employee> originals;
+    private final int[] positionsById;
+    private final Map<String, Integer> irregularIds;
+    private final Employee[] appended;
+    private final Map<String, Integer> appendedIds;
+    private final int[] removed;
+    private final List<Employee> view = new EmployeeView();
+
+    private CompactRoster(int baseSize, int[] ids, int[] salaries, int[] ages, BitSet salaryPresent, BitSet agePresent, int[] nameRefs,
+                          int[] imageRefs, String[] dictionary, Map<Integer, Employee> originals,
+                          int[] positionsById, Map<String, Integer> irregularIds,
+                          Employee[] appended, Map<String, Integer> appendedIds, int[] removed) {
+        this.baseSize = baseSize;
+        this.ids = ids;
+        this.salaries = salaries;
+        this.ages = ages;
+        this.salaryPresent = salaryPresent;
+        this.agePresent = agePresent;
+        this.nameRefs = nameRefs;
+        this.imageRefs = imageRefs;
+        this.dictionary = dictionary;
+        this.originals = originals;
+        this.positionsById = positionsById;
+        this.irregularIds = irregularIds;
+        this.appended = appended;
+        this.appendedIds = appendedIds;
+        this.removed = removed;
+    }
+
+    public static CompactRoster of(List<Employee> employees) {
+        int size = employees.size();
+        int[] ids = new int[size];
+        int[] salaries = new int[size];
+        int[] ages = new int[size];
+        BitSet salaryPresent = new BitSet(size);
+        BitSet agePresent = new BitSet(size);
+        int[] nameRefs = new int[size];
+        int[] imageRefs = new int[size];
+        Map<String, Integer> dictionaryIndex = new HashMap<>();
+        Map<Integer, Employee> originals = new HashMap<>();
+        Map<String, Integer> irregularIds = new HashMap<>();
+        long[] idKeys = new long[size];
+        int canonicalIds = 0;
+
+        for (int position = 0; position < size; position++) {
+            Employee employee = employees.get(position);
+            boolean exact = true;
+
+            Integer id = parse(employee.getId());
+            if (id != null && isCanonical(id, employee.getId())) {
+                ids[position] = id;
+                idKeys[canonicalIds++] = ((long) id << 32) | position;
+            } else {
+                exact = false;
+                if (employee.getId() != null) {
+                    irregularIds.putIfAbsent(employee.getId(), position);
+                }
+            }
+
+            Integer salary = parse(employee.getEmployeeSalary());
+            if (salary != null) {
+                salaries[position] = salary;
+                salaryPresent.set(position);
+            }
+            exact &= salary != null && isCanonical(salary, employee.getEmployeeSalary());
+
+            Integer age = parse(employee.getEmployeeAge());
+            if (age != null) {
+                ages[position] = age;
+                agePresent.set(position);
+            }
+            exact &= age != null && isCanonical(age, employee.getEmployeeAge());
+
+            nameRefs[position] = encode(employee.getEmployeeName(), dictionaryIndex);
+            imageRefs[position] = encode(employee.getProfileImage(), dictionaryIndex);
+            if (!exact) {
+                originals.put(position, employee);
+            }
+        }
+
+        String[] dictionary = new String[dictionaryIndex.size()];
+        dictionaryIndex.forEach((value, ref) -> dictionary[ref] = value);
+
+        Arrays.sort(idKeys, 0, canonicalIds);
+        int[] positionsById = new int[canonicalIds];
+        for (int i = 0; i < canonicalIds; i++) {
+            positionsById[i] = (int) idKeys[i];
+        }
+
+        return new CompactRoster(size, ids, salaries, ages, salaryPresent, agePresent, nameRefs, imageRefs, dictionary,
+                originals.isEmpty() ? Collections.emptyMap() : originals, positionsById,
+                irregularIds.isEmpty() ? Collections.emptyMap() : irregularIds,
+                NO_EMPLOYEES, Collections.emptyMap(), NO_POSITIONS);
+    }
+
+    /**
+     * Number of live employees.
+     */
+    public int size() {
+        return baseSize + appended.length - removed.length;
+    }
+
+    /**
+     * Upper bound of the positions in use, including removed ones.
+     */
+    public int positions() {
+        return baseSize + appended.length;
+    }
+
+    public boolean isLive(int position) {
+        return position >= 0 && position < positions() && (removed.length == 0 || Arrays.binarySearch(removed, position) < 0);
+    }
+
+    /**
+     * Returns the position of the {@code index}-th live employee in roster order.
+     */
+    public int positionAt(int index) {
+        // The answer skips every removed position up to and including itself; removed[k] - k is
+        // the number of live positions before removed[k], so count the k with removed[k] - k <= index
+        int low = 0;
+        int high = removed.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (removed[mid] - mid <= index) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return index + low;
+    }
+
+    /**
+     * Number of live employees at positions before {@code position}; the inverse of {@link #positionAt}.
+     */
+    public int liveBefore(int position) {
+        int index = Arrays.binarySearch(removed, position);
+        return position - (index >= 0 ? index : -index - 1);
+    }
+
+    /**
+     * Number of positions held in the columns; appended positions follow them.
+     */
+    public int columnSize() {
+        return baseSize;
+    }
+
+    /**
+     * Dictionary id of the name at column {@code position}, or {@code -1} when it has none. Equal
+     * names share an id, so derived data can be kept once per distinct name.
+     */
+    public int nameRef(int position) {
+        return nameRefs[position];
+    }
+
+    /**
+     * Upper bound of the dictionary ids returned by {@link #nameRef}.
+     */
+    public int dictionarySize() {
+        return dictionary.length;
+    }
+
+    public String dictionaryValue(int ref) {
+        return dictionary[ref];
+    }
+
+    /**
+     * Number of appended and removed positions carried on top of the columns.
+     */
+    public int deltaSize() {
+        return appended.length + removed.length;
+    }
+
+    /**
+     * Whether {@code other} is built on the same columns as this roster, so the two differ only in
+     * their appended and removed positions.
+     */
+    public boolean sharesColumnsWith(CompactRoster other) {
+        return ids == other.ids;
+    }
+
+    /**
+     * Positions no longer live, in ascending order.
+     */
+    public int[] removedPositions() {
+        return removed.clone();
+    }
+
+    public boolean hasSalary(int position) {
+        if (position >= baseSize) {
+            return parse(appended[position - baseSize].getEmployeeSalary()) != null;
+        }
+        return salaryPresent.get(position);
+    }
+
+    public int salary(int position) {
+        if (position >= baseSize) {
+            Integer salary = parse(appended[position - baseSize].getEmployeeSalary());
+            return salary != null ? salary : 0;
+        }
+        return salaries[position];
+    }
+
+    public boolean hasAge(int position) {
+        if (position >= baseSize) {
+            return parse(appended[position - baseSize].getEmployeeAge()) != null;
+        }
+        return agePresent.get(position);
+    }
+
+    public int age(int position) {
+        if (position >= baseSize) {
+            Integer age = parse(appended[position - baseSize].getEmployeeAge());
+            return age != null ? age : 0;
+        }
+        return ages[position];
+    }
+
+    public String name(int position) {
+        if (position >= baseSize) {
+            return appended[position - baseSize].getEmployeeName();
+        }
+        return decode(nameRefs[position]);
+    }
+
+    public Employee employee(int position) {
+        if (position >= baseSize) {
+            return appended[position - baseSize];
+        }
+        Employee original = originals.get(position);
+        if (original != null) {
+            return original;
+        }
+        return Employee.builder()
+                .id(Integer.toString(ids[position]))
+                .employeeName(decode(nameRefs[position]))
+                .employeeSalary(Integer.toString(salaries[position]))
+                .employeeAge(Integer.toString(ages[position]))
+                .profileImage(decode(imageRefs[position]))
+                .build();
+    }
+
+    /**
+     * Returns the roster position of the first live employee with {@code id}, or {@code -1}.
+     */
+    public int positionOf(String id) {
+        Integer added = appendedIds.get(id);
+        if (added != null) {
+            return added;
+        }
+        int position = columnPositionOf(id);
+        return position >= 0 && isLive(position) ? position : NO_VALUE;
+    }
+
+    /**
+     * Returns a roster with {@code employee} at a new position after all existing ones. The
+     * columns are shared with this roster.
+     */
+    public CompactRoster withAppended(Employee employee) {
+        Employee[] nextAppended = Arrays.copyOf(appended, appended.length + 1);
+        nextAppended[appended.length] = employee;
+        Map<String, Integer> nextIds = new HashMap<>(appendedIds);
+        if (employee.getId() != null) {
+            nextIds.put(employee.getId(), positions());
+        }
+        return withDelta(nextAppended, nextIds, removed);
+    }
+
+    /**
+     * Returns a roster in which {@code position} is no longer live. The columns are shared with
+     * this roster.
+     */
+    public CompactRoster withRemoved(int position) {
+        int index = Arrays.binarySearch(removed, position);
+        if (index >= 0 || position < 0 || position >= positions()) {
+            return this;
+        }
+        int insertAt = -index - 1;
+        int[] nextRemoved = new int[removed.length + 1];
+        System.arraycopy(removed, 0, nextRemoved, 0, insertAt);
+        nextRemoved[insertAt] = position;
+        System.arraycopy(removed, insertAt, nextRemoved, insertAt + 1, removed.length - insertAt);
+
+        Map<String, Integer> nextIds = appendedIds;
+        if (position >= baseSize) {
+            String id = appended[position - baseSize].getId();
+            if (id != null && Integer.valueOf(position).equals(appendedIds.get(id))) {
+                nextIds = new HashMap<>(appendedIds);
+                nextIds.remove(id);
+            }
+        }
+        return withDelta(appended, nextIds, nextRemoved);
+    }
+
+    private CompactRoster withDelta(Employee[] appended, Map<String, Integer> appendedIds, int[] removed) {
+        return new CompactRoster(baseSize, ids, salaries, ages, salaryPresent, agePresent, nameRefs, imageRefs, dictionary,
+                originals, positionsById, irregularIds, appended, appendedIds, removed);
+    }
+
+    private int columnPositionOf(String id) {
+        Integer parsed = parse(id);
+        if (parsed == null || !isCanonical(parsed, id)) {
+            return irregularIds.getOrDefault(id, NO_VALUE);
+        }
+        int low = 0;
+        int high = positionsById.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ids[positionsById[mid]] < parsed) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < positionsById.length && ids[positionsById[low]] == parsed ? positionsById[low] : NO_VALUE;
+    }
+
+    /**
+     * Read-only list view that materializes each {@link Employee} on access.
+     */
+    public List<Employee> asList() {
+        return view;
+    }
+
+    /**
+     * Whether {@code type} is the class of the {@link #asList()} views.
+     */
+    public static boolean isView(Class<?> type) {
+        return EmployeeView.class.isAssignableFrom(type);
+    }
+
+    /**
+     * Approximate heap retained by this roster, for the footprint gauge.
+     */
+    public long estimatedBytes() {
+        long bytes = 6L * 16 + 6L * 4 * baseSize + baseSize / 8 + 16 + 4L * positionsById.length;
+        for (String value : dictionary) {
+            bytes += 24 + 16 + value.length();
+        }
+        bytes += 4L * removed.length + 96L * appended.length;
+        return bytes + 64L * (originals.size() + irregularIds.size());
+    }
+
+    private String decode(int ref) {
+        return ref == NO_VALUE ? null : dictionary[ref];
+    }
+
+    private static int encode(String value, Map<String, Integer> dictionaryIndex) {
+        if (value == null) {
+            return NO_VALUE;
+        }
+        Integer ref = dictionaryIndex.get(value);
+        if (ref == null) {
+            ref = dictionaryIndex.size();
+            dictionaryIndex.put(value, ref);
+        }
+        return ref;
+    }
+
+    private static Integer parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean isCanonical(int parsed, String value) {
+        return Integer.toString(parsed).equals(value);
+    }
+
+    private final class EmployeeView extends AbstractList<Employee> implements RandomAccess {
+
+        @Override
+        public Employee get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            return employee(positionAt(index));
+        }
+
+        @Override
+        public int size() {
+            return CompactRoster.this.size();
+        }
+    }
+}
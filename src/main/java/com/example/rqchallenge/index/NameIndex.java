@@ -0,0 +1,429 @@
+package com.example.rqchallenge.index;
+
+import com.example.rqchallenge.dtos.Employee;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Trigram index over the normalized employee names of a roster.
+ * <p>
+ * Names are lower-cased and accent-folded once at build time, once per distinct name: the
+ * normalized forms are kept by the roster's dictionary id, not by position. A substring query only
+ * verifies the employees listed under its rarest trigram; queries shorter than a trigram fall back
+ * to a scan of the pre-normalized names. Prefix queries binary-search a name-ordered permutation.
+ * Postings and the permutation are primitive arrays.
+ * <p>
+ * Employees appended to the roster after the build are normalized on arrival and scanned
+ * alongside; removed employees are skipped on read.
+ */
+public final class NameIndex {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final int[] NO_POSTINGS = new int[0];
+    private static final String[] NO_NAMES = new String[0];
+
+    private final CompactRoster roster;
+    private final int columns;
+    private final String[] lowered;
+    private final String[] folded;
+    private final Postings postings;
+    private final int[] byFoldedName;
+    private final int[] addedPositions;
+    private final String[] addedLowered;
+    private final String[] addedFolded;
+
+    private NameIndex(CompactRoster roster, int columns, String[] lowered, String[] folded, Postings postings, int[] byFoldedName,
+                      int[] addedPositions, String[] addedLowered, String[] addedFolded) {
+        this.roster = roster;
+        this.columns = columns;
+        this.lowered = lowered;
+        this.folded = folded;
+        this.postings = postings;
+        this.byFoldedName = byFoldedName;
+        this.addedPositions = addedPositions;
+        this.addedLowered = addedLowered;
+        this.addedFolded = addedFolded;
+    }
+
+    public static NameIndex build(CompactRoster roster) {
+        return build(roster, null);
+    }
+
+    /**
+     * Builds the index for {@code roster}, reusing the normalized names of {@code previous}
+     * wherever the employee at the same roster position still has the same name.
+     */
+    public static NameIndex build(CompactRoster roster, NameIndex previous) {
+        int columns = roster.columnSize();
+        String[] lowered = new String[roster.dictionarySize()];
+        String[] folded = new String[roster.dictionarySize()];
+        Postings postings = new Postings();
+
+        for (int position = 0; position < columns; position++) {
+            int ref = roster.nameRef(position);
+            if (ref < 0) {
+                continue;
+            }
+            if (lowered[ref] == null) {
+                String name = roster.dictionaryValue(ref);
+                int previousRef = previous != null && position < previous.columns ? previous.roster.nameRef(position) : -1;
+                if (previousRef >= 0 && name.equals(previous.roster.dictionaryValue(previousRef))) {
+                    lowered[ref] = previous.lowered[previousRef];
+                    folded[ref] = previous.folded[previousRef];
+                } else {
+                    lowered[ref] = name.toLowerCase(Locale.ROOT);
+                    folded[ref] = fold(lowered[ref]);
+                }
+            }
+            String text = folded[ref];
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                postings.add(trigram(text, i), position);
+            }
+        }
+        postings.trim();
+
+        // Ordered by the rank of each name among the distinct ones, then by position
+        int[] rank = ranks(folded);
+        long[] keys = new long[columns];
+        for (int position = 0; position < columns; position++) {
+            int ref = roster.nameRef(position);
+            keys[position] = ((long) (ref < 0 ? -1 : rank[ref]) << 32) | position;
+        }
+        Arrays.sort(keys);
+        int[] byFoldedName = new int[columns];
+        for (int i = 0; i < columns; i++) {
+            byFoldedName[i] = (int) keys[i];
+        }
+
+        NameIndex index = new NameIndex(roster, columns, lowered, folded, postings, byFoldedName, NO_POSTINGS, NO_NAMES, NO_NAMES);
+        for (int position = columns; position < roster.positions(); position++) {
+            index = index.withAppended(roster, position);
+        }
+        return index;
+    }
+
+    /**
+     * Returns this index over {@code roster}, which must be this index's roster with
+     * {@code position} appended.
+     */
+    public NameIndex withAppended(CompactRoster roster, int position) {
+        String name = roster.name(position);
+        String loweredName = name != null ? name.toLowerCase(Locale.ROOT) : "";
+        int count = addedPositions.length;
+        int[] positions = Arrays.copyOf(addedPositions, count + 1);
+        String[] nextLowered = Arrays.copyOf(addedLowered, count + 1);
+        String[] nextFolded = Arrays.copyOf(addedFolded, count + 1);
+        positions[count] = position;
+        nextLowered[count] = loweredName;
+        nextFolded[count] = fold(loweredName);
+        return new NameIndex(roster, columns, lowered, folded, postings, byFoldedName, positions, nextLowered, nextFolded);
+    }
+
+    /**
+     * Returns this index over {@code roster}, which must be this index's roster with some
+     * positions removed.
+     */
+    public NameIndex withRoster(CompactRoster roster) {
+        return new NameIndex(roster, columns, lowered, folded, postings, byFoldedName, addedPositions, addedLowered, addedFolded);
+    }
+
+    /**
+     * Returns at most {@code limit} employees whose name matches {@code query}. Substring matches
+     * come back in roster order, prefix matches in name order.
+     */
+    public List<Employee> search(String query, NameMatch match, boolean ignoreAccents, int limit) {
+        int[] positions = searchPositions(query, match, ignoreAccents, limit);
+        List<Employee> results = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            results.add(roster.employee(position));
+        }
+        return results;
+    }
+
+    /**
+     * Like {@link #search}, but returns the roster positions of the matches.
+     */
+    public int[] searchPositions(String query, NameMatch match, boolean ignoreAccents, int limit) {
+        if (query == null || query.isEmpty() || limit <= 0) {
+            return NO_POSTINGS;
+        }
+        String loweredQuery = query.toLowerCase(Locale.ROOT);
+        String foldedQuery = fold(loweredQuery);
+        return match == NameMatch.PREFIX
+                ? prefixSearch(loweredQuery, foldedQuery, ignoreAccents, limit)
+                : containsSearch(loweredQuery, foldedQuery, ignoreAccents, limit);
+    }
+
+    /**
+     * Approximate heap retained by this index, for the footprint gauge.
+     */
+    public long estimatedBytes() {
+        long bytes = 2L * (16 + 4L * lowered.length) + 4L * byFoldedName.length + postings.estimatedBytes();
+        for (int ref = 0; ref < lowered.length; ref++) {
+            if (lowered[ref] != null) {
+                bytes += 40 + lowered[ref].length();
+                if (folded[ref] != lowered[ref]) {
+                    bytes += 40 + folded[ref].length();
+                }
+            }
+        }
+        return bytes + 100L * addedPositions.length;
+    }
+
+    private int[] containsSearch(String loweredQuery, String foldedQuery, boolean ignoreAccents, int limit) {
+        IntList results = new IntList();
+        if (foldedQuery.length() < 3) {
+            for (int position = 0; position < columns && results.size < limit; position++) {
+                if (matchesContains(position, loweredQuery, foldedQuery, ignoreAccents) && roster.isLive(position)) {
+                    results.add(position);
+                }
+            }
+        } else {
+            int[] candidates = null;
+            for (int i = 0; i + 3 <= foldedQuery.length(); i++) {
+                int[] list = postings.get(trigram(foldedQuery, i));
+                if (candidates == null || list.length < candidates.length) {
+                    candidates = list;
+                }
+            }
+            for (int i = 0; i < candidates.length && results.size < limit; i++) {
+                if (matchesContains(candidates[i], loweredQuery, foldedQuery, ignoreAccents) && roster.isLive(candidates[i])) {
+                    results.add(candidates[i]);
+                }
+            }
+        }
+
+        // Appended employees come after every built position in roster order
+        for (int i = 0; i < addedPositions.length && results.size < limit; i++) {
+            String text = ignoreAccents ? addedFolded[i] : addedLowered[i];
+            if (text.contains(ignoreAccents ? foldedQuery : loweredQuery) && roster.isLive(addedPositions[i])) {
+                results.add(addedPositions[i]);
+            }
+        }
+        return results.toArray();
+    }
+
+    private int[] prefixSearch(String loweredQuery, String foldedQuery, boolean ignoreAccents, int limit) {
+        int low = 0;
+        int high = byFoldedName.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (foldedAt(byFoldedName[mid]).compareTo(foldedQuery) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        IntList matches = new IntList();
+        for (int i = low; i < byFoldedName.length && matches.size < limit; i++) {
+            int position = byFoldedName[i];
+            if (!foldedAt(position).startsWith(foldedQuery)) {
+                break;
+            }
+            if ((ignoreAccents || loweredAt(position).startsWith(loweredQuery)) && roster.isLive(position)) {
+                matches.add(position);
+            }
+        }
+        if (addedPositions.length == 0) {
+            return matches.toArray();
+        }
+
+        // Few enough to scan; merge them into name order, behind built names that sort equal
+        IntList added = new IntList();
+        for (int i = 0; i < addedPositions.length; i++) {
+            if (addedFolded[i].startsWith(foldedQuery) && (ignoreAccents || addedLowered[i].startsWith(loweredQuery))
+                    && roster.isLive(addedPositions[i])) {
+                int insertAt = added.size;
+                while (insertAt > 0 && addedFolded[added.values[insertAt - 1]].compareTo(addedFolded[i]) > 0) {
+                    insertAt--;
+                }
+                added.insert(insertAt, i);
+            }
+        }
+        IntList merged = new IntList();
+        int m = 0;
+        int a = 0;
+        while (merged.size < limit && (m < matches.size || a < added.size)) {
+            boolean fromBuilt = a >= added.size
+                    || (m < matches.size && foldedAt(matches.values[m]).compareTo(addedFolded[added.values[a]]) <= 0);
+            merged.add(fromBuilt ? matches.values[m++] : addedPositions[added.values[a++]]);
+        }
+        return merged.toArray();
+    }
+
+    private boolean matchesContains(int position, String loweredQuery, String foldedQuery, boolean ignoreAccents) {
+        return ignoreAccents ? foldedAt(position).contains(foldedQuery) : loweredAt(position).contains(loweredQuery);
+    }
+
+    private String loweredAt(int position) {
+        int ref = roster.nameRef(position);
+        return ref < 0 ? "" : lowered[ref];
+    }
+
+    private String foldedAt(int position) {
+        int ref = roster.nameRef(position);
+        return ref < 0 ? "" : folded[ref];
+    }
+
+    static String fold(String lowered) {
+        String decomposed = Normalizer.normalize(lowered, Normalizer.Form.NFD);
+        String folded = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+        // Share the instance for plain ASCII names so they are not stored twice
+        return folded.equals(lowered) ? lowered : folded;
+    }
+
+    /**
+     * Rank of each non-null value among the distinct values, in ascending order; equal values
+     * share a rank. Entries for null values are left at zero.
+     */
+    static int[] ranks(String[] values) {
+        String[] sorted = new String[values.length];
+        int count = 0;
+        for (String value : values) {
+            if (value != null) {
+                sorted[count++] = value;
+            }
+        }
+        Arrays.sort(sorted, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || !sorted[i].equals(sorted[distinct - 1])) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        int[] rank = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                rank[i] = Arrays.binarySearch(sorted, 0, distinct, values[i]);
+            }
+        }
+        return rank;
+    }
+
+    private static long trigram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    /**
+     * Open-addressing map from trigram to the ascending positions whose name contains it.
+     */
+    private static final class Postings {
+        // Trigrams use the low 48 bits, so -1 never collides with one
+        private static final long FREE = -1L;
+
+        private long[] keys = newKeys(1024);
+        private int[][] lists = new int[1024][];
+        private int[] sizes = new int[1024];
+        private int count;
+
+        void add(long trigram, int position) {
+            int slot = slot(trigram);
+            if (keys[slot] == FREE) {
+                if (count + 1 > keys.length / 2) {
+                    grow();
+                    slot = slot(trigram);
+                }
+                keys[slot] = trigram;
+                lists[slot] = new int[4];
+                count++;
+            }
+            int size = sizes[slot];
+            // A name with a repeated trigram lists its position once
+            if (size > 0 && lists[slot][size - 1] == position) {
+                return;
+            }
+            if (size == lists[slot].length) {
+                lists[slot] = Arrays.copyOf(lists[slot], size * 2);
+            }
+            lists[slot][size] = position;
+            sizes[slot] = size + 1;
+        }
+
+        /**
+         * Cuts every list to its size once building is done.
+         */
+        void trim() {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != FREE) {
+                    lists[slot] = Arrays.copyOf(lists[slot], sizes[slot]);
+                }
+            }
+            sizes = null;
+        }
+
+        int[] get(long trigram) {
+            int slot = slot(trigram);
+            return keys[slot] == FREE ? NO_POSTINGS : lists[slot];
+        }
+
+        long estimatedBytes() {
+            long bytes = 32 + 12L * keys.length;
+            for (int[] list : lists) {
+                if (list != null) {
+                    bytes += 16 + 4L * list.length;
+                }
+            }
+            return bytes;
+        }
+
+        private int slot(long trigram) {
+            int mask = keys.length - 1;
+            int slot = (int) ((trigram * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+            while (keys[slot] != FREE && keys[slot] != trigram) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[][] oldLists = lists;
+            int[] oldSizes = sizes;
+            keys = newKeys(oldKeys.length * 2);
+            lists = new int[oldKeys.length * 2][];
+            sizes = new int[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != FREE) {
+                    int slot = slot(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    lists[slot] = oldLists[i];
+                    sizes[slot] = oldSizes[i];
+                }
+            }
+        }
+
+        private static long[] newKeys(int capacity) {
+            long[] keys = new long[capacity];
+            Arrays.fill(keys, FREE);
+            return keys;
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            insert(size, value);
+        }
+
+        void insert(int index, int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = value;
+            size++;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
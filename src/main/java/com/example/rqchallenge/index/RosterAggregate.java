@@ -0,0 +1,238 @@
+package com.example.rqchallenge.index;
+
+import java.util.Arrays;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Salary and age totals of a roster, gathered in one pass over its columns: count, sum, minimum
+ * and maximum of each, a fixed-width salary histogram and exact counts per age.
+ * <p>
+ * Rosters larger than one chunk are split and summed in parallel on the common fork-join pool,
+ * then merged. Each chunk counts salaries into a {@code long[]} histogram spanning its own range
+ * and keeps only the non-empty buckets, which merge as sorted runs. Employees with an unparsable salary or age are left out of that column's figures.
+ */
+public final class RosterAggregate {
+
+    /**
+     * Ages are counted exactly up to this value; anything above is counted here.
+     */
+    public static final int MAX_AGE = 150;
+
+    private static final long[] NONE = new long[0];
+
+    private final int bucketWidth;
+    private long salaryCount;
+    private long salarySum;
+    private int salaryMin = Integer.MAX_VALUE;
+    private int salaryMax = Integer.MIN_VALUE;
+    private long ageCount;
+    private long ageSum;
+    private final long[] ageCounts = new long[MAX_AGE + 1];
+    private long[] bucketStarts = NONE;
+    private long[] bucketCounts = NONE;
+
+    private RosterAggregate(int bucketWidth) {
+        this.bucketWidth = bucketWidth;
+    }
+
+    public static RosterAggregate of(CompactRoster roster, int bucketWidth, int chunkSize) {
+        if (bucketWidth < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("Bucket width and chunk size must be positive");
+        }
+        Chunk all = new Chunk(roster, 0, roster.positions(), bucketWidth, chunkSize);
+        return roster.positions() <= chunkSize ? all.compute() : ForkJoinPool.commonPool().invoke(all);
+    }
+
+    public long getSalaryCount() {
+        return salaryCount;
+    }
+
+    public int getSalaryMin() {
+        return salaryMin;
+    }
+
+    public int getSalaryMax() {
+        return salaryMax;
+    }
+
+    public double getSalaryMean() {
+        return salaryCount > 0 ? (double) salarySum / salaryCount : Double.NaN;
+    }
+
+    public long getAgeCount() {
+        return ageCount;
+    }
+
+    public double getAgeMean() {
+        return ageCount > 0 ? (double) ageSum / ageCount : Double.NaN;
+    }
+
+    /**
+     * Number of employees aged {@code age}, with negative ages counted as 0 and ages above
+     * {@link #MAX_AGE} as {@code MAX_AGE}.
+     */
+    public long ageCount(int age) {
+        return ageCounts[Math.max(0, Math.min(MAX_AGE, age))];
+    }
+
+    /**
+     * Salary counts keyed by the inclusive lower bound of each {@code bucketWidth}-wide bucket,
+     * empty buckets omitted.
+     */
+    public SortedMap<Long, Long> getSalaryBuckets() {
+        SortedMap<Long, Long> buckets = new TreeMap<>();
+        for (int i = 0; i < bucketStarts.length; i++) {
+            buckets.put(bucketStarts[i], bucketCounts[i]);
+        }
+        return buckets;
+    }
+
+    private void add(CompactRoster roster, int position) {
+        if (roster.hasAge(position)) {
+            int age = roster.age(position);
+            ageCount++;
+            ageSum += age;
+            ageCounts[Math.max(0, Math.min(MAX_AGE, age))]++;
+        }
+        if (roster.hasSalary(position)) {
+            int salary = roster.salary(position);
+            salaryCount++;
+            salarySum += salary;
+            salaryMin = Math.min(salaryMin, salary);
+            salaryMax = Math.max(salaryMax, salary);
+        }
+    }
+
+    /**
+     * Fills the histogram of the salaries in positions {@code from} to {@code to}, once
+     * {@link #add} has seen them all and the range is known.
+     */
+    private void countSalaries(CompactRoster roster, int from, int to) {
+        if (salaryCount == 0) {
+            return;
+        }
+        long first = Math.floorDiv(salaryMin, bucketWidth);
+        long span = Math.floorDiv(salaryMax, bucketWidth) - first + 1;
+        long[] counts;
+        if (span <= 4 * salaryCount + 64) {
+            counts = new long[(int) span];
+            for (int position = from; position < to; position++) {
+                if (roster.isLive(position) && roster.hasSalary(position)) {
+                    counts[(int) (Math.floorDiv(roster.salary(position), bucketWidth) - first)]++;
+                }
+            }
+        } else {
+            // Too sparse for one slot per bucket: sort the bucket numbers and count the runs instead
+            long[] buckets = new long[(int) salaryCount];
+            int n = 0;
+            for (int position = from; position < to; position++) {
+                if (roster.isLive(position) && roster.hasSalary(position)) {
+                    buckets[n++] = Math.floorDiv(roster.salary(position), bucketWidth);
+                }
+            }
+            Arrays.sort(buckets);
+            long[] starts = new long[n];
+            counts = new long[n];
+            int runs = 0;
+            for (int i = 0; i < n; i++) {
+                if (runs == 0 || starts[runs - 1] != buckets[i] * bucketWidth) {
+                    starts[runs++] = buckets[i] * bucketWidth;
+                }
+                counts[runs - 1]++;
+            }
+            bucketStarts = Arrays.copyOf(starts, runs);
+            bucketCounts = Arrays.copyOf(counts, runs);
+            return;
+        }
+
+        int nonEmpty = 0;
+        for (long count : counts) {
+            if (count > 0) {
+                nonEmpty++;
+            }
+        }
+        bucketStarts = new long[nonEmpty];
+        bucketCounts = new long[nonEmpty];
+        int next = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                bucketStarts[next] = (first + i) * bucketWidth;
+                bucketCounts[next++] = counts[i];
+            }
+        }
+    }
+
+    private RosterAggregate merge(RosterAggregate other) {
+        salaryCount += other.salaryCount;
+        salarySum += other.salarySum;
+        salaryMin = Math.min(salaryMin, other.salaryMin);
+        salaryMax = Math.max(salaryMax, other.salaryMax);
+        ageCount += other.ageCount;
+        ageSum += other.ageSum;
+        for (int age = 0; age <= MAX_AGE; age++) {
+            ageCounts[age] += other.ageCounts[age];
+        }
+        mergeBuckets(other);
+        return this;
+    }
+
+    private void mergeBuckets(RosterAggregate other) {
+        long[] starts = new long[bucketStarts.length + other.bucketStarts.length];
+        long[] counts = new long[starts.length];
+        int a = 0;
+        int b = 0;
+        int n = 0;
+        while (a < bucketStarts.length || b < other.bucketStarts.length) {
+            if (b >= other.bucketStarts.length || (a < bucketStarts.length && bucketStarts[a] < other.bucketStarts[b])) {
+                starts[n] = bucketStarts[a];
+                counts[n++] = bucketCounts[a++];
+            } else if (a >= bucketStarts.length || other.bucketStarts[b] < bucketStarts[a]) {
+                starts[n] = other.bucketStarts[b];
+                counts[n++] = other.bucketCounts[b++];
+            } else {
+                starts[n] = bucketStarts[a];
+                counts[n++] = bucketCounts[a++] + other.bucketCounts[b++];
+            }
+        }
+        bucketStarts = Arrays.copyOf(starts, n);
+        bucketCounts = Arrays.copyOf(counts, n);
+    }
+
+    private static final class Chunk extends RecursiveTask<RosterAggregate> {
+        private final CompactRoster roster;
+        private final int from;
+        private final int to;
+        private final int bucketWidth;
+        private final int chunkSize;
+
+        Chunk(CompactRoster roster, int from, int to, int bucketWidth, int chunkSize) {
+            this.roster = roster;
+            this.from = from;
+            this.to = to;
+            this.bucketWidth = bucketWidth;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected RosterAggregate compute() {
+            if (to - from <= chunkSize) {
+                RosterAggregate aggregate = new RosterAggregate(bucketWidth);
+                for (int position = from; position < to; position++) {
+                    if (roster.isLive(position)) {
+                        aggregate.add(roster, position);
+                    }
+                }
+                aggregate.countSalaries(roster, from, to);
+                return aggregate;
+            }
+            int mid = (from + to) >>> 1;
+            Chunk left = new Chunk(roster, from, mid, bucketWidth, chunkSize);
+            left.fork();
+            RosterAggregate right = new Chunk(roster, mid, to, bucketWidth, chunkSize).compute();
+            return left.join().merge(right);
+        }
+    }
+}
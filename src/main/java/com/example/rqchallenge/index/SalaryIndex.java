@@ -0,0 +1,187 @@
+package com.example.rqchallenge.index;
+
+import com.example.rqchallenge.dtos.Employee;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.function.IntFunction;
+
+/**
+ * Salaries of a roster ordered highest first.
+ * <p>
+ * {@code salaries[i]} is the i-th highest salary and {@code positions[i]} the index of its
+ * employee in the roster list. Employees with the same salary keep their roster order.
+ * <p>
+ * Employees appended to the roster after the build are kept in a second, small ordered run that
+ * reads merge with the first; removed employees are skipped on read.
+ */
+@Slf4j
+public final class SalaryIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final CompactRoster roster;
+    private final int[] salaries;
+    private final int[] positions;
+    private final int[] addedSalaries;
+    private final int[] addedPositions;
+
+    private SalaryIndex(CompactRoster roster, int[] salaries, int[] positions, int[] addedSalaries, int[] addedPositions) {
+        this.roster = roster;
+        this.salaries = salaries;
+        this.positions = positions;
+        this.addedSalaries = addedSalaries;
+        this.addedPositions = addedPositions;
+    }
+
+    public static SalaryIndex build(CompactRoster roster) {
+        long[] keys = new long[roster.positions()];
+        int count = 0;
+        int unparsable = 0;
+        int example = -1;
+        for (int position = 0; position < roster.positions(); position++) {
+            if (!roster.isLive(position)) {
+                continue;
+            }
+            if (roster.hasSalary(position)) {
+                // High half orders by salary; low half is inverted so ties come out in roster order
+                keys[count++] = ((long) roster.salary(position) << 32) | (Integer.MAX_VALUE - position);
+            } else {
+                unparsable++;
+                example = example < 0 ? position : example;
+            }
+        }
+        if (unparsable > 0) {
+            // Once per build rather than per employee, since every refresh rebuilds the same roster
+            Employee employee = roster.employee(example);
+            log.warn("Skipping {} employees with unparsable salaries, e.g. employee {}: {}",
+                    unparsable, employee.getId(), employee.getEmployeeSalary());
+        }
+        Arrays.sort(keys, 0, count);
+
+        int[] salaries = new int[count];
+        int[] positions = new int[count];
+        for (int i = 0; i < count; i++) {
+            long key = keys[count - 1 - i];
+            salaries[i] = (int) (key >> 32);
+            positions[i] = Integer.MAX_VALUE - (int) key;
+        }
+        return new SalaryIndex(roster, salaries, positions, EMPTY, EMPTY);
+    }
+
+    /**
+     * Returns this index over {@code roster}, which must be this index's roster with
+     * {@code position} appended.
+     */
+    public SalaryIndex withAppended(CompactRoster roster, int position) {
+        if (!roster.hasSalary(position)) {
+            Employee employee = roster.employee(position);
+            log.debug("Skipping employee {} with unparsable salary: {}", employee.getId(), employee.getEmployeeSalary());
+            return withRoster(roster);
+        }
+        int salary = roster.salary(position);
+        // Appended positions only grow, so inserting after equal salaries keeps roster order
+        int insertAt = 0;
+        while (insertAt < addedSalaries.length && addedSalaries[insertAt] >= salary) {
+            insertAt++;
+        }
+        return new SalaryIndex(roster, salaries, positions,
+                insert(addedSalaries, insertAt, salary), insert(addedPositions, insertAt, position));
+    }
+
+    /**
+     * Returns this index over {@code roster}, which must be this index's roster with some
+     * positions removed.
+     */
+    public SalaryIndex withRoster(CompactRoster roster) {
+        return new SalaryIndex(roster, salaries, positions, addedSalaries, addedPositions);
+    }
+
+    /**
+     * Approximate heap retained by this index, for the footprint gauge.
+     */
+    public long estimatedBytes() {
+        return 64 + 4L * (salaries.length + positions.length + addedSalaries.length + addedPositions.length);
+    }
+
+    public OptionalInt highest() {
+        Cursor cursor = new Cursor();
+        return cursor.advance() ? OptionalInt.of(cursor.salary) : OptionalInt.empty();
+    }
+
+    public int size() {
+        int live = 0;
+        for (int position : positions) {
+            if (roster.isLive(position)) {
+                live++;
+            }
+        }
+        for (int position : addedPositions) {
+            if (roster.isLive(position)) {
+                live++;
+            }
+        }
+        return live;
+    }
+
+    public List<Employee> top(int n) {
+        return collect(n, roster::employee);
+    }
+
+    public List<String> topNames(int n) {
+        return collect(n, roster::name);
+    }
+
+    private <T> List<T> collect(int n, IntFunction<T> value) {
+        if (n <= 0) {
+            return Collections.emptyList();
+        }
+        List<T> top = new ArrayList<>(Math.min(n, positions.length + addedPositions.length));
+        Cursor cursor = new Cursor();
+        while (top.size() < n && cursor.advance()) {
+            top.add(value.apply(cursor.position));
+        }
+        return top;
+    }
+
+    private static int[] insert(int[] values, int index, int value) {
+        int[] next = new int[values.length + 1];
+        System.arraycopy(values, 0, next, 0, index);
+        next[index] = value;
+        System.arraycopy(values, index, next, index + 1, values.length - index);
+        return next;
+    }
+
+    /**
+     * Walks both runs highest salary first, skipping employees no longer in the roster.
+     */
+    private final class Cursor {
+        private int base;
+        private int added;
+        private int salary;
+        private int position;
+
+        boolean advance() {
+            while (base < positions.length || added < addedPositions.length) {
+                // On equal salaries the built run wins: its positions all precede appended ones
+                boolean fromBase = added >= addedPositions.length
+                        || (base < positions.length && salaries[base] >= addedSalaries[added]);
+                if (fromBase) {
+                    salary = salaries[base];
+                    position = positions[base++];
+                } else {
+                    salary = addedSalaries[added];
+                    position = addedPositions[added++];
+                }
+                if (roster.isLive(position)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
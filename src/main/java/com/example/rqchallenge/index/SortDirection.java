@@ -0,0 +1,6 @@
+package com.example.rqchallenge.index;
+
+public enum SortDirection {
+    ASC,
+    DESC
+}
@@ -0,0 +1,7 @@
+package com.example.rqchallenge.index;
+
+public enum SortField {
+    SALARY,
+    AGE,
+    NAME
+}
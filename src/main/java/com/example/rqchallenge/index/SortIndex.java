@@ -0,0 +1,360 @@
+package com.example.rqchallenge.index;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Positions of a roster ordered by one {@link SortField}, ascending, with ties in roster order.
+ * <p>
+ * Pages are read straight out of the ordering: an offset is located with a binary search over
+ * live ranks and a cursor with a binary search over keys, so a page costs its size plus a
+ * logarithmic seek rather than a sort. Employees with an unparsable salary or age sort before all
+ * others by that field.
+ * <p>
+ * As in {@link SalaryIndex}, employees appended after the build are kept in a second, small
+ * ordered run that reads merge with the first. Removed employees are tracked by their rank in the
+ * ordering so offsets stay exact without a rebuild.
+ */
+public final class SortIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final CompactRoster roster;
+    private final SortField field;
+    private final int[] order;
+    private final int[] rankOf;
+    private final int[] deadRanks;
+    private final int[] added;
+
+    private SortIndex(CompactRoster roster, SortField field, int[] order, int[] rankOf, int[] deadRanks, int[] added) {
+        this.roster = roster;
+        this.field = field;
+        this.order = order;
+        this.rankOf = rankOf;
+        this.deadRanks = deadRanks;
+        this.added = added;
+    }
+
+    public static SortIndex build(CompactRoster roster, SortField field) {
+        int bound = roster.positions();
+        int count = 0;
+        int[] order = new int[roster.size()];
+        if (field == SortField.NAME) {
+            // Names are ranked once per distinct name: by dictionary id for the columns, then appended ones
+            int columns = roster.columnSize();
+            int dictionary = roster.dictionarySize();
+            String[] names = new String[dictionary + bound - columns];
+            for (int position = 0; position < columns; position++) {
+                int ref = roster.nameRef(position);
+                if (ref >= 0 && names[ref] == null) {
+                    names[ref] = lowered(roster.dictionaryValue(ref));
+                }
+            }
+            for (int position = columns; position < bound; position++) {
+                names[dictionary + position - columns] = lowered(roster.name(position));
+            }
+            int[] rank = NameIndex.ranks(names);
+            long[] keys = new long[roster.size()];
+            for (int position = 0; position < bound; position++) {
+                if (roster.isLive(position)) {
+                    int ref = position < columns ? roster.nameRef(position) : dictionary + position - columns;
+                    // A missing name sorts like "", ahead of every other
+                    keys[count++] = ((long) (ref < 0 ? -1 : rank[ref]) << 32) | position;
+                }
+            }
+            Arrays.sort(keys, 0, count);
+            for (int i = 0; i < count; i++) {
+                order[i] = (int) keys[i];
+            }
+        } else {
+            long[] keys = new long[roster.size()];
+            for (int position = 0; position < bound; position++) {
+                if (roster.isLive(position)) {
+                    // High half orders by key, low half by position
+                    keys[count++] = ((long) intKey(roster, field, position) << 32) | position;
+                }
+            }
+            Arrays.sort(keys, 0, count);
+            for (int i = 0; i < count; i++) {
+                order[i] = (int) keys[i];
+            }
+        }
+
+        int[] rankOf = new int[bound];
+        Arrays.fill(rankOf, -1);
+        for (int i = 0; i < count; i++) {
+            rankOf[order[i]] = i;
+        }
+        return new SortIndex(roster, field, order, rankOf, EMPTY, EMPTY);
+    }
+
+    /**
+     * Returns this index over {@code roster}, which must be this index's roster with
+     * {@code position} appended.
+     */
+    public SortIndex withAppended(CompactRoster roster, int position) {
+        SortIndex next = new SortIndex(roster, field, order, rankOf, deadRanks, added);
+        int insertAt = next.addedBefore(position);
+        return new SortIndex(roster, field, order, rankOf, deadRanks, insert(added, insertAt, position));
+    }
+
+    /**
+     * Returns this index over {@code roster}, which must be this index's roster with
+     * {@code position} removed.
+     */
+    public SortIndex withRemoved(CompactRoster roster, int position) {
+        if (position < rankOf.length && rankOf[position] >= 0) {
+            int rank = rankOf[position];
+            int index = Arrays.binarySearch(deadRanks, rank);
+            int[] nextDead = index >= 0 ? deadRanks : insert(deadRanks, -index - 1, rank);
+            return new SortIndex(roster, field, order, rankOf, nextDead, added);
+        }
+        int[] nextAdded = added;
+        for (int i = 0; i < added.length; i++) {
+            if (added[i] == position) {
+                nextAdded = new int[added.length - 1];
+                System.arraycopy(added, 0, nextAdded, 0, i);
+                System.arraycopy(added, i + 1, nextAdded, i, added.length - i - 1);
+                break;
+            }
+        }
+        return new SortIndex(roster, field, order, rankOf, deadRanks, nextAdded);
+    }
+
+    public SortField getField() {
+        return field;
+    }
+
+    /**
+     * Number of live employees in the ordering.
+     */
+    public int size() {
+        return order.length - deadRanks.length + added.length;
+    }
+
+    /**
+     * The sort key of the employee at {@code position}: a {@code Long} for numeric fields and the
+     * lower-cased name for {@link SortField#NAME}. Together with the position it identifies a place
+     * in the ordering, for cursors.
+     */
+    public Object keyOf(int position) {
+        return field == SortField.NAME ? lowered(roster.name(position)) : (Object) (long) intKey(roster, field, position);
+    }
+
+    /**
+     * Returns the positions of at most {@code limit} employees, skipping the first {@code offset}
+     * in the given direction.
+     */
+    public int[] page(int offset, int limit, SortDirection direction) {
+        int total = size();
+        if (offset >= total || limit <= 0) {
+            return EMPTY;
+        }
+        return direction == SortDirection.ASC
+                ? walkForward(locate(offset), limit)
+                : walkBackward(locate(total - offset), limit);
+    }
+
+    /**
+     * Returns the positions of at most {@code limit} employees that come after the cursor
+     * ({@code key}, {@code position}) in the given direction. The cursor need not be live.
+     */
+    public int[] pageAfter(Object key, int position, int limit, SortDirection direction) {
+        if (limit <= 0) {
+            return EMPTY;
+        }
+        if (direction == SortDirection.ASC) {
+            return walkForward(new int[]{firstAfter(order, key, position, true), firstAfter(added, key, position, true)}, limit);
+        }
+        return walkBackward(new int[]{firstAfter(order, key, position, false), firstAfter(added, key, position, false)}, limit);
+    }
+
+    /**
+     * Approximate heap retained by this index, for the footprint gauge.
+     */
+    public long estimatedBytes() {
+        return 48 + 4L * (order.length + rankOf.length + deadRanks.length + added.length);
+    }
+
+    /**
+     * Sorts arbitrary live positions of the roster, e.g. search matches, into this ordering.
+     * Built positions are sorted by their rank; only the appended ones are compared by key.
+     */
+    public int[] sort(int[] positions) {
+        int[] ranks = new int[positions.length];
+        int[] late = new int[positions.length];
+        int built = 0;
+        int appended = 0;
+        for (int position : positions) {
+            if (position < rankOf.length && rankOf[position] >= 0) {
+                ranks[built++] = rankOf[position];
+            } else {
+                late[appended++] = position;
+            }
+        }
+        Arrays.sort(ranks, 0, built);
+
+        // High half is the number of built ranks before the appended employee, low half its place in the appended run
+        long[] keys = new long[appended];
+        for (int i = 0; i < appended; i++) {
+            keys[i] = ((long) rankAfter(late[i]) << 32) | addedBefore(late[i]);
+        }
+        Arrays.sort(keys);
+
+        int[] sorted = new int[positions.length];
+        int b = 0;
+        int a = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            boolean fromBase = a >= appended || (b < built && ranks[b] < (int) (keys[a] >>> 32));
+            sorted[i] = fromBase ? order[ranks[b++]] : added[(int) keys[a++]];
+        }
+        return sorted;
+    }
+
+    /**
+     * Index into {@code sorted}, which is in this ordering, of the first entry after the cursor
+     * ({@code key}, {@code position}) in ascending order, or of the first entry not before it when
+     * {@code strictlyAfter} is false.
+     */
+    public int firstAfter(int[] sorted, Object key, int position, boolean strictlyAfter) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int c = compareTo(sorted[mid], key, position);
+            if (c < 0 || (strictlyAfter && c == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the merge point before which exactly {@code count} live employees sort, as indexes into
+     * the built and appended runs.
+     */
+    private int[] locate(int count) {
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (before(mid) >= count) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        // Everything before order[low] is at least count; the surplus are appended employees
+        // sorting between order[low - 1] and order[low]
+        return new int[]{low, addedBeforeRank(low) - (before(low) - count)};
+    }
+
+    private int before(int rank) {
+        return liveBefore(rank) + addedBeforeRank(rank);
+    }
+
+    private int liveBefore(int rank) {
+        int index = Arrays.binarySearch(deadRanks, rank);
+        return rank - (index >= 0 ? index : -index - 1);
+    }
+
+    private int addedBeforeRank(int rank) {
+        return rank < order.length ? addedBefore(order[rank]) : added.length;
+    }
+
+    /**
+     * Rank of the first built entry that sorts after {@code position}.
+     */
+    private int rankAfter(int position) {
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(order[mid], position) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int addedBefore(int position) {
+        int low = 0;
+        int high = added.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(added[mid], position) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int[] walkForward(int[] start, int limit) {
+        int b = start[0];
+        int a = start[1];
+        int[] page = new int[Math.min(limit, size())];
+        int count = 0;
+        while (count < page.length && (b < order.length || a < added.length)) {
+            boolean fromBase = a >= added.length || (b < order.length && compare(order[b], added[a]) < 0);
+            int position = fromBase ? order[b++] : added[a++];
+            if (roster.isLive(position)) {
+                page[count++] = position;
+            }
+        }
+        return count == page.length ? page : Arrays.copyOf(page, count);
+    }
+
+    private int[] walkBackward(int[] start, int limit) {
+        int b = start[0];
+        int a = start[1];
+        int[] page = new int[Math.min(limit, size())];
+        int count = 0;
+        while (count < page.length && (b > 0 || a > 0)) {
+            boolean fromBase = a == 0 || (b > 0 && compare(order[b - 1], added[a - 1]) > 0);
+            int position = fromBase ? order[--b] : added[--a];
+            if (roster.isLive(position)) {
+                page[count++] = position;
+            }
+        }
+        return count == page.length ? page : Arrays.copyOf(page, count);
+    }
+
+    private int compare(int a, int b) {
+        int byKey = field == SortField.NAME
+                ? lowered(roster.name(a)).compareTo(lowered(roster.name(b)))
+                : Integer.compare(intKey(roster, field, a), intKey(roster, field, b));
+        return byKey != 0 ? byKey : Integer.compare(a, b);
+    }
+
+    private int compareTo(int position, Object key, int keyPosition) {
+        int byKey = field == SortField.NAME
+                ? lowered(roster.name(position)).compareTo((String) key)
+                : Long.compare(intKey(roster, field, position), (Long) key);
+        return byKey != 0 ? byKey : Integer.compare(position, keyPosition);
+    }
+
+    private static int intKey(CompactRoster roster, SortField field, int position) {
+        if (field == SortField.AGE) {
+            return roster.hasAge(position) ? roster.age(position) : Integer.MIN_VALUE;
+        }
+        return roster.hasSalary(position) ? roster.salary(position) : Integer.MIN_VALUE;
+    }
+
+    private static String lowered(String name) {
+        return name != null ? name.toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static int[] insert(int[] values, int index, int value) {
+        int[] next = new int[values.length + 1];
+        System.arraycopy(values, 0, next, 0, index);
+        next[index] = value;
+        System.arraycopy(values, index, next, index + 1, values.length - index);
+        return next;
+    }
+}
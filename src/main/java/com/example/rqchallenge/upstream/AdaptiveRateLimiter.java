@@ -0,0 +1,65 @@
+package com.example.rqchallenge.upstream;
+
+import java.time.Duration;
+
+/**
+ * Token bucket whose rate follows what upstream tolerates: it grows by a fixed step while calls
+ * are accepted and is cut by a factor, after pausing for the {@code Retry-After} period, when
+ * upstream answers 429. It grows at most once per adjustment interval, and a burst of 429s within
+ * one interval cuts it once.
+ */
+final class AdaptiveRateLimiter {
+
+    private final OutboundProperties properties;
+    private final TokenBucket bucket;
+    private final long adjustIntervalNanos;
+    private double rate;
+    private long adjustedAt = System.nanoTime();
+    private long cutAt;
+
+    AdaptiveRateLimiter(OutboundProperties properties) {
+        this.properties = properties;
+        this.rate = clamp(properties.getInitialRate());
+        this.bucket = new TokenBucket(rate);
+        this.adjustIntervalNanos = properties.getAdjustInterval().toNanos();
+        this.cutAt = adjustedAt - adjustIntervalNanos;
+    }
+
+    Duration reserve() {
+        return bucket.reserve();
+    }
+
+    boolean tryAcquire() {
+        return bucket.tryAcquire();
+    }
+
+    synchronized double rate() {
+        return rate;
+    }
+
+    synchronized void onAccepted() {
+        long now = System.nanoTime();
+        if (rate < properties.getMaxRate() && now - adjustedAt >= adjustIntervalNanos) {
+            setRate(rate + properties.getRateIncrease(), now);
+        }
+    }
+
+    synchronized void onThrottled(Duration retryAfter) {
+        bucket.pauseFor(retryAfter);
+        long now = System.nanoTime();
+        if (now - cutAt >= adjustIntervalNanos) {
+            cutAt = now;
+            setRate(rate * properties.getRateDecrease(), now);
+        }
+    }
+
+    private void setRate(double newRate, long now) {
+        rate = clamp(newRate);
+        adjustedAt = now;
+        bucket.setRate(rate);
+    }
+
+    private double clamp(double value) {
+        return Math.max(properties.getMinRate(), Math.min(properties.getMaxRate(), value));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.rqchallenge.upstream;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Derives a route's read timeout from the latencies of its recent successful calls, so a fast
+ * upstream fails slow calls quickly while a uniformly slow one is not cut off. A call that times
+ * out counts as a sample at the limit it hit and backs the timeout off upward, otherwise an
+ * upstream that slows down for good would only ever produce timeouts and never a longer limit.
+ */
+final class AdaptiveTimeout {
+
+    private static final int SAMPLES = 128;
+    private static final int MINIMUM_SAMPLES = 20;
+
+    private final ResilienceProperties.Policy policy;
+    private final long[] samples = new long[SAMPLES];
+    private int index;
+    private int recorded;
+    private volatile Duration current;
+
+    AdaptiveTimeout(ResilienceProperties.Policy policy) {
+        this.policy = policy;
+        this.current = policy.getMaxTimeout();
+    }
+
+    Duration current() {
+        return current;
+    }
+
+    synchronized void record(long latencyNanos) {
+        add(latencyNanos);
+    }
+
+    /**
+     * Records a call cut off at {@code limitNanos}. Each timeout at least doubles that limit, up to
+     * {@code maxTimeout}, until completed calls bring the percentile back down.
+     */
+    synchronized void recordTimeout(long limitNanos) {
+        add(limitNanos);
+        long backedOff = limitNanos * 2;
+        if (backedOff > current.toNanos()) {
+            current = Duration.ofNanos(Math.min(backedOff, policy.getMaxTimeout().toNanos()));
+        }
+    }
+
+    private void add(long latencyNanos) {
+        samples[index] = latencyNanos;
+        index = (index + 1) % SAMPLES;
+        if (recorded < SAMPLES) {
+            recorded++;
+        }
+        if (recorded < MINIMUM_SAMPLES) {
+            return;
+        }
+        long[] sorted = Arrays.copyOf(samples, recorded);
+        Arrays.sort(sorted);
+        int rank = Math.min(recorded - 1, (int) Math.ceil(policy.getTimeoutPercentile() * recorded) - 1);
+        long timeoutNanos = (long) (sorted[Math.max(rank, 0)] * policy.getTimeoutMultiplier());
+        timeoutNanos = Math.max(timeoutNanos, policy.getMinTimeout().toNanos());
+        timeoutNanos = Math.min(timeoutNanos, policy.getMaxTimeout().toNanos());
+        current = Duration.ofNanos(timeoutNanos);
+    }
+}
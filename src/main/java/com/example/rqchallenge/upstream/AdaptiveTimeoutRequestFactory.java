@@ -0,0 +1,39 @@
+package com.example.rqchallenge.upstream;
+
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.time.Duration;
+
+/**
+ * Request factory whose read timeout can be tightened per call. {@link UpstreamGuard} sets the
+ * timeout of the route it is guarding for the duration of the call on the calling thread.
+ */
+public class AdaptiveTimeoutRequestFactory extends SimpleClientHttpRequestFactory {
+
+    private static final ThreadLocal<Duration> READ_TIMEOUT = new ThreadLocal<>();
+
+    static Duration useReadTimeout(Duration timeout) {
+        Duration previous = READ_TIMEOUT.get();
+        READ_TIMEOUT.set(timeout);
+        return previous;
+    }
+
+    static void restoreReadTimeout(Duration previous) {
+        if (previous != null) {
+            READ_TIMEOUT.set(previous);
+        } else {
+            READ_TIMEOUT.remove();
+        }
+    }
+
+    @Override
+    protected void prepareConnection(HttpURLConnection connection, String httpMethod) throws IOException {
+        super.prepareConnection(connection, httpMethod);
+        Duration timeout = READ_TIMEOUT.get();
+        if (timeout != null) {
+            connection.setReadTimeout((int) Math.max(1, timeout.toMillis()));
+        }
+    }
+}
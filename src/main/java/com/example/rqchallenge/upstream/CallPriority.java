@@ -0,0 +1,19 @@
+package com.example.rqchallenge.upstream;
+
+/**
+ * Order in which queued upstream calls are let through by the {@link OutboundScheduler}.
+ */
+public enum CallPriority {
+    /**
+     * A client is waiting on the response.
+     */
+    INTERACTIVE,
+    /**
+     * Items of a batch write; the client waits for the batch, not for each item.
+     */
+    BATCH,
+    /**
+     * Nobody is waiting, such as a scheduled refresh of the roster.
+     */
+    BACKGROUND
+}
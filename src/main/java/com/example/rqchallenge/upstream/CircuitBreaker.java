@@ -0,0 +1,129 @@
+package com.example.rqchallenge.upstream;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Count-based circuit breaker. Opens when the failure rate over the last calls reaches the
+ * threshold, rejects calls while open, then lets a few trial calls through and closes again only
+ * if all of them succeed.
+ * <p>
+ * {@link #tryAcquire()} hands out the breaker's current epoch, which changes on every state
+ * transition; outcomes reported for an older epoch are ignored so that slow calls started before
+ * a transition cannot skew the new state.
+ */
+@Slf4j
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    static final long REJECTED = -1;
+
+    private final String route;
+    private final ResilienceProperties.Policy policy;
+    private final boolean[] window;
+    private int windowIndex;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long epoch;
+    private long openedAt;
+    private int trialsInFlight;
+    private int trialSuccesses;
+
+    CircuitBreaker(String route, ResilienceProperties.Policy policy) {
+        this.route = route;
+        this.policy = policy;
+        this.window = new boolean[policy.getSlidingWindowSize()];
+    }
+
+    synchronized long tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < policy.getOpenDuration().toNanos()) {
+                return REJECTED;
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsInFlight >= policy.getHalfOpenCalls()) {
+                return REJECTED;
+            }
+            trialsInFlight++;
+        }
+        return epoch;
+    }
+
+    synchronized void onSuccess(long permit) {
+        if (permit != epoch) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            trialsInFlight--;
+            if (++trialSuccesses >= policy.getHalfOpenCalls()) {
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        record(false);
+    }
+
+    synchronized void onFailure(long permit) {
+        if (permit != epoch) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            transition(State.OPEN);
+            return;
+        }
+        record(true);
+        if (recorded >= policy.getMinimumCalls() && failures * 100 >= policy.getFailureRateThreshold() * recorded) {
+            transition(State.OPEN);
+        }
+    }
+
+    /**
+     * Gives back a permit whose call never reached upstream.
+     */
+    synchronized void release(long permit) {
+        if (permit == epoch && state == State.HALF_OPEN) {
+            trialsInFlight--;
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == window.length) {
+            if (window[windowIndex]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            failures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void transition(State next) {
+        log.warn("Circuit for upstream route {} moving from {} to {}", route, state, next);
+        state = next;
+        epoch++;
+        trialsInFlight = 0;
+        trialSuccesses = 0;
+        if (next == State.OPEN) {
+            openedAt = System.nanoTime();
+        }
+        if (next == State.CLOSED) {
+            recorded = 0;
+            failures = 0;
+            windowIndex = 0;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.rqchallenge.upstream;
+
+import com.example.rqchallenge.dtos.Employee;
+import com.example.rqchallenge.dtos.EmployeeResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@Slf4j
+public class EmployeeApiClient {
+
+    private final RestTemplate restTemplate;
+    private final String baseUrl;
+    private final SingleFlight<String, ResponseEntity<EmployeeResponse>> employeesFlight;
+    private final SingleFlight<String, ResponseEntity<EmployeeResponse>> employeeFlight;
+    private final UpstreamGuard employeesGuard;
+    private final UpstreamGuard employeeGuard;
+    private final UpstreamGuard createGuard;
+    private final UpstreamGuard deleteGuard;
+    private final OutboundScheduler scheduler;
+
+    public EmployeeApiClient(RestTemplate restTemplate, UpstreamClientProperties properties,
+                             UpstreamResilience resilience, OutboundScheduler scheduler, MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.scheduler = scheduler;
+        this.baseUrl = properties.getBaseUrl();
+        this.employeesFlight = new SingleFlight<>("/employees", meterRegistry);
+        this.employeeFlight = new SingleFlight<>("/employee/{id}", meterRegistry);
+        this.employeesGuard = resilience.guard("employees");
+        this.employeeGuard = resilience.guard("employee");
+        this.createGuard = resilience.guard("create");
+        this.deleteGuard = resilience.guard("delete");
+    }
+
+    public ResponseEntity<EmployeeResponse> getEmployees() {
+        // Coalesced per priority, so a client's read never queues behind a background refresh
+        return employeesFlight.execute(OutboundScheduler.currentPriority().name(), () -> scheduler.call("employees", () -> employeesGuard.call(
+                () -> restTemplate.getForEntity(baseUrl + "/employees", EmployeeResponse.class))));
+    }
+
+    public ResponseEntity<EmployeeResponse> getEmployee(String id) {
+        return employeeFlight.execute(OutboundScheduler.currentPriority() + ":" + id, () -> scheduler.call("employee", () -> employeeGuard.call(
+                () -> restTemplate.getForEntity(baseUrl + "/employee/" + id, EmployeeResponse.class))));
+    }
+
+    public ResponseEntity<EmployeeResponse> createEmployee(Map<String, Object> employeeInput) {
+        return scheduler.call("create", () -> createGuard.call(
+                () -> restTemplate.postForEntity(baseUrl + "/create", employeeInput, EmployeeResponse.class)));
+    }
+
+    public ResponseEntity<EmployeeResponse> deleteEmployee(String id) {
+        return scheduler.call("delete", () -> deleteGuard.call(
+                () -> restTemplate.exchange(baseUrl + "/delete/" + id, HttpMethod.DELETE, null, EmployeeResponse.class)));
+    }
+
+    /**
+     * Sends {@code GET /employees} and returns the response once its status line and headers are in,
+     * leaving the body to be read as it arrives, so callers can process the roster without buffering
+     * it. Error statuses are thrown as for the other calls. The caller must close the response. Not
+     * coalesced with other callers.
+     */
+    public ClientHttpResponse openEmployees() throws RestClientException {
+        return scheduler.call("employees", () -> employeesGuard.call(() -> {
+            URI uri = URI.create(baseUrl + "/employees");
+            ClientHttpResponse response = null;
+            try {
+                ClientHttpRequest request = restTemplate.getRequestFactory().createRequest(uri, HttpMethod.GET);
+                request.getHeaders().setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+                response = request.execute();
+                if (restTemplate.getErrorHandler().hasError(response)) {
+                    restTemplate.getErrorHandler().handleError(uri, HttpMethod.GET, response);
+                }
+                return response;
+            } catch (IOException e) {
+                closeQuietly(response);
+                throw new ResourceAccessException("I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e);
+            } catch (RuntimeException e) {
+                closeQuietly(response);
+                throw e;
+            }
+        }));
+    }
+
+    private static void closeQuietly(ClientHttpResponse response) {
+        if (response != null) {
+            response.close();
+        }
+    }
+
+    /**
+     * Fetches the full roster, treating a non-OK upstream status as a server error.
+     */
+    public List<Employee> fetchAllEmployees() throws RestClientException {
+        ResponseEntity<EmployeeResponse> response = getEmployees();
+        if (response.getBody() != null && HttpStatus.OK.equals(response.getBody().getStatus())) {
+            List<Employee> employees = response.getBody().getEmployees();
+            return employees != null ? employees : Collections.emptyList();
+        }
+        log.error("Failed to fetch employees: {}", response.getBody() != null ? response.getBody().getStatus() : "Unknown error");
+        throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to fetch employees");
+    }
+}
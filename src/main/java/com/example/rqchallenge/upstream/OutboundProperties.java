@@ -0,0 +1,75 @@
+package com.example.rqchallenge.upstream;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "employees.upstream.outbound")
+public class OutboundProperties {
+
+    /**
+     * Whether upstream calls are rate limited and queued by priority. When off they go out as made.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Calls per second to all upstream routes at startup.
+     */
+    private double initialRate = 10;
+
+    /**
+     * The rate never drops below this, however often upstream throttles.
+     */
+    private double minRate = 1;
+
+    /**
+     * The rate never grows beyond this, however long upstream accepts every call.
+     */
+    private double maxRate = 50;
+
+    /**
+     * Calls per second added after each {@code adjustInterval} without throttling.
+     */
+    private double rateIncrease = 1;
+
+    /**
+     * Factor the rate is multiplied by when upstream answers 429.
+     */
+    private double rateDecrease = 0.5;
+
+    /**
+     * Least time between two rate changes, so one burst of 429s counts once.
+     */
+    private Duration adjustInterval = Duration.ofSeconds(1);
+
+    /**
+     * Pause after a 429 without a readable {@code Retry-After} header.
+     */
+    private Duration defaultRetryAfter = Duration.ofSeconds(1);
+
+    /**
+     * Calls of one priority that may wait at once; further ones are rejected.
+     */
+    private int maxQueued = 200;
+
+    /**
+     * How long a call of each priority may wait for its turn before it is dropped.
+     */
+    private Map<CallPriority, Duration> maxWait = defaultMaxWait();
+
+    private static Map<CallPriority, Duration> defaultMaxWait() {
+        Map<CallPriority, Duration> maxWait = new EnumMap<>(CallPriority.class);
+        maxWait.put(CallPriority.INTERACTIVE, Duration.ofSeconds(2));
+        maxWait.put(CallPriority.BATCH, Duration.ofSeconds(30));
+        maxWait.put(CallPriority.BACKGROUND, Duration.ofSeconds(10));
+        return maxWait;
+    }
+
+    public Duration maxWaitFor(CallPriority priority) {
+        return maxWait.getOrDefault(priority, Duration.ofSeconds(2));
+    }
+}
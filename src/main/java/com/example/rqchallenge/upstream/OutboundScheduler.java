@@ -0,0 +1,341 @@
+package com.example.rqchallenge.upstream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Lets upstream calls out at the rate upstream tolerates, most urgent first.
+ * <p>
+ * Blocking and reactive calls to every route share one {@link AdaptiveRateLimiter}. A call that
+ * finds a token and nothing queued goes straight out. Otherwise it joins a queue ordered by
+ * {@link CallPriority}, then arrival, and a dispatcher thread lets the head through as tokens
+ * accrue, so interactive reads overtake batch writes, which overtake background refreshes.
+ * <p>
+ * Each queued call has a deadline of {@code employees.upstream.outbound.max-wait} for its
+ * priority. A call whose caller gave up, by reaching the deadline, being interrupted or cancelling
+ * its subscription, leaves the queue and fails with {@link UpstreamUnavailableException}, so
+ * tokens are spent only on calls someone still waits for.
+ * <p>
+ * Blocking callers choose a priority with {@link #withPriority}, reactive ones by putting it in
+ * the subscriber context under the key {@code CallPriority.class}. The default is
+ * {@link CallPriority#INTERACTIVE}. Callers that coalesce calls must only coalesce calls of the
+ * same priority, or an urgent caller ends up waiting at the priority of whoever went first.
+ */
+@Component
+@Slf4j
+public class OutboundScheduler {
+
+    private static final ThreadLocal<CallPriority> PRIORITY = new ThreadLocal<>();
+
+    private final OutboundProperties properties;
+    private final AdaptiveRateLimiter limiter;
+    private final PriorityBlockingQueue<Ticket> queue = new PriorityBlockingQueue<>();
+    private final Semaphore pending = new Semaphore(0);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<CallPriority, AtomicInteger> queued = new EnumMap<>(CallPriority.class);
+    private final Map<CallPriority, Timer> waitTimes = new EnumMap<>(CallPriority.class);
+    private final Map<CallPriority, Counter> expired = new EnumMap<>(CallPriority.class);
+    private final Map<CallPriority, Counter> rejected = new EnumMap<>(CallPriority.class);
+    private final Counter throttled;
+
+    private volatile Thread dispatcher;
+
+    public OutboundScheduler(OutboundProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.limiter = new AdaptiveRateLimiter(properties);
+        Gauge.builder("employees.upstream.outbound.rate", limiter, AdaptiveRateLimiter::rate)
+                .description("Upstream calls per second currently let out")
+                .register(meterRegistry);
+        for (CallPriority priority : CallPriority.values()) {
+            String tag = name(priority);
+            AtomicInteger count = new AtomicInteger();
+            queued.put(priority, count);
+            Gauge.builder("employees.upstream.outbound.queued", count, AtomicInteger::get)
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+            waitTimes.put(priority, Timer.builder("employees.upstream.outbound.wait")
+                    .description("Time queued calls waited for their turn")
+                    .tag("priority", tag)
+                    .register(meterRegistry));
+            expired.put(priority, Counter.builder("employees.upstream.outbound.dropped")
+                    .tag("priority", tag)
+                    .tag("reason", "expired")
+                    .register(meterRegistry));
+            rejected.put(priority, Counter.builder("employees.upstream.outbound.dropped")
+                    .tag("priority", tag)
+                    .tag("reason", "queue_full")
+                    .register(meterRegistry));
+        }
+        this.throttled = Counter.builder("employees.upstream.outbound.throttled").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread thread = dispatcher;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Runs {@code call} with {@code priority} for the upstream calls it makes on this thread.
+     */
+    public static <T> T withPriority(CallPriority priority, Supplier<T> call) {
+        CallPriority previous = PRIORITY.get();
+        PRIORITY.set(priority);
+        try {
+            return call.get();
+        } finally {
+            if (previous != null) {
+                PRIORITY.set(previous);
+            } else {
+                PRIORITY.remove();
+            }
+        }
+    }
+
+    /**
+     * Priority of the upstream calls made on this thread.
+     */
+    public static CallPriority currentPriority() {
+        CallPriority priority = PRIORITY.get();
+        return priority != null ? priority : CallPriority.INTERACTIVE;
+    }
+
+    /**
+     * Priority of the upstream calls made by a subscriber with {@code context}.
+     */
+    public static CallPriority priorityOf(ContextView context) {
+        return context.getOrDefault(CallPriority.class, CallPriority.INTERACTIVE);
+    }
+
+    public <T> T call(String route, Supplier<T> call) {
+        if (!properties.isEnabled()) {
+            return call.get();
+        }
+        awaitTurn(route, currentPriority());
+        try {
+            T result = call.get();
+            limiter.onAccepted();
+            return result;
+        } catch (RuntimeException e) {
+            observe(e);
+            throw e;
+        }
+    }
+
+    public <T> Mono<T> callReactive(String route, Supplier<Mono<T>> call) {
+        if (!properties.isEnabled()) {
+            return Mono.defer(call);
+        }
+        return Mono.deferContextual(context -> {
+            Mono<T> send = Mono.defer(call)
+                    .doOnSuccess(result -> limiter.onAccepted())
+                    .doOnError(this::observe);
+            if (queue.isEmpty() && limiter.tryAcquire()) {
+                return send;
+            }
+            CallPriority priority = priorityOf(context);
+            Ticket ticket;
+            try {
+                ticket = enqueue(route, priority);
+            } catch (UpstreamUnavailableException e) {
+                return Mono.error(e);
+            }
+            return Mono.fromFuture(ticket.admission)
+                    .doOnCancel(() -> giveUp(ticket))
+                    .timeout(Duration.ofNanos(Math.max(0, ticket.remainingNanos())))
+                    .onErrorMap(e -> e instanceof TimeoutException || e instanceof CancellationException,
+                            e -> expired(route, priority))
+                    .then(send);
+        });
+    }
+
+    private void awaitTurn(String route, CallPriority priority) {
+        if (queue.isEmpty() && limiter.tryAcquire()) {
+            return;
+        }
+        Ticket ticket = enqueue(route, priority);
+        try {
+            ticket.admission.get(Math.max(0, ticket.remainingNanos()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | CancellationException | ExecutionException e) {
+            // Unless it was admitted just as the wait ran out, in which case the call goes ahead
+            if (giveUp(ticket) || ticket.admission.isCancelled()) {
+                throw expired(route, priority);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (giveUp(ticket)) {
+                throw new UpstreamUnavailableException(route, "interrupted while queued");
+            }
+        }
+    }
+
+    private Ticket enqueue(String route, CallPriority priority) {
+        AtomicInteger count = queued.get(priority);
+        if (count.incrementAndGet() > properties.getMaxQueued()) {
+            count.decrementAndGet();
+            rejected.get(priority).increment();
+            throw new UpstreamUnavailableException(route, "too many " + name(priority) + " calls queued");
+        }
+        Ticket ticket = new Ticket(priority, sequence.incrementAndGet(), properties.maxWaitFor(priority));
+        queue.add(ticket);
+        pending.release();
+        if (dispatcher == null) {
+            startDispatcher();
+        }
+        return ticket;
+    }
+
+    /**
+     * Withdraws a ticket whose caller stopped waiting.
+     *
+     * @return whether it was withdrawn before being admitted
+     */
+    private boolean giveUp(Ticket ticket) {
+        if (!ticket.admission.cancel(false)) {
+            return false;
+        }
+        expired.get(ticket.priority).increment();
+        if (queue.remove(ticket)) {
+            queued.get(ticket.priority).decrementAndGet();
+            pending.tryAcquire();
+        }
+        return true;
+    }
+
+    private synchronized void startDispatcher() {
+        if (dispatcher != null) {
+            return;
+        }
+        Thread thread = new Thread(this::dispatch, "upstream-outbound-scheduler");
+        thread.setDaemon(true);
+        thread.start();
+        dispatcher = thread;
+        log.info("Scheduling upstream calls at {} per second", limiter.rate());
+    }
+
+    private void dispatch() {
+        try {
+            while (true) {
+                pending.acquire();
+                Duration wait = limiter.reserve();
+                if (!wait.isZero()) {
+                    TimeUnit.NANOSECONDS.sleep(wait.toNanos());
+                }
+                // Taken after the wait, so calls that arrived meanwhile compete by priority
+                admitNext();
+            }
+        } catch (InterruptedException e) {
+            log.info("Upstream call scheduler stopped");
+        }
+    }
+
+    private void admitNext() {
+        Ticket ticket = queue.poll();
+        while (ticket != null) {
+            queued.get(ticket.priority).decrementAndGet();
+            if (ticket.remainingNanos() < 0) {
+                if (ticket.admission.cancel(false)) {
+                    expired.get(ticket.priority).increment();
+                }
+            } else if (ticket.admission.complete(null)) {
+                waitTimes.get(ticket.priority).record(System.nanoTime() - ticket.queuedAt, TimeUnit.NANOSECONDS);
+                return;
+            }
+            // Its caller is gone; the token goes to the next one instead
+            if (!pending.tryAcquire()) {
+                return;
+            }
+            ticket = queue.poll();
+        }
+    }
+
+    private void observe(Throwable e) {
+        if (e instanceof UpstreamUnavailableException) {
+            // Refused on this side; upstream never saw it
+            return;
+        }
+        int status;
+        HttpHeaders headers;
+        if (e instanceof HttpStatusCodeException) {
+            status = ((HttpStatusCodeException) e).getRawStatusCode();
+            headers = ((HttpStatusCodeException) e).getResponseHeaders();
+        } else if (e instanceof WebClientResponseException) {
+            status = ((WebClientResponseException) e).getRawStatusCode();
+            headers = ((WebClientResponseException) e).getHeaders();
+        } else {
+            return;
+        }
+        if (status != HttpStatus.TOO_MANY_REQUESTS.value()) {
+            // A client error still shows upstream took the call; a server error leaves the rate as it is
+            if (status < 500) {
+                limiter.onAccepted();
+            }
+            return;
+        }
+        Duration pause = RetryAfter.of(headers, properties.getDefaultRetryAfter());
+        throttled.increment();
+        limiter.onThrottled(pause);
+        log.warn("Upstream is throttling, pausing calls for {} and sending at most {} per second", pause, limiter.rate());
+    }
+
+    private UpstreamUnavailableException expired(String route, CallPriority priority) {
+        return new UpstreamUnavailableException(route, "no " + name(priority) + " slot within "
+                + properties.maxWaitFor(priority).toMillis() + "ms");
+    }
+
+    private static String name(CallPriority priority) {
+        return priority.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Ticket implements Comparable<Ticket> {
+        private final CallPriority priority;
+        private final long sequence;
+        private final long queuedAt = System.nanoTime();
+        private final long deadline;
+        private final CompletableFuture<Void> admission = new CompletableFuture<>();
+
+        Ticket(CallPriority priority, long sequence, Duration maxWait) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.deadline = queuedAt + maxWait.toNanos();
+        }
+
+        long remainingNanos() {
+            return deadline - System.nanoTime();
+        }
+
+        @Override
+        public int compareTo(Ticket other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.rqchallenge.upstream;
+
+import com.example.rqchallenge.dtos.Employee;
+import com.example.rqchallenge.dtos.EmployeeResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking counterpart of {@link EmployeeApiClient}. Calls share the pooled connections of
+ * the {@code employeeWebClient} and never park a request thread while upstream responds.
+ */
+@Component
+@Slf4j
+public class ReactiveEmployeeApiClient {
+
+    private final WebClient webClient;
+    private final SingleFlight<String, ResponseEntity<EmployeeResponse>> employeesFlight;
+    private final SingleFlight<String, ResponseEntity<EmployeeResponse>> employeeFlight;
+    private final UpstreamGuard employeesGuard;
+    private final UpstreamGuard employeeGuard;
+    private final UpstreamGuard createGuard;
+    private final UpstreamGuard deleteGuard;
+    private final OutboundScheduler scheduler;
+
+    public ReactiveEmployeeApiClient(WebClient employeeWebClient, UpstreamResilience resilience,
+                                     OutboundScheduler scheduler, MeterRegistry meterRegistry) {
+        this.webClient = employeeWebClient;
+        this.scheduler = scheduler;
+        this.employeesFlight = new SingleFlight<>("reactive:/employees", meterRegistry);
+        this.employeeFlight = new SingleFlight<>("reactive:/employee/{id}", meterRegistry);
+        this.employeesGuard = resilience.guard("employees");
+        this.employeeGuard = resilience.guard("employee");
+        this.createGuard = resilience.guard("create");
+        this.deleteGuard = resilience.guard("delete");
+    }
+
+    public Mono<ResponseEntity<EmployeeResponse>> getEmployees() {
+        // Coalesced per priority, so a client's read never queues behind a batch or background call
+        return Mono.deferContextual(context -> employeesFlight.executeReactive(OutboundScheduler.priorityOf(context).name(),
+                () -> scheduler.callReactive("employees", () -> employeesGuard.callReactive(
+                        () -> webClient.get().uri("/employees").retrieve().toEntity(EmployeeResponse.class)))));
+    }
+
+    public Mono<ResponseEntity<EmployeeResponse>> getEmployee(String id) {
+        return Mono.deferContextual(context -> employeeFlight.executeReactive(OutboundScheduler.priorityOf(context) + ":" + id,
+                () -> scheduler.callReactive("employee", () -> employeeGuard.callReactive(
+                        () -> webClient.get().uri("/employee/{id}", id).retrieve().toEntity(EmployeeResponse.class)))));
+    }
+
+    public Mono<ResponseEntity<EmployeeResponse>> createEmployee(Map<String, Object> employeeInput) {
+        return scheduler.callReactive("create", () -> createGuard.callReactive(
+                () -> webClient.post().uri("/create").bodyValue(employeeInput).retrieve().toEntity(EmployeeResponse.class)));
+    }
+
+    public Mono<ResponseEntity<EmployeeResponse>> deleteEmployee(String id) {
+        return scheduler.callReactive("delete", () -> deleteGuard.callReactive(
+                () -> webClient.delete().uri("/delete/{id}", id).retrieve().toEntity(EmployeeResponse.class)));
+    }
+
+    public Mono<List<Employee>> fetchAllEmployees() {
+        return getEmployees().flatMap(response -> {
+            if (response.getBody() != null && HttpStatus.OK.equals(response.getBody().getStatus())) {
+                List<Employee> employees = response.getBody().getEmployees();
+                return Mono.just(employees != null ? employees : Collections.<Employee>emptyList());
+            }
+            log.error("Failed to fetch employees: {}", response.getBody() != null ? response.getBody().getStatus() : "Unknown error");
+            return Mono.error(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to fetch employees"));
+        });
+    }
+}
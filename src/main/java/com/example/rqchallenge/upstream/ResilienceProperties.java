@@ -0,0 +1,79 @@
+package com.example.rqchallenge.upstream;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "employees.upstream.resilience")
+public class ResilienceProperties {
+
+    /**
+     * Policy applied to every upstream route without an entry in {@code routes}.
+     */
+    private Policy defaults = new Policy();
+
+    /**
+     * Per-route overrides, keyed by route name: {@code employees}, {@code employee}, {@code create}
+     * or {@code delete}.
+     */
+    private Map<String, Policy> routes = new HashMap<>();
+
+    public Policy policyFor(String route) {
+        return routes.getOrDefault(route, defaults);
+    }
+
+    @Data
+    public static class Policy {
+
+        /**
+         * Number of most recent calls the failure rate is computed over.
+         */
+        private int slidingWindowSize = 20;
+
+        /**
+         * Calls that must be in the window before the circuit may open.
+         */
+        private int minimumCalls = 10;
+
+        /**
+         * Failure percentage at or above which the circuit opens.
+         */
+        private int failureRateThreshold = 50;
+
+        /**
+         * How long an open circuit rejects calls before letting trial calls through.
+         */
+        private Duration openDuration = Duration.ofSeconds(10);
+
+        /**
+         * Trial calls allowed while half-open; all of them must succeed to close the circuit.
+         */
+        private int halfOpenCalls = 3;
+
+        /**
+         * Calls of this route allowed in flight at once.
+         */
+        private int maxConcurrent = 20;
+
+        /**
+         * How long a call waits for a free slot before it is rejected.
+         */
+        private Duration maxWait = Duration.ofMillis(100);
+
+        /**
+         * The read timeout is this percentile of recent successful call latencies times
+         * {@code timeoutMultiplier}, kept between {@code minTimeout} and {@code maxTimeout}.
+         */
+        private double timeoutPercentile = 0.99;
+
+        private double timeoutMultiplier = 2.0;
+
+        private Duration minTimeout = Duration.ofMillis(250);
+
+        private Duration maxTimeout = Duration.ofSeconds(3);
+    }
+}
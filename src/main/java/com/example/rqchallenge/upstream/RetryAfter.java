@@ -0,0 +1,39 @@
+package com.example.rqchallenge.upstream;
+
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Reads the {@code Retry-After} header of a throttled response, in either of its forms: a number
+ * of seconds or an HTTP date.
+ */
+public final class RetryAfter {
+
+    private RetryAfter() {
+    }
+
+    /**
+     * @return how long upstream asked to wait, or {@code fallback} when the header is missing or unreadable
+     */
+    public static Duration of(HttpHeaders headers, Duration fallback) {
+        String value = headers != null ? headers.getFirst(HttpHeaders.RETRY_AFTER) : null;
+        if (value != null) {
+            try {
+                return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+            } catch (NumberFormatException e) {
+                try {
+                    Duration until = Duration.between(ZonedDateTime.now(),
+                            ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                    return until.isNegative() ? Duration.ZERO : until;
+                } catch (DateTimeParseException ignored) {
+                    // Fall through to the fallback
+                }
+            }
+        }
+        return fallback;
+    }
+}
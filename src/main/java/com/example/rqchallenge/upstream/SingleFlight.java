@@ -0,0 +1,101 @@
+package com.example.rqchallenge.upstream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one upstream request. The first caller issues
+ * the request; everyone arriving while it is in flight waits for and shares its result or failure.
+ * If the first caller cancels a reactive request, those waiting on it issue the request again.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter issued;
+    private final Counter coalesced;
+
+    public SingleFlight(String route, MeterRegistry meterRegistry) {
+        this.issued = Counter.builder("employees.upstream.singleflight")
+                .tag("route", route)
+                .tag("result", "issued")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("employees.upstream.singleflight")
+                .tag("route", route)
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+            try {
+                return await(existing);
+            } catch (CancellationException e) {
+                return execute(key, call);
+            }
+        }
+
+        issued.increment();
+        try {
+            V result = call.get();
+            mine.complete(result);
+            return result;
+        } catch (Throwable e) {
+            // Errors too, or those waiting would never wake up
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public Mono<V> executeReactive(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> {
+            CompletableFuture<V> mine = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+            if (existing != null) {
+                coalesced.increment();
+                // The issuing subscriber went away before the result arrived: try again
+                return Mono.fromFuture(existing)
+                        .onErrorResume(SingleFlight::isCancellation, e -> executeReactive(key, call));
+            }
+
+            issued.increment();
+            return Mono.defer(call)
+                    .doOnSuccess(mine::complete)
+                    .doOnError(mine::completeExceptionally)
+                    .doFinally(signal -> {
+                        inFlight.remove(key, mine);
+                        // Waiters must not hang if the issuing subscriber cancels
+                        mine.cancel(false);
+                    });
+        });
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isCancellation(Throwable e) {
+        return e instanceof CancellationException || e.getCause() instanceof CancellationException;
+    }
+}
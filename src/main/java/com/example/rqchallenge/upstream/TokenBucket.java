@@ -0,0 +1,69 @@
+package com.example.rqchallenge.upstream;
+
+import java.time.Duration;
+
+/**
+ * Token bucket handing out reservations: callers ask how long to wait before their call may go
+ * out instead of blocking, so reactive pipelines can delay without parking a thread. Up to one
+ * second's worth of calls may burst after an idle period.
+ */
+public final class TokenBucket {
+
+    private double ratePerNano;
+    private double capacity;
+    private double tokens;
+    private long refilledAt = System.nanoTime();
+    private long pausedUntil = refilledAt;
+
+    public TokenBucket(double ratePerSecond) {
+        this.ratePerNano = ratePerSecond / 1e9;
+        this.capacity = Math.max(1, ratePerSecond);
+        this.tokens = capacity;
+    }
+
+    /**
+     * Takes one token and returns how long the caller must wait before using it.
+     */
+    public synchronized Duration reserve() {
+        long now = refill();
+        tokens -= 1;
+        long waitNanos = tokens >= 0 ? 0 : (long) (-tokens / ratePerNano);
+        return Duration.ofNanos(Math.max(waitNanos, pausedUntil - now));
+    }
+
+    /**
+     * Takes one token if it can be used right away.
+     */
+    public synchronized boolean tryAcquire() {
+        long now = refill();
+        if (tokens < 1 || pausedUntil - now > 0) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    /**
+     * Changes the rate from now on. Tokens already accrued are kept, up to the new burst size.
+     */
+    public synchronized void setRate(double ratePerSecond) {
+        refill();
+        ratePerNano = ratePerSecond / 1e9;
+        capacity = Math.max(1, ratePerSecond);
+        tokens = Math.min(capacity, tokens);
+    }
+
+    /**
+     * Holds back every reservation for {@code period}, e.g. when upstream signals it is throttling.
+     */
+    public synchronized void pauseFor(Duration period) {
+        pausedUntil = Math.max(pausedUntil, System.nanoTime() + period.toNanos());
+    }
+
+    private long refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * ratePerNano);
+        refilledAt = now;
+        return now;
+    }
+}
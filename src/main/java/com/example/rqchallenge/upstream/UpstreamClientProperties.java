@@ -0,0 +1,46 @@
+package com.example.rqchallenge.upstream;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "employees.upstream")
+public class UpstreamClientProperties {
+
+    /**
+     * Root of the upstream employee API. Point it at a local stand-in to profile without the public API.
+     */
+    private String baseUrl = "https://dummy.restapiexample.com/api/v1";
+
+    /**
+     * Upper bound on open connections to the upstream API, shared by all reactive calls.
+     */
+    private int maxConnections = 100;
+
+    /**
+     * How many calls may wait for a pooled connection before new ones are rejected.
+     */
+    private int pendingAcquireMaxCount = 500;
+
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(3);
+
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    private Duration connectTimeout = Duration.ofMillis(3000);
+
+    private Duration responseTimeout = Duration.ofMillis(3000);
+
+    /**
+     * Largest response body a reactive call may buffer while decoding it. The full roster arrives
+     * as one body, so this bounds the roster size the reactive endpoints can load.
+     */
+    private DataSize maxInMemorySize = DataSize.ofMegabytes(64);
+
+    /**
+     * Offer HTTP/2 during the TLS handshake, falling back to HTTP/1.1 when the upstream does not support it.
+     */
+    private boolean http2 = true;
+}
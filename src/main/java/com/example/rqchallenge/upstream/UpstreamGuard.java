@@ -0,0 +1,191 @@
+package com.example.rqchallenge.upstream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker, bulkhead and adaptive read timeout for one upstream route. Blocking and
+ * reactive calls to the same route share all three.
+ */
+public final class UpstreamGuard {
+
+    private final String route;
+    private final ResilienceProperties.Policy policy;
+    private final CircuitBreaker breaker;
+    private final Semaphore bulkhead;
+    private final AdaptiveTimeout timeout;
+    private final Counter breakerRejected;
+    private final Counter bulkheadRejected;
+    private final Timer succeeded;
+    private final Timer failed;
+    private final Timer refused;
+
+    UpstreamGuard(String route, ResilienceProperties.Policy policy, MeterRegistry meterRegistry) {
+        this.route = route;
+        this.policy = policy;
+        this.breaker = new CircuitBreaker(route, policy);
+        this.bulkhead = new Semaphore(policy.getMaxConcurrent());
+        this.timeout = new AdaptiveTimeout(policy);
+        Gauge.builder("employees.upstream.breaker.state", breaker, b -> b.state().ordinal())
+                .description("0 closed, 1 half-open, 2 open")
+                .tag("route", route)
+                .register(meterRegistry);
+        Gauge.builder("employees.upstream.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .tag("route", route)
+                .register(meterRegistry);
+        Gauge.builder("employees.upstream.timeout", timeout, t -> t.current().toMillis() / 1000.0)
+                .baseUnit("seconds")
+                .tag("route", route)
+                .register(meterRegistry);
+        this.breakerRejected = Counter.builder("employees.upstream.breaker.rejected")
+                .tag("route", route)
+                .register(meterRegistry);
+        this.bulkheadRejected = Counter.builder("employees.upstream.bulkhead.rejected")
+                .tag("route", route)
+                .register(meterRegistry);
+        this.succeeded = requestTimer(route, "success", meterRegistry);
+        this.failed = requestTimer(route, "failure", meterRegistry);
+        this.refused = requestTimer(route, "client_error", meterRegistry);
+    }
+
+    private static Timer requestTimer(String route, String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("employees.upstream.requests")
+                .description("Upstream calls that got past the breaker and bulkhead")
+                .tag("route", route)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public <T> T call(Supplier<T> call) {
+        long permit = acquireBreaker();
+        try {
+            if (!bulkhead.tryAcquire(policy.getMaxWait().toNanos(), TimeUnit.NANOSECONDS)) {
+                throw rejectedByBulkhead(permit);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            breaker.release(permit);
+            throw new UpstreamUnavailableException(route, "interrupted while waiting for a slot");
+        }
+
+        Duration limit = readTimeout();
+        Duration previous = AdaptiveTimeoutRequestFactory.useReadTimeout(limit);
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            onSuccess(permit, start);
+            return result;
+        } catch (RuntimeException e) {
+            onError(permit, start, limit, e);
+            throw e;
+        } finally {
+            AdaptiveTimeoutRequestFactory.restoreReadTimeout(previous);
+            bulkhead.release();
+        }
+    }
+
+    public <T> Mono<T> callReactive(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            long permit = acquireBreaker();
+            // Reactive callers never park a thread, so a full bulkhead rejects immediately
+            if (!bulkhead.tryAcquire()) {
+                return Mono.error(rejectedByBulkhead(permit));
+            }
+            Duration limit = readTimeout();
+            long start = System.nanoTime();
+            return call.get()
+                    .timeout(limit)
+                    .doOnSuccess(result -> onSuccess(permit, start))
+                    .doOnError(e -> onError(permit, start, limit, e))
+                    .doOnCancel(() -> breaker.release(permit))
+                    .doFinally(signal -> bulkhead.release());
+        });
+    }
+
+    /**
+     * Half-open trials get the longest timeout, so a recovered but slower upstream can close the
+     * circuit instead of failing every trial against a limit learned while it was fast.
+     */
+    private Duration readTimeout() {
+        return breaker.state() == CircuitBreaker.State.HALF_OPEN ? policy.getMaxTimeout() : timeout.current();
+    }
+
+    private long acquireBreaker() {
+        long permit = breaker.tryAcquire();
+        if (permit == CircuitBreaker.REJECTED) {
+            breakerRejected.increment();
+            throw new UpstreamUnavailableException(route, "circuit open");
+        }
+        return permit;
+    }
+
+    private UpstreamUnavailableException rejectedByBulkhead(long permit) {
+        breaker.release(permit);
+        bulkheadRejected.increment();
+        return new UpstreamUnavailableException(route, "too many calls in flight");
+    }
+
+    private void onSuccess(long permit, long start) {
+        long latency = System.nanoTime() - start;
+        succeeded.record(latency, TimeUnit.NANOSECONDS);
+        timeout.record(latency);
+        breaker.onSuccess(permit);
+    }
+
+    private void onError(long permit, long start, Duration limit, Throwable e) {
+        long latency = System.nanoTime() - start;
+        if (isUpstreamFailure(e)) {
+            failed.record(latency, TimeUnit.NANOSECONDS);
+            if (isTimeout(e)) {
+                timeout.recordTimeout(limit.toNanos());
+            }
+            breaker.onFailure(permit);
+        } else {
+            // Upstream answered, it just said no (e.g. 404), which says nothing about its health
+            refused.record(latency, TimeUnit.NANOSECONDS);
+            timeout.record(latency);
+            breaker.onSuccess(permit);
+        }
+    }
+
+    static boolean isTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException || cause instanceof SocketTimeoutException
+                    || cause instanceof ReadTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean isUpstreamFailure(Throwable e) {
+        if (e instanceof ResourceAccessException || e instanceof WebClientRequestException || e instanceof TimeoutException) {
+            return true;
+        }
+        int status;
+        if (e instanceof HttpStatusCodeException) {
+            status = ((HttpStatusCodeException) e).getRawStatusCode();
+        } else if (e instanceof WebClientResponseException) {
+            status = ((WebClientResponseException) e).getRawStatusCode();
+        } else {
+            return false;
+        }
+        return status >= 500 || status == HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+}
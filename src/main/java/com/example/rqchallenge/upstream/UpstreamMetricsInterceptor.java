@@ -0,0 +1,170 @@
+package com.example.rqchallenge.upstream;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the size of each upstream response body and the time from its headers until the body
+ * was read, per route, for both the {@code RestTemplate} and the {@code WebClient}. The body read
+ * timer covers receiving the body, and on the blocking client the Jackson parse that consumes it as
+ * it arrives; the time to first byte is the difference to {@code employees.upstream.requests}.
+ */
+public class UpstreamMetricsInterceptor implements ClientHttpRequestInterceptor, ExchangeFilterFunction {
+
+    private static final String[] ROUTES = {"employees", "employee", "create", "delete", "other"};
+
+    private final Map<String, DistributionSummary> payloadSizes = new HashMap<>();
+    private final Map<String, Timer> bodyReadTimes = new HashMap<>();
+
+    public UpstreamMetricsInterceptor(MeterRegistry meterRegistry) {
+        for (String route : ROUTES) {
+            payloadSizes.put(route, DistributionSummary.builder("employees.upstream.payload")
+                    .baseUnit("bytes")
+                    .tag("route", route)
+                    .register(meterRegistry));
+            bodyReadTimes.put(route, Timer.builder("employees.upstream.body.read")
+                    .tag("route", route)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        ClientHttpResponse response = execution.execute(request, body);
+        String route = routeOf(request.getURI().getPath());
+        return new MeteredResponse(response, payloadSizes.get(route), bodyReadTimes.get(route));
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String route = routeOf(request.url().getPath());
+        DistributionSummary payloadSize = payloadSizes.get(route);
+        Timer bodyReadTime = bodyReadTimes.get(route);
+        return next.exchange(request).map(response -> {
+            long headersAt = System.nanoTime();
+            AtomicLong bytes = new AtomicLong();
+            AtomicBoolean recorded = new AtomicBoolean();
+            // The codecs decode once the body completes, so this stops at the last byte received
+            return response.mutate()
+                    .body(body -> body
+                            .doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()))
+                            .doFinally(signal -> {
+                                if (recorded.compareAndSet(false, true)) {
+                                    payloadSize.record(bytes.get());
+                                    bodyReadTime.record(System.nanoTime() - headersAt, TimeUnit.NANOSECONDS);
+                                }
+                            }))
+                    .build();
+        });
+    }
+
+    static String routeOf(String path) {
+        if (path.endsWith("/employees")) {
+            return "employees";
+        }
+        if (path.contains("/employee/")) {
+            return "employee";
+        }
+        if (path.endsWith("/create")) {
+            return "create";
+        }
+        if (path.contains("/delete/")) {
+            return "delete";
+        }
+        return "other";
+    }
+
+    private static final class MeteredResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final DistributionSummary payloadSize;
+        private final Timer bodyReadTime;
+        private final long headersAt = System.nanoTime();
+        private long bytes;
+        private boolean recorded;
+        private InputStream body;
+
+        MeteredResponse(ClientHttpResponse delegate, DistributionSummary payloadSize, Timer bodyReadTime) {
+            this.delegate = delegate;
+            this.payloadSize = payloadSize;
+            this.bodyReadTime = bodyReadTime;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new FilterInputStream(delegate.getBody()) {
+                    @Override
+                    public int read() throws IOException {
+                        int b = super.read();
+                        if (b >= 0) {
+                            bytes++;
+                        }
+                        return b;
+                    }
+
+                    @Override
+                    public int read(byte[] buffer, int offset, int length) throws IOException {
+                        int n = super.read(buffer, offset, length);
+                        if (n > 0) {
+                            bytes += n;
+                        }
+                        return n;
+                    }
+                };
+            }
+            return body;
+        }
+
+        @Override
+        public HttpStatus getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public int getRawStatusCode() throws IOException {
+            return delegate.getRawStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public void close() {
+            // RestTemplate closes the response once the extractor is done with the body
+            if (!recorded) {
+                recorded = true;
+                payloadSize.record(bytes);
+                bodyReadTime.record(System.nanoTime() - headersAt, TimeUnit.NANOSECONDS);
+            }
+            delegate.close();
+        }
+    }
+}
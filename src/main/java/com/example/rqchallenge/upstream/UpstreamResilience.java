@@ -0,0 +1,27 @@
+package com.example.rqchallenge.upstream;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out the {@link UpstreamGuard} of each upstream route, so the blocking and reactive
+ * clients trip and recover together.
+ */
+@Component
+public class UpstreamResilience {
+
+    private final ResilienceProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, UpstreamGuard> guards = new ConcurrentHashMap<>();
+
+    public UpstreamResilience(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public UpstreamGuard guard(String route) {
+        return guards.computeIfAbsent(route, key -> new UpstreamGuard(key, properties.policyFor(key), meterRegistry));
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.rqchallenge.upstream;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+
+/**
+ * Thrown without calling upstream when a route's circuit is open or its bulkhead is full.
+ * Surfaces to clients as a 503.
+ */
+public class UpstreamUnavailableException extends HttpServerErrorException {
+
+    public UpstreamUnavailableException(String route, String reason) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "Upstream " + route + " unavailable: " + reason);
+    }
+}
@@ -1,19 +1,64 @@
 package com.example.rqchallenge;
 
+import com.example.rqchallenge.cache.ByIdCacheProperties;
+import com.example.rqchallenge.cache.EmployeeByIdCache;
+import com.example.rqchallenge.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.cache.SnapshotCacheProperties;
+import com.example.rqchallenge.cluster.ClusterProperties;
+import com.example.rqchallenge.cluster.EmployeeCacheSync;
+import com.example.rqchallenge.cluster.LocalCacheEventBus;
+import com.example.rqchallenge.dtos.BatchWriteResult;
+import com.example.rqchallenge.dtos.EmployeeBatchResponse;
+import com.example.rqchallenge.dtos.EmployeePage;
+import com.example.rqchallenge.dtos.EmployeeStats;
+import com.example.rqchallenge.employees.BatchLookupProperties;
+import com.example.rqchallenge.employees.BatchWriteProperties;
+import com.example.rqchallenge.employees.ChangeFeedProperties;
+import com.example.rqchallenge.employees.EmployeeBatchLookup;
+import com.example.rqchallenge.employees.EmployeeBatchWriter;
 import com.example.rqchallenge.employees.EmployeeController;
+import com.example.rqchallenge.employees.EmployeeStatistics;
+import com.example.rqchallenge.employees.EmployeeStreamWriter;
+import com.example.rqchallenge.employees.ReactiveEmployeeController;
+import com.example.rqchallenge.employees.RosterChangeFeed;
+import com.example.rqchallenge.employees.StatsProperties;
 import com.example.rqchallenge.dtos.Employee;
 import com.example.rqchallenge.dtos.EmployeeResponse;
+import com.example.rqchallenge.index.NameMatch;
+import com.example.rqchallenge.index.SortDirection;
+import com.example.rqchallenge.index.SortField;
+import com.example.rqchallenge.upstream.EmployeeApiClient;
+import com.example.rqchallenge.upstream.OutboundProperties;
+import com.example.rqchallenge.upstream.OutboundScheduler;
+import com.example.rqchallenge.upstream.ReactiveEmployeeApiClient;
+import com.example.rqchallenge.upstream.ResilienceProperties;
+import com.example.rqchallenge.upstream.UpstreamClientProperties;
+import com.example.rqchallenge.upstream.UpstreamResilience;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.DefaultResponseErrorHandler;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
-
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,10 +72,32 @@ class RqChallengeApplicationTests {
 
     private RestTemplate restTemplate;
 
+    private ReactiveEmployeeApiClient reactiveApiClient;
+
+    private ReactiveEmployeeController reactiveController;
+
     @BeforeEach
     void setUp() {
         restTemplate = mock(RestTemplate.class);
-        employeeController = new EmployeeController(restTemplate);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        EmployeeApiClient apiClient = new EmployeeApiClient(restTemplate, new UpstreamClientProperties(),
+                new UpstreamResilience(new ResilienceProperties(), meterRegistry),
+                new OutboundScheduler(new OutboundProperties(), meterRegistry), meterRegistry);
+        EmployeeSnapshotCache snapshotCache = new EmployeeSnapshotCache(apiClient, new SnapshotCacheProperties(), meterRegistry);
+        EmployeeByIdCache byIdCache = new EmployeeByIdCache(new ByIdCacheProperties(), meterRegistry);
+        EmployeeBatchLookup batchLookup = new EmployeeBatchLookup(apiClient, snapshotCache, byIdCache, new BatchLookupProperties());
+        EmployeeStreamWriter streamWriter = new EmployeeStreamWriter(apiClient, snapshotCache, new ObjectMapper());
+        reactiveApiClient = mock(ReactiveEmployeeApiClient.class);
+        BatchWriteProperties batchWriteProperties = new BatchWriteProperties();
+        batchWriteProperties.setMinBackoff(Duration.ofMillis(1));
+        EmployeeCacheSync cacheSync = new EmployeeCacheSync(snapshotCache, byIdCache, new LocalCacheEventBus(),
+                new ClusterProperties(), meterRegistry);
+        EmployeeBatchWriter batchWriter = new EmployeeBatchWriter(reactiveApiClient, cacheSync, batchWriteProperties, meterRegistry);
+        EmployeeStatistics statistics = new EmployeeStatistics(new StatsProperties(), meterRegistry);
+        RosterChangeFeed changeFeed = new RosterChangeFeed(snapshotCache, new ChangeFeedProperties(), meterRegistry);
+        employeeController = new EmployeeController(apiClient, snapshotCache, byIdCache, batchLookup, streamWriter, batchWriter,
+                statistics, changeFeed, cacheSync);
+        reactiveController = new ReactiveEmployeeController(reactiveApiClient, snapshotCache, byIdCache, cacheSync);
     }
 
 
@@ -53,6 +120,97 @@ class RqChallengeApplicationTests {
         assertEquals(1, response.getBody().size());
     }
 
+    @Test
+    void getAllEmployees_ServedFromSnapshot() {
+        EmployeeResponse mockResponse = new EmployeeResponse();
+        mockResponse.setStatus(HttpStatus.OK);
+        mockResponse.setEmployees(Collections.singletonList(
+                Employee.builder().id("1").employeeName("Mr Cached").employeeSalary("50000").employeeAge("30").profileImage("").build()
+        ));
+
+        when(restTemplate.getForEntity(anyString(), eq(EmployeeResponse.class)))
+                .thenReturn(new ResponseEntity<>(mockResponse, HttpStatus.OK));
+
+        employeeController.getAllEmployees();
+        employeeController.getHighestSalaryOfEmployees();
+        employeeController.getEmployeesByNameSearch("Cached");
+
+        verify(restTemplate, times(1)).getForEntity(anyString(), eq(EmployeeResponse.class));
+    }
+
+    @Test
+    void getAllEmployees_DeleteAppliedWithoutRefetch() {
+        EmployeeResponse listResponse = new EmployeeResponse();
+        listResponse.setStatus(HttpStatus.OK);
+        listResponse.setEmployees(Collections.singletonList(
+                Employee.builder().id("1").employeeName("Mr Deleted").employeeSalary("50000").employeeAge("30").profileImage("").build()
+        ));
+        EmployeeResponse deleteResponse = new EmployeeResponse();
+        deleteResponse.setStatus(HttpStatus.OK);
+
+        when(restTemplate.getForEntity(anyString(), eq(EmployeeResponse.class)))
+                .thenReturn(new ResponseEntity<>(listResponse, HttpStatus.OK));
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.DELETE), any(), eq(EmployeeResponse.class)))
+                .thenReturn(new ResponseEntity<>(deleteResponse, HttpStatus.OK));
+
+        employeeController.getAllEmployees();
+        employeeController.deleteEmployeeById("1");
+        ResponseEntity<List<Employee>> response = employeeController.getAllEmployees();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Collections.emptyList(), response.getBody());
+        assertEquals(HttpStatus.NOT_FOUND, employeeController.getHighestSalaryOfEmployees().getStatusCode());
+        verify(restTemplate, times(1)).getForEntity(anyString(), eq(EmployeeResponse.class));
+    }
+
+    @Test
+    void streamAllEmployees_NdjsonFromUpstream() throws Exception {
+        stubStreamedRoster("{\"status\":\"OK\",\"employees\":["
+                + "{\"id\":\"1\",\"employeeName\":\"Mr Stream\",\"employeeSalary\":\"1\",\"employeeAge\":\"30\",\"profileImage\":\"\"},"
+                + "{\"employeeName\":\"Mrs Stream\",\"id\":\"2\"}]}");
+
+        ResponseEntity<StreamingResponseBody> response = employeeController.streamAllEmployees("ndjson");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("{\"id\":\"1\",\"employeeName\":\"Mr Stream\",\"employeeSalary\":\"1\",\"employeeAge\":\"30\",\"profileImage\":\"\"}\n"
+                        + "{\"id\":\"2\",\"employeeName\":\"Mrs Stream\",\"employeeSalary\":null,\"employeeAge\":null,\"profileImage\":null}\n",
+                out.toString(StandardCharsets.UTF_8));
+        verify(restTemplate, never()).getForEntity(anyString(), eq(EmployeeResponse.class));
+    }
+
+    @Test
+    void streamAllEmployees_UpstreamErrorBeforeCommitting() throws Exception {
+        stubStreamedRoster("{\"status\":\"FAILED\",\"employees\":[]}");
+
+        ResponseEntity<StreamingResponseBody> response = employeeController.streamAllEmployees("json");
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void streamAllEmployees_UpstreamFailingMidArrayLeavesItOpen() throws Exception {
+        stubStreamedRoster("{\"status\":\"OK\",\"employees\":["
+                + "{\"id\":\"1\",\"employeeName\":\"Mr Stream\",\"employeeSalary\":\"1\",\"employeeAge\":\"30\",\"profileImage\":\"\"},"
+                + "{\"id\":\"2\",\"employeeNa");
+
+        ResponseEntity<StreamingResponseBody> response = employeeController.streamAllEmployees("json");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThrows(IOException.class, () -> response.getBody().writeTo(out));
+        assertEquals("[{\"id\":\"1\",\"employeeName\":\"Mr Stream\",\"employeeSalary\":\"1\",\"employeeAge\":\"30\",\"profileImage\":\"\"}",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    private void stubStreamedRoster(String payload) {
+        MockClientHttpRequest request = new MockClientHttpRequest();
+        request.setResponse(new MockClientHttpResponse(payload.getBytes(StandardCharsets.UTF_8), HttpStatus.OK));
+        when(restTemplate.getRequestFactory()).thenReturn((uri, method) -> request);
+        when(restTemplate.getErrorHandler()).thenReturn(new DefaultResponseErrorHandler());
+    }
+
     @Test
     void getEmployeesByNameSearch_Success() {
         List<Employee> mockEmployees = Arrays.asList(
@@ -73,6 +231,33 @@ class RqChallengeApplicationTests {
         assertEquals(2, response.getBody().size());
     }
 
+    @Test
+    void searchEmployees_PrefixIgnoringAccents() {
+        List<Employee> mockEmployees = Arrays.asList(
+                Employee.builder().id("1").employeeName("Zoë Adams").employeeSalary("50000").employeeAge("30").profileImage("").build(),
+                Employee.builder().id("2").employeeName("Zoe Baker").employeeSalary("60000").employeeAge("35").profileImage("").build(),
+                Employee.builder().id("3").employeeName("Adam Zoellner").employeeSalary("70000").employeeAge("40").profileImage("").build()
+        );
+        EmployeeResponse mockResponse = new EmployeeResponse();
+        mockResponse.setStatus(HttpStatus.OK);
+        mockResponse.setEmployees(mockEmployees);
+
+        when(restTemplate.getForEntity(anyString(), eq(EmployeeResponse.class)))
+                .thenReturn(new ResponseEntity<>(mockResponse, HttpStatus.OK));
+
+        ResponseEntity<List<Employee>> accentSensitive = employeeController.searchEmployees("zoe", NameMatch.PREFIX, false, 10);
+        ResponseEntity<List<Employee>> accentInsensitive = employeeController.searchEmployees("zoe", NameMatch.PREFIX, true, 10);
+        ResponseEntity<List<Employee>> contains = employeeController.searchEmployees("ZOE", NameMatch.CONTAINS, true, 10);
+        ResponseEntity<List<Employee>> limited = employeeController.searchEmployees("zoe", NameMatch.CONTAINS, true, 1);
+
+        assertEquals(1, accentSensitive.getBody().size());
+        assertEquals("2", accentSensitive.getBody().get(0).getId());
+        assertEquals(2, accentInsensitive.getBody().size());
+        assertEquals(3, contains.getBody().size());
+        assertEquals(1, limited.getBody().size());
+        assertEquals("1", limited.getBody().get(0).getId());
+    }
+
     @Test
     void getEmployeeById_Success() {
         Employee mockEmployee = Employee.builder().id("1").employeeName("Mr TestID").employeeSalary("50000").employeeAge("30").profileImage("").build();
@@ -90,6 +275,130 @@ class RqChallengeApplicationTests {
         assertEquals("Mr TestID", response.getBody().getEmployeeName());
     }
 
+    @Test
+    void getEmployeeById_ServedFromSnapshotAndNegativeCache() {
+        EmployeeResponse listResponse = new EmployeeResponse();
+        listResponse.setStatus(HttpStatus.OK);
+        listResponse.setEmployees(Collections.singletonList(
+                Employee.builder().id("1").employeeName("Mr Listed").employeeSalary("50000").employeeAge("30").profileImage("").build()
+        ));
+        when(restTemplate.getForEntity(endsWith("/employees"), eq(EmployeeResponse.class)))
+                .thenReturn(new ResponseEntity<>(listResponse, HttpStatus.OK));
+        when(restTemplate.getForEntity(endsWith("/employee/999"), eq(EmployeeResponse.class)))
+                .thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+
+        employeeController.getAllEmployees();
+        ResponseEntity<Employee> listed = employeeController.getEmployeeById("1");
+        ResponseEntity<Employee> firstMiss = employeeController.getEmployeeById("999");
+        ResponseEntity<Employee> secondMiss = employeeController.getEmployeeById("999");
+
+        assertEquals(HttpStatus.OK, listed.getStatusCode());
+        assertEquals("Mr Listed", listed.getBody().getEmployeeName());
+        assertEquals(HttpStatus.NOT_FOUND, firstMiss.getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, secondMiss.getStatusCode());
+        verify(restTemplate, never()).getForEntity(endsWith("/employee/1"), eq(EmployeeResponse.class));
+        verify(restTemplate, times(1)).getForEntity(endsWith("/employee/999"), eq(EmployeeResponse.class));
+    }
+
+    @Test
+    void getEmployeeById_SnapshotWinsOverEarlierByIdEntry() {
+        EmployeeResponse single = new EmployeeResponse();
+        single.setStatus(HttpStatus.OK);
+        single.setEmployees(Collections.singletonList(
+                Employee.builder().id("1").employeeName("Mr Before").employeeSalary("50000").employeeAge("30").profileImage("").build()
+        ));
+        EmployeeResponse listResponse = new EmployeeResponse();
+        listResponse.setStatus(HttpStatus.OK);
+        listResponse.setEmployees(Collections.singletonList(
+                Employee.builder().id("1").employeeName("Mr After").employeeSalary("60000").employeeAge("30").profileImage("").build()
+        ));
+        when(restTemplate.getForEntity(endsWith("/employee/1"), eq(EmployeeResponse.class)))
+                .thenReturn(new ResponseEntity<>(single, HttpStatus.OK));
+        when(restTemplate.getForEntity(endsWith("/employees"), eq(EmployeeResponse.class)))
+                .thenReturn(new ResponseEntity<>(listResponse, HttpStatus.OK));
+
+        assertEquals("Mr Before", employeeController.getEmployeeById("1").getBody().getEmployeeName());
+        employeeController.getAllEmployees();
+
+        assertEquals("Mr After", employeeController.getEmployeeById("1").getBody().getEmployeeName());
+        verify(restTemplate, times(1)).getForEntity(endsWith("/employee/1"), eq(EmployeeResponse.class));
+    }
+
+    @Test
+    void getEmployeesByIds_SmallBatchFansOut() {
+        Employee first = Employee.builder().id("1").employeeName("Mr Batch 1").employeeSalary("50000").employeeAge("30").profileImage("").build();
+        Employee second = Employee.builder().id("2").employeeName("Mr Batch 2").employeeSalary("60000").employeeAge("35").profileImage("").build();
+        when(restTemplate.getForEntity(endsWith("/employee/1"), eq(EmployeeResponse.class)))
+                .thenReturn(new ResponseEntity<>(singleEmployeeResponse(first), HttpStatus.OK));
+        when(restTemplate.getForEntity(endsWith("/employee/2"), eq(EmployeeResponse.class)))
+                .thenReturn(new ResponseEntity<>(singleEmployeeResponse(second), HttpStatus.OK));
+        when(restTemplate.getForEntity(endsWith("/employee/3"), eq(EmployeeResponse.class)))
+                .thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+
+        ResponseEntity<EmployeeBatchResponse> response = employeeController.getEmployeesByIds(Arrays.asList("2", "3", "1", "2"));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().getEmployees().size());
+        assertEquals("Mr Batch 2", response.getBody().getEmployees().get(0).getEmployeeName());
+        assertEquals(Collections.singletonList("3"), response.getBody().getMissing());
+        verify(restTemplate, never()).getForEntity(endsWith("/employees"), eq(EmployeeResponse.class));
+    }
+
+    @Test
+    void getEmployeesByIds_UnlistedIdsLookedUpLikeSingleReads() {
+        EmployeeResponse listResponse = new EmployeeResponse();
+        listResponse.setStatus(HttpStatus.OK);
+        listResponse.setEmployees(Collections.singletonList(
+                Employee.builder().id("1").employeeName("Mr Listed").employeeSalary("50000").employeeAge("30").profileImage("").build()
+        ));
+        Employee unlisted = Employee.builder().id("2").employeeName("Mr Unlisted").employeeSalary("60000").employeeAge("35").profileImage("").build();
+        when(restTemplate.getForEntity(endsWith("/employees"), eq(EmployeeResponse.class)))
+                .thenReturn(new ResponseEntity<>(listResponse, HttpStatus.OK));
+        when(restTemplate.getForEntity(endsWith("/employee/2"), eq(EmployeeResponse.class)))
+                .thenReturn(new ResponseEntity<>(singleEmployeeResponse(unlisted), HttpStatus.OK));
+        when(restTemplate.getForEntity(endsWith("/employee/3"), eq(EmployeeResponse.class)))
+                .thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+
+        employeeController.getAllEmployees();
+        ResponseEntity<EmployeeBatchResponse> response = employeeController.getEmployeesByIds(Arrays.asList("1", "2", "3"));
+
+        assertEquals(2, response.getBody().getEmployees().size());
+        assertEquals("Mr Unlisted", response.getBody().getEmployees().get(1).getEmployeeName());
+        assertEquals(Collections.singletonList("3"), response.getBody().getMissing());
+        assertEquals(HttpStatus.NOT_FOUND, employeeController.getEmployeeById("3").getStatusCode());
+        verify(restTemplate, never()).getForEntity(endsWith("/employee/1"), eq(EmployeeResponse.class));
+    }
+
+    @Test
+    void getEmployeesByIds_LargeBatchLeavesUnlistedIdsUnresolved() {
+        EmployeeResponse listResponse = new EmployeeResponse();
+        listResponse.setStatus(HttpStatus.OK);
+        listResponse.setEmployees(Collections.singletonList(
+                Employee.builder().id("1").employeeName("Mr Listed").employeeSalary("50000").employeeAge("30").profileImage("").build()
+        ));
+        when(restTemplate.getForEntity(endsWith("/employees"), eq(EmployeeResponse.class)))
+                .thenReturn(new ResponseEntity<>(listResponse, HttpStatus.OK));
+        List<String> ids = new ArrayList<>();
+        for (int i = 1; i <= 22; i++) {
+            ids.add(Integer.toString(i));
+        }
+
+        ResponseEntity<EmployeeBatchResponse> response = employeeController.getEmployeesByIds(ids);
+
+        assertEquals(1, response.getBody().getEmployees().size());
+        assertEquals(ids.subList(1, 22), response.getBody().getUnresolved());
+        assertTrue(response.getBody().getMissing().isEmpty());
+        verify(restTemplate, never()).getForEntity(endsWith("/employee/2"), eq(EmployeeResponse.class));
+    }
+
+    @Test
+    void getEmployeesByIds_InvalidId() {
+        ResponseEntity<EmployeeBatchResponse> response = employeeController.getEmployeesByIds(Arrays.asList("1", "invalid_id"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(restTemplate);
+    }
+
     @Test
     void getHighestSalaryOfEmployees_Success() {
         List<Employee> mockEmployees = Arrays.asList(
@@ -143,6 +452,58 @@ class RqChallengeApplicationTests {
     }
 
 
+    @Test
+    void getTopEarners_Success() {
+        List<Employee> mockEmployees = Arrays.asList(
+                Employee.builder().id("1").employeeName("Mr Test 1").employeeSalary("50000").employeeAge("30").profileImage("").build(),
+                Employee.builder().id("2").employeeName("Mr Test 2").employeeSalary("70000").employeeAge("35").profileImage("").build(),
+                Employee.builder().id("3").employeeName("Mr Test 3").employeeSalary("60000").employeeAge("40").profileImage("").build(),
+                Employee.builder().id("4").employeeName("Mr Test 4").employeeSalary("70000").employeeAge("45").profileImage("").build()
+        );
+        EmployeeResponse mockResponse = new EmployeeResponse();
+        mockResponse.setStatus(HttpStatus.OK);
+        mockResponse.setEmployees(mockEmployees);
+
+        when(restTemplate.getForEntity(anyString(), eq(EmployeeResponse.class)))
+                .thenReturn(new ResponseEntity<>(mockResponse, HttpStatus.OK));
+
+        ResponseEntity<List<Employee>> response = employeeController.getTopEarners(3);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(3, response.getBody().size());
+        assertEquals("2", response.getBody().get(0).getId());
+        assertEquals("4", response.getBody().get(1).getId());
+        assertEquals("3", response.getBody().get(2).getId());
+    }
+
+    @Test
+    void reactiveSearchAndTopEarners_ServedFromOneSnapshot() {
+        when(reactiveApiClient.fetchAllEmployees()).thenReturn(Mono.just(Arrays.asList(
+                Employee.builder().id("1").employeeName("Mr Test 1").employeeSalary("50000").employeeAge("30").profileImage("").build(),
+                Employee.builder().id("2").employeeName("Mrs Test 2").employeeSalary("70000").employeeAge("35").profileImage("").build()
+        )));
+
+        ResponseEntity<List<Employee>> found = reactiveController.searchEmployees("mrs", NameMatch.PREFIX, false, 10).block();
+        ResponseEntity<List<Employee>> top = reactiveController.getTopEarners(1).block();
+
+        assertEquals(HttpStatus.OK, found.getStatusCode());
+        assertEquals("2", found.getBody().get(0).getId());
+        assertEquals(1, found.getBody().size());
+        assertEquals(HttpStatus.OK, top.getStatusCode());
+        assertEquals("2", top.getBody().get(0).getId());
+        assertEquals(HttpStatus.BAD_REQUEST, reactiveController.getTopEarners(0).block().getStatusCode());
+        verify(reactiveApiClient, times(1)).fetchAllEmployees();
+    }
+
+    @Test
+    void getTopEarners_InvalidN() {
+        ResponseEntity<List<Employee>> response = employeeController.getTopEarners(0);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(restTemplate);
+    }
+
     @Test
     void getHighestSalaryOfEmployees_EmptyList() {
         EmployeeResponse mockResponse = new EmployeeResponse();
@@ -382,5 +743,159 @@ class RqChallengeApplicationTests {
         assertTrue(response.getBody().contains("Invalid employee ID"));
     }
 
+    @Test
+    void getEmployeesPage_SortsPagesAndProjects() {
+        EmployeeResponse mockResponse = new EmployeeResponse();
+        mockResponse.setStatus(HttpStatus.OK);
+        mockResponse.setEmployees(Arrays.asList(
+                Employee.builder().id("1").employeeName("Mr Mid").employeeSalary("50000").employeeAge("30").profileImage("img").build(),
+                Employee.builder().id("2").employeeName("Mr Low").employeeSalary("10000").employeeAge("40").profileImage("img").build(),
+                Employee.builder().id("3").employeeName("Mr High").employeeSalary("90000").employeeAge("50").profileImage("img").build()
+        ));
+        when(restTemplate.getForEntity(anyString(), eq(EmployeeResponse.class)))
+                .thenReturn(new ResponseEntity<>(mockResponse, HttpStatus.OK));
+
+        ResponseEntity<EmployeePage> first = employeeController.getEmployeesPage(null, NameMatch.CONTAINS, SortField.SALARY,
+                SortDirection.DESC, null, 0, 2, Arrays.asList("id", "employeeName"));
+        ResponseEntity<EmployeePage> second = employeeController.getEmployeesPage(null, NameMatch.CONTAINS, SortField.SALARY,
+                SortDirection.DESC, first.getBody().getNextCursor(), 0, 2, Arrays.asList("id", "employeeName"));
+
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals(3, first.getBody().getTotal());
+        assertEquals(2, first.getBody().getEmployees().size());
+        assertEquals("3", first.getBody().getEmployees().get(0).get("id"));
+        assertEquals("Mr Mid", first.getBody().getEmployees().get(1).get("employeeName"));
+        assertFalse(first.getBody().getEmployees().get(0).containsKey("profileImage"));
+        assertEquals(1, second.getBody().getEmployees().size());
+        assertEquals("2", second.getBody().getEmployees().get(0).get("id"));
+        assertNull(second.getBody().getNextCursor());
+    }
+
+    @Test
+    void getEmployeeStats_SummarizesSalaryAndAge() {
+        EmployeeResponse mockResponse = new EmployeeResponse();
+        mockResponse.setStatus(HttpStatus.OK);
+        mockResponse.setEmployees(Arrays.asList(
+                Employee.builder().id("1").employeeName("Mr A").employeeSalary("10000").employeeAge("22").profileImage("").build(),
+                Employee.builder().id("2").employeeName("Mr B").employeeSalary("20000").employeeAge("31").profileImage("").build(),
+                Employee.builder().id("3").employeeName("Mr C").employeeSalary("30000").employeeAge("33").profileImage("").build(),
+                Employee.builder().id("4").employeeName("Mr D").employeeSalary("unknown").employeeAge("70").profileImage("").build()
+        ));
+        when(restTemplate.getForEntity(anyString(), eq(EmployeeResponse.class)))
+                .thenReturn(new ResponseEntity<>(mockResponse, HttpStatus.OK));
+
+        ResponseEntity<EmployeeStats> response = employeeController.getEmployeeStats();
+        EmployeeStats stats = response.getBody();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(4, stats.getCount());
+        assertEquals(3, stats.getSalary().getCount());
+        assertEquals(10000L, stats.getSalary().getMin());
+        assertEquals(30000L, stats.getSalary().getMax());
+        assertEquals(20000.0, stats.getSalary().getMean(), 0.001);
+        assertEquals(20000L, stats.getSalary().getPercentiles().get("p50"));
+        assertEquals(30000L, stats.getSalary().getPercentiles().get("p99"));
+        assertEquals(31L, stats.getAge().getPercentiles().get("p50"));
+        assertEquals(3, stats.getSalaryHistogram().size());
+        assertEquals(1, stats.getAgeBands().get(0).getCount());
+        assertEquals(2, stats.getAgeBands().get(1).getCount());
+        assertEquals(1, stats.getAgeBands().get(5).getCount());
+        assertSame(stats, employeeController.getEmployeeStats().getBody());
+    }
+
+    @Test
+    void getEmployeesPage_UnknownField() {
+        EmployeeResponse mockResponse = new EmployeeResponse();
+        mockResponse.setStatus(HttpStatus.OK);
+        mockResponse.setEmployees(Collections.emptyList());
+        when(restTemplate.getForEntity(anyString(), eq(EmployeeResponse.class)))
+                .thenReturn(new ResponseEntity<>(mockResponse, HttpStatus.OK));
+
+        ResponseEntity<EmployeePage> response = employeeController.getEmployeesPage(null, NameMatch.CONTAINS, null,
+                SortDirection.ASC, null, 0, 50, Collections.singletonList("password"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void deleteEmployeesByIds_RetriesThrottledWrites() {
+        EmployeeResponse deleteResponse = new EmployeeResponse();
+        deleteResponse.setStatus(HttpStatus.OK);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "0");
+
+        when(reactiveApiClient.deleteEmployee("1"))
+                .thenReturn(Mono.error(WebClientResponseException.create(429, "Too Many Requests", headers, new byte[0], StandardCharsets.UTF_8)))
+                .thenReturn(Mono.just(new ResponseEntity<>(deleteResponse, HttpStatus.OK)));
+        when(reactiveApiClient.deleteEmployee("2"))
+                .thenReturn(Mono.error(WebClientResponseException.create(404, "Not Found", new HttpHeaders(), new byte[0], StandardCharsets.UTF_8)));
+
+        ResponseEntity<Flux<BatchWriteResult>> response = employeeController.deleteEmployeesByIds(Arrays.asList("1", "2", "invalid_id"));
+        List<BatchWriteResult> results = response.getBody()
+                .collectSortedList(Comparator.comparingInt(BatchWriteResult::getIndex))
+                .block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(3, results.size());
+        assertEquals(200, results.get(0).getStatus());
+        assertEquals(2, results.get(0).getAttempts());
+        assertEquals(404, results.get(1).getStatus());
+        assertEquals(1, results.get(1).getAttempts());
+        assertEquals(400, results.get(2).getStatus());
+        verify(reactiveApiClient, times(1)).deleteEmployee("2");
+        verify(reactiveApiClient, never()).deleteEmployee("invalid_id");
+    }
+
+    @Test
+    void createEmployees_GatewayErrorNotRetried() {
+        Map<String, Object> employeeInput = new HashMap<>();
+        employeeInput.put("name", "Mr Batch");
+        employeeInput.put("salary", 50000);
+        employeeInput.put("age", 30);
+
+        when(reactiveApiClient.createEmployee(employeeInput))
+                .thenReturn(Mono.error(WebClientResponseException.create(502, "Bad Gateway", new HttpHeaders(), new byte[0], StandardCharsets.UTF_8)));
+
+        List<BatchWriteResult> results = employeeController.createEmployees(Collections.singletonList(employeeInput))
+                .getBody().collectList().block();
+
+        assertEquals(1, results.size());
+        assertEquals(502, results.get(0).getStatus());
+        verify(reactiveApiClient, times(1)).createEmployee(employeeInput);
+    }
+
+    @Test
+    void createEmployees_FailureBodyReportedAsBadGateway() {
+        Map<String, Object> employeeInput = new HashMap<>();
+        employeeInput.put("name", "Mr Batch");
+        employeeInput.put("salary", 50000);
+        employeeInput.put("age", 30);
+        EmployeeResponse failure = new EmployeeResponse();
+        failure.setStatus(HttpStatus.INTERNAL_SERVER_ERROR);
+
+        when(reactiveApiClient.createEmployee(employeeInput))
+                .thenReturn(Mono.just(new ResponseEntity<>(failure, HttpStatus.OK)));
+
+        List<BatchWriteResult> results = employeeController.createEmployees(Collections.singletonList(employeeInput))
+                .getBody().collectList().block();
+
+        assertEquals(1, results.size());
+        assertEquals(502, results.get(0).getStatus());
+        assertNotNull(results.get(0).getError());
+    }
+
+    @Test
+    void createEmployees_EmptyBatch() {
+        ResponseEntity<Flux<BatchWriteResult>> response = employeeController.createEmployees(Collections.emptyList());
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    private static EmployeeResponse singleEmployeeResponse(Employee employee) {
+        EmployeeResponse response = new EmployeeResponse();
+        response.setStatus(HttpStatus.OK);
+        response.setEmployees(Collections.singletonList(employee));
+        return response;
+    }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,60 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.dtos.Employee;
+import com.example.rqchallenge.upstream.EmployeeApiClient;
+import com.example.rqchallenge.upstream.UpstreamUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EmployeeSnapshotCacheTests {
+
+    private static final Employee FIRST = employee("1", "Mr Test");
+    private static final Employee SECOND = employee("2", "Ms Test");
+    private static final Employee THIRD = employee("3", "Mr New");
+
+    @Test
+    void publish_ReplaysWritesMadeWhileFetching() {
+        EmployeeSnapshotCache snapshotCache = cache(Arrays.asList(FIRST, SECOND));
+        snapshotCache.get();
+
+        long startGeneration = snapshotCache.generation();
+        snapshotCache.applyCreated(THIRD);
+        snapshotCache.applyDeleted("1");
+        // Upstream answered before it saw the create, after it saw the delete
+        EmployeeSnapshot published = snapshotCache.publish(Collections.singletonList(SECOND), startGeneration);
+
+        assertSame(published, snapshotCache.peek());
+        assertEquals(Arrays.asList(SECOND, THIRD), published.getEmployees());
+    }
+
+    @Test
+    void publish_DiscardedFetchDoesNotBecomeLastGood() {
+        EmployeeSnapshotCache snapshotCache = cache(Arrays.asList(FIRST, SECOND));
+        snapshotCache.get();
+
+        long startGeneration = snapshotCache.generation();
+        snapshotCache.invalidate();
+        snapshotCache.publish(Collections.singletonList(THIRD), startGeneration);
+
+        assertNull(snapshotCache.peek());
+        EmployeeSnapshot lastGood = snapshotCache.lastGood(new UpstreamUnavailableException("employees", "circuit open"));
+        assertEquals(Arrays.asList(FIRST, SECOND), lastGood.getEmployees());
+    }
+
+    private static EmployeeSnapshotCache cache(List<Employee> employees) {
+        EmployeeApiClient apiClient = mock(EmployeeApiClient.class);
+        when(apiClient.fetchAllEmployees()).thenReturn(employees);
+        return new EmployeeSnapshotCache(apiClient, new SnapshotCacheProperties(), new SimpleMeterRegistry());
+    }
+
+    private static Employee employee(String id, String name) {
+        return Employee.builder().id(id).employeeName(name).employeeSalary("50000").employeeAge("30").profileImage("").build();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.dtos.Employee;
+import com.example.rqchallenge.employees.IEmployeeController;
+import com.example.rqchallenge.employees.ReadOnlyMode;
+import com.example.rqchallenge.upstream.EmployeeApiClient;
+import com.example.rqchallenge.upstream.UpstreamUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EmployeeSnapshotStoreTests {
+
+    private static final List<Employee> EMPLOYEES = Arrays.asList(
+            Employee.builder().id("1").employeeName("Mr Ünïcode").employeeSalary("50000").employeeAge("30").profileImage("").build(),
+            Employee.builder().id("2").employeeName("Mr Nulls").employeeSalary(null).employeeAge("40").profileImage(null).build());
+
+    @Test
+    void decode_RoundTripsAndRejectsCorruption() throws Exception {
+        Instant savedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        byte[] bytes = EmployeeSnapshotStore.encode(EMPLOYEES, savedAt);
+
+        EmployeeSnapshotStore.Saved saved = EmployeeSnapshotStore.decode(ByteBuffer.wrap(bytes));
+        assertEquals(EMPLOYEES, saved.employees);
+        assertEquals(savedAt, saved.savedAt);
+
+        byte[] corrupt = bytes.clone();
+        corrupt[30] ^= 1;
+        assertThrows(IllegalArgumentException.class, () -> EmployeeSnapshotStore.decode(ByteBuffer.wrap(corrupt)));
+        assertThrows(IllegalArgumentException.class,
+                () -> EmployeeSnapshotStore.decode(ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length / 2))));
+    }
+
+    @Test
+    void start_RestoresSavedRosterWhileUpstreamIsDown(@TempDir Path directory) throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SnapshotStoreProperties properties = new SnapshotStoreProperties();
+        properties.setPath(directory.resolve("roster.bin"));
+        Files.write(properties.getPath(), EmployeeSnapshotStore.encode(EMPLOYEES, Instant.now()));
+
+        EmployeeApiClient apiClient = mock(EmployeeApiClient.class);
+        when(apiClient.fetchAllEmployees()).thenThrow(new UpstreamUnavailableException("employees", "circuit open"));
+        EmployeeSnapshotCache snapshotCache = new EmployeeSnapshotCache(apiClient, new SnapshotCacheProperties(), meterRegistry);
+        EmployeeSnapshotStore store = new EmployeeSnapshotStore(snapshotCache, properties, meterRegistry);
+        store.start();
+
+        assertTrue(snapshotCache.isRestored());
+        assertEquals(EMPLOYEES, snapshotCache.get().getEmployees());
+        EmployeeSnapshotHealth health = new EmployeeSnapshotHealth(snapshotCache);
+        assertEquals(EmployeeSnapshotHealth.DEGRADED, health.health().getStatus());
+        assertFalse(snapshotCache.isReadOnly());
+
+        snapshotCache.refresh();
+
+        assertTrue(snapshotCache.isReadOnly());
+        assertEquals(true, health.health().getDetails().get("readOnly"));
+        ReadOnlyMode readOnlyMode = new ReadOnlyMode(snapshotCache, meterRegistry);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(readOnlyMode.preHandle(new MockHttpServletRequest("POST", "/"), response,
+                new HandlerMethod(mock(IEmployeeController.class), IEmployeeController.class.getMethod("createEmployee", Map.class))));
+        assertEquals(503, response.getStatus());
+        assertTrue(readOnlyMode.preHandle(new MockHttpServletRequest("POST", "/batch"), new MockHttpServletResponse(),
+                new HandlerMethod(mock(IEmployeeController.class), IEmployeeController.class.getMethod("getEmployeesByIds", List.class))));
+        store.stop();
+    }
+
+    @Test
+    void schedule_SkipsRosterTheFileAlreadyHolds(@TempDir Path directory) throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SnapshotStoreProperties properties = new SnapshotStoreProperties();
+        properties.setPath(directory.resolve("roster.bin"));
+        Files.write(properties.getPath(), EmployeeSnapshotStore.encode(EMPLOYEES, Instant.now()));
+        byte[] written = Files.readAllBytes(properties.getPath());
+
+        EmployeeApiClient apiClient = mock(EmployeeApiClient.class);
+        when(apiClient.fetchAllEmployees()).thenReturn(EMPLOYEES);
+        EmployeeSnapshotCache snapshotCache = new EmployeeSnapshotCache(apiClient, new SnapshotCacheProperties(), meterRegistry);
+        EmployeeSnapshotStore store = new EmployeeSnapshotStore(snapshotCache, properties, meterRegistry);
+        store.start();
+        snapshotCache.publish(EMPLOYEES, snapshotCache.generation());
+        store.stop();
+
+        assertEquals(1.0, meterRegistry.get("employees.snapshot.store.skipped").counter().count(), 0.0);
+        assertArrayEquals(written, Files.readAllBytes(properties.getPath()));
+    }
+
+    @Test
+    void schedule_StreamsChangedRosterToTheFile(@TempDir Path directory) throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SnapshotStoreProperties properties = new SnapshotStoreProperties();
+        properties.setPath(directory.resolve("roster.bin"));
+
+        EmployeeApiClient apiClient = mock(EmployeeApiClient.class);
+        EmployeeSnapshotCache snapshotCache = new EmployeeSnapshotCache(apiClient, new SnapshotCacheProperties(), meterRegistry);
+        EmployeeSnapshotStore store = new EmployeeSnapshotStore(snapshotCache, properties, meterRegistry);
+        store.start();
+        EmployeeSnapshot published = snapshotCache.publish(EMPLOYEES, snapshotCache.generation());
+        store.stop();
+
+        byte[] written = Files.readAllBytes(properties.getPath());
+        assertArrayEquals(EmployeeSnapshotStore.encode(EMPLOYEES, published.getLoadedAt()), written);
+        assertEquals(EMPLOYEES, EmployeeSnapshotStore.read(properties.getPath()).employees);
+    }
+}
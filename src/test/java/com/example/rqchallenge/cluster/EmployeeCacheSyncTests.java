@@ -0,0 +1,110 @@
+package com.example.rqchallenge.cluster;
+
+import com.example.rqchallenge.cache.ByIdCacheProperties;
+import com.example.rqchallenge.cache.EmployeeByIdCache;
+import com.example.rqchallenge.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.cache.SnapshotCacheProperties;
+import com.example.rqchallenge.dtos.Employee;
+import com.example.rqchallenge.upstream.EmployeeApiClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EmployeeCacheSyncTests {
+
+    private static final List<Employee> EMPLOYEES = Arrays.asList(
+            Employee.builder().id("1").employeeName("Mr Test").employeeSalary("50000").employeeAge("30").profileImage("").build(),
+            Employee.builder().id("2").employeeName("Ms Test").employeeSalary("60000").employeeAge("40").profileImage("").build());
+
+    private final LocalCacheEventBus bus = new LocalCacheEventBus();
+    private final List<CacheEvent> events = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private EmployeeApiClient apiA;
+    private EmployeeApiClient apiB;
+    private EmployeeSnapshotCache snapshotsA;
+    private EmployeeSnapshotCache snapshotsB;
+    private EmployeeByIdCache byIdB;
+    private EmployeeCacheSync syncA;
+    private EmployeeCacheSync syncB;
+
+    @BeforeEach
+    void setUp() {
+        apiA = mock(EmployeeApiClient.class);
+        apiB = mock(EmployeeApiClient.class);
+        when(apiA.fetchAllEmployees()).thenReturn(EMPLOYEES);
+        when(apiB.fetchAllEmployees()).thenReturn(EMPLOYEES);
+        snapshotsA = new EmployeeSnapshotCache(apiA, new SnapshotCacheProperties(), meterRegistry);
+        snapshotsB = new EmployeeSnapshotCache(apiB, new SnapshotCacheProperties(), meterRegistry);
+        byIdB = new EmployeeByIdCache(new ByIdCacheProperties(), meterRegistry);
+        syncA = new EmployeeCacheSync(snapshotsA, new EmployeeByIdCache(new ByIdCacheProperties(), meterRegistry), bus,
+                node("a"), meterRegistry);
+        syncB = new EmployeeCacheSync(snapshotsB, byIdB, bus, node("b"), meterRegistry);
+        bus.subscribe(events::add);
+    }
+
+    @Test
+    void fetch_SharesRosterOnceAndDefersPeerRefresh() {
+        snapshotsA.get();
+
+        assertEquals(EMPLOYEES, snapshotsB.peek().getEmployees());
+        snapshotsB.refresh();
+        verify(apiB, never()).fetchAllEmployees();
+
+        snapshotsA.invalidate();
+        snapshotsA.get();
+        assertEquals(2, events.size());
+        assertNotNull(events.get(0).getEmployees());
+        assertNull(events.get(1).getEmployees(), "an unchanged roster is announced by its hash alone");
+        assertEquals(snapshotsB.peek().getContentHash(), events.get(1).getContentHash());
+    }
+
+    @Test
+    void writes_AreAppliedOnEveryInstance() {
+        snapshotsA.get();
+        Employee created = Employee.builder().id("3").employeeName("Mr New").employeeSalary("70000").employeeAge("50").profileImage("").build();
+
+        syncA.created(created);
+        syncA.deleted("1");
+
+        assertEquals(snapshotsA.peek().getContentHash(), snapshotsB.peek().getContentHash());
+        assertEquals(2, snapshotsB.peek().getRoster().size());
+        assertEquals(created, byIdB.get("3").getEmployee());
+        assertTrue(byIdB.get("1").isMissing());
+        verify(apiB, never()).fetchAllEmployees();
+    }
+
+    @Test
+    void roster_RefusedWhenItPredatesALocalWrite() {
+        snapshotsA.get();
+        syncB.deleted("2");
+        // A's fetch started before the delete reached upstream
+        Employee created = Employee.builder().id("3").employeeName("Mr New").employeeSalary("70000").employeeAge("50").profileImage("").build();
+        when(apiA.fetchAllEmployees()).thenReturn(Arrays.asList(EMPLOYEES.get(0), EMPLOYEES.get(1), created));
+        snapshotsA.invalidate();
+        snapshotsA.get();
+
+        assertNotNull(events.get(events.size() - 1).getEmployees());
+        assertNull(snapshotsB.peek().findById("2"));
+        assertEquals(1.0, meterRegistry.get("employees.cluster.rosters.refused").counter().count(), 0.0);
+        assertEquals(1.0, meterRegistry.get("employees.cluster.refreshes.deferred").counter().count(), 0.0);
+
+        when(apiB.fetchAllEmployees()).thenReturn(Arrays.asList(EMPLOYEES.get(0), created));
+        snapshotsB.invalidate();
+        snapshotsB.get();
+        assertEquals(created, snapshotsB.peek().findById("3"));
+    }
+
+    private static ClusterProperties node(String nodeId) {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setNodeId(nodeId);
+        return properties;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.rqchallenge.cluster;
+
+import com.example.rqchallenge.upstream.EmployeeApiClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "employees.cluster.transport=http",
+        "employees.cluster.secret=s3cret",
+        "employees.cluster.node-id=here"})
+class HttpCacheEventBusTests {
+
+    private static final BlockingQueue<String[]> PEER_RECEIVED = new LinkedBlockingQueue<>();
+    private static HttpServer peer;
+
+    @Autowired
+    private HttpCacheEventBus bus;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private EmployeeApiClient apiClient;
+
+    @DynamicPropertySource
+    static void peer(DynamicPropertyRegistry registry) throws IOException {
+        // Stands in for another instance, recording the secret and body of every event posted to it
+        peer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        peer.createContext(HttpCacheEventBus.PATH, exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            PEER_RECEIVED.add(new String[]{exchange.getRequestHeaders().getFirst(HttpCacheEventBus.SECRET_HEADER), body});
+            exchange.sendResponseHeaders(HttpStatus.ACCEPTED.value(), -1);
+            exchange.close();
+        });
+        peer.start();
+        registry.add("employees.cluster.peers", () -> "http://localhost:" + peer.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopPeer() {
+        peer.stop(0);
+    }
+
+    @Test
+    void publish_PostsEventToPeersWithTheSecret() throws Exception {
+        CacheEvent event = CacheEvent.builder().origin("here").type(CacheEvent.Type.DELETED).id("7").build();
+
+        bus.publish(event);
+
+        String[] received = PEER_RECEIVED.poll(5, TimeUnit.SECONDS);
+        assertNotNull(received, "event never reached the peer");
+        assertEquals("s3cret", received[0]);
+        assertEquals(event, objectMapper.readValue(received[1], CacheEvent.class));
+    }
+
+    @Test
+    void receive_DeliversOnlyEventsSentWithTheSecret() {
+        List<CacheEvent> delivered = new CopyOnWriteArrayList<>();
+        bus.subscribe(delivered::add);
+        CacheEvent event = CacheEvent.builder().origin("there").type(CacheEvent.Type.DELETED).id("8").build();
+
+        assertEquals(HttpStatus.FORBIDDEN, post(event, null));
+        assertEquals(HttpStatus.FORBIDDEN, post(event, "s3cre"));
+        assertTrue(delivered.isEmpty());
+
+        assertEquals(HttpStatus.ACCEPTED, post(event, "s3cret"));
+        assertEquals(Collections.singletonList(event), delivered);
+    }
+
+    private HttpStatus post(CacheEvent event, String secret) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (secret != null) {
+            headers.set(HttpCacheEventBus.SECRET_HEADER, secret);
+        }
+        return restTemplate.postForEntity(HttpCacheEventBus.PATH, new HttpEntity<>(event, headers), Void.class).getStatusCode();
+    }
+}
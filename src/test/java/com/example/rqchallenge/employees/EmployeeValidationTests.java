@@ -0,0 +1,51 @@
+package com.example.rqchallenge.employees;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeValidationTests {
+
+    @Test
+    void parseInt_MatchesIntegerParseInt() {
+        String[] values = {"0", "42", "+7", "-0", "007", "2147483647", "-2147483648", "2147483648", "-2147483649",
+                "", "+", "-", "1.5", " 1", "1 ", "12a", "١٢", "99999999999999999999"};
+        for (String value : values) {
+            long expected;
+            try {
+                expected = Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                expected = EmployeeValidation.NOT_AN_INT;
+            }
+            assertEquals(expected, EmployeeValidation.parseInt(value), value);
+        }
+    }
+
+    @Test
+    void validate_AcceptsJsonNumbersAndRejectsWithReusableResults() {
+        Map<String, Object> input = new HashMap<>();
+        input.put("name", "Mr Numbers");
+        input.put("salary", 50000);
+        input.put("age", 30L);
+        assertSame(EmployeeValidation.Result.VALID, EmployeeValidation.validate(input));
+
+        input.put("salary", 3_000_000_000L);
+        assertSame(EmployeeValidation.Result.INVALID_SALARY, EmployeeValidation.validate(input));
+        input.put("salary", 50000.0);
+        assertSame(EmployeeValidation.Result.INVALID_SALARY, EmployeeValidation.validate(input));
+        input.put("salary", "50000");
+        input.put("age", "17");
+        assertSame(EmployeeValidation.Result.AGE_OUT_OF_RANGE, EmployeeValidation.validate(input));
+        input.put("name", " \t");
+        assertSame(EmployeeValidation.Result.EMPTY_NAME, EmployeeValidation.validate(input));
+        assertSame(EmployeeValidation.Result.EMPTY_INPUT, EmployeeValidation.validate(null));
+
+        assertTrue(EmployeeValidation.isValidId("0042"));
+        assertFalse(EmployeeValidation.isValidId(""));
+        assertFalse(EmployeeValidation.isValidId("-1"));
+        assertFalse(EmployeeValidation.isValidId("١"));
+    }
+}
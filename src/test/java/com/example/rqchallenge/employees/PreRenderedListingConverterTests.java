@@ -0,0 +1,94 @@
+package com.example.rqchallenge.employees;
+
+import com.example.rqchallenge.cache.EmployeeSnapshot;
+import com.example.rqchallenge.dtos.Employee;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.ByteArrayInputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PreRenderedListingConverterTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void write_ServesJacksonUntilRenderedThenPreGzippedCopy() throws Exception {
+        ServerProperties serverProperties = new ServerProperties();
+        serverProperties.getCompression().setEnabled(true);
+        serverProperties.getCompression().setMinResponseSize(DataSize.ofBytes(1));
+        PreRenderedListingConverter converter = new PreRenderedListingConverter(objectMapper, serverProperties, new SimpleMeterRegistry());
+        List<Employee> employees = new EmployeeSnapshot(Arrays.asList(
+                Employee.builder().id("1").employeeName("Mr Rendered").employeeSalary("50000").employeeAge("30").profileImage("").build(),
+                Employee.builder().id("2").employeeName("Mr Zipped").employeeSalary("60000").employeeAge("40").profileImage("").build()),
+                Instant.now(), 1).getEmployees();
+        byte[] expected = objectMapper.writeValueAsBytes(new ArrayList<>(employees));
+
+        assertTrue(converter.canWrite(employees.getClass(), MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(ArrayList.class, MediaType.APPLICATION_JSON));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        MockHttpOutputMessage beforeRender = new MockHttpOutputMessage();
+        converter.write(employees, MediaType.APPLICATION_JSON, beforeRender);
+        assertArrayEquals(expected, beforeRender.getBodyAsBytes());
+        assertNull(beforeRender.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+
+        converter.render(employees);
+
+        MockHttpOutputMessage gzipped = new MockHttpOutputMessage();
+        converter.write(employees, MediaType.APPLICATION_JSON, gzipped);
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(gzipped.getBodyAsBytes().length, gzipped.getHeaders().getContentLength());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getBodyAsBytes()))) {
+            assertArrayEquals(expected, in.readAllBytes());
+        }
+
+        RequestContextHolder.resetRequestAttributes();
+        MockHttpOutputMessage identity = new MockHttpOutputMessage();
+        converter.write(employees, MediaType.APPLICATION_JSON, identity);
+        assertArrayEquals(expected, identity.getBodyAsBytes());
+        assertNull(identity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("Accept-Encoding", identity.getHeaders().getFirst(HttpHeaders.VARY));
+        converter.stop();
+    }
+
+    @Test
+    void onFetch_RendersInTheBackgroundWithoutCompression() throws Exception {
+        PreRenderedListingConverter converter = new PreRenderedListingConverter(objectMapper, new ServerProperties(), new SimpleMeterRegistry());
+        EmployeeSnapshot snapshot = new EmployeeSnapshot(Arrays.asList(
+                Employee.builder().id("1").employeeName("Mr Rendered").employeeSalary("50000").employeeAge("30").profileImage("").build()),
+                Instant.now(), 1);
+        byte[] expected = objectMapper.writeValueAsBytes(new ArrayList<>(snapshot.getEmployees()));
+
+        converter.onFetch(snapshot);
+        converter.stop();
+
+        MockHttpOutputMessage rendered = new MockHttpOutputMessage();
+        converter.write(snapshot.getEmployees(), MediaType.APPLICATION_JSON, rendered);
+        assertArrayEquals(expected, rendered.getBodyAsBytes());
+        assertEquals(expected.length, rendered.getHeaders().getContentLength());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.rqchallenge.employees;
+
+import com.example.rqchallenge.cache.EmployeeSnapshot;
+import com.example.rqchallenge.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.cache.SnapshotCacheProperties;
+import com.example.rqchallenge.dtos.Employee;
+import com.example.rqchallenge.dtos.RosterChange;
+import com.example.rqchallenge.upstream.EmployeeApiClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RosterChangeFeedTests {
+
+    private static final Employee LOW = employee("1", "Mr Low", "10000");
+    private static final Employee HIGH = employee("2", "Mr High", "90000");
+
+    private EmployeeSnapshotCache snapshotCache;
+    private RosterChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        EmployeeApiClient apiClient = mock(EmployeeApiClient.class);
+        when(apiClient.fetchAllEmployees()).thenReturn(Arrays.asList(LOW, HIGH));
+        snapshotCache = new EmployeeSnapshotCache(apiClient, new SnapshotCacheProperties(), meterRegistry);
+        feed = new RosterChangeFeed(snapshotCache, new ChangeFeedProperties(), meterRegistry);
+    }
+
+    @Test
+    void subscribe_StartsFromSnapshotThenStreamsDeltas() {
+        snapshotCache.get();
+        List<ServerSentEvent<RosterChange>> events = feed.subscribe(null).take(3)
+                .doOnSubscribe(subscription -> {
+                    snapshotCache.applyCreated(employee("3", "Mr Top", "120000"));
+                    snapshotCache.applyDeleted("1");
+                })
+                .collectList().block(Duration.ofSeconds(5));
+
+        assertEquals(RosterChangeFeed.SNAPSHOT, events.get(0).event());
+        assertEquals(90000, events.get(0).data().getHighestSalary());
+
+        RosterChange created = events.get(1).data();
+        assertEquals("3", created.getAdded().get(0).getId());
+        assertEquals(120000, created.getHighestSalary());
+        assertEquals(events.get(0).data().getVersion(), created.getPreviousVersion());
+
+        RosterChange deleted = events.get(2).data();
+        assertEquals(Collections.singletonList("1"), deleted.getRemoved());
+        assertNull(deleted.getHighestSalary());
+        assertEquals(2, deleted.getCount());
+    }
+
+    @Test
+    void subscribe_ReconnectReplaysMissedChangesOrResyncs() {
+        snapshotCache.get();
+        String seen = feed.subscribe(null).blockFirst(Duration.ofSeconds(5)).id();
+        snapshotCache.applyDeleted("1");
+        snapshotCache.applyDeleted("2");
+
+        List<ServerSentEvent<RosterChange>> missed = feed.subscribe(seen).take(2).collectList().block(Duration.ofSeconds(5));
+        assertEquals(Collections.singletonList("1"), missed.get(0).data().getRemoved());
+        assertEquals(Collections.singletonList("2"), missed.get(1).data().getRemoved());
+
+        ServerSentEvent<RosterChange> resync = feed.subscribe("999").blockFirst(Duration.ofSeconds(5));
+        assertEquals(RosterChangeFeed.RESYNC, resync.event());
+        assertEquals(0, resync.data().getCount());
+    }
+
+    @Test
+    void subscribe_IdOfAnotherInstanceResyncs() {
+        snapshotCache.get();
+        String seen = feed.subscribe(null).blockFirst(Duration.ofSeconds(5)).id();
+        snapshotCache.applyDeleted("1");
+        RosterChangeFeed restarted = new RosterChangeFeed(snapshotCache, new ChangeFeedProperties(), new SimpleMeterRegistry());
+        snapshotCache.applyDeleted("2");
+
+        ServerSentEvent<RosterChange> resync = restarted.subscribe(seen).blockFirst(Duration.ofSeconds(5));
+
+        assertEquals(RosterChangeFeed.RESYNC, resync.event());
+        assertEquals(0, resync.data().getCount());
+        assertNotEquals(seen.substring(0, seen.lastIndexOf('-')), resync.id().substring(0, resync.id().lastIndexOf('-')));
+    }
+
+    @Test
+    void diff_ComparesFullRostersById() {
+        EmployeeSnapshot before = new EmployeeSnapshot(Arrays.asList(LOW, HIGH), Instant.now(), 1);
+        EmployeeSnapshot after = new EmployeeSnapshot(Arrays.asList(employee("2", "Mr High", "95000"), employee("4", "Mr New", "20000")),
+                Instant.now(), 2);
+
+        RosterChange change = RosterChangeFeed.diff(before, after);
+
+        assertEquals("4", change.getAdded().get(0).getId());
+        assertEquals(Collections.singletonList("1"), change.getRemoved());
+        assertEquals("95000", change.getChanged().get(0).getEmployeeSalary());
+        assertEquals(95000, change.getHighestSalary());
+        assertNull(RosterChangeFeed.diff(before, new EmployeeSnapshot(Arrays.asList(HIGH, LOW), Instant.now(), 3)));
+    }
+
+    private static Employee employee(String id, String name, String salary) {
+        return Employee.builder().id(id).employeeName(name).employeeSalary(salary).employeeAge("30").profileImage("").build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.rqchallenge.employees;
+
+import com.example.rqchallenge.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.dtos.Employee;
+import com.example.rqchallenge.upstream.EmployeeApiClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "employees.changes.heartbeat=5s",
+        "employees.changes.max-pending=4",
+        "employees.changes.send-threads=2"})
+class RosterChangeStreamTests {
+
+    @LocalServerPort
+    private int port;
+
+    @MockBean
+    private EmployeeApiClient apiClient;
+
+    @Autowired
+    private EmployeeSnapshotCache snapshotCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void streamChanges_StaysOpenPastTheContainerDefaultTimeout() throws Exception {
+        when(apiClient.fetchAllEmployees()).thenReturn(Collections.singletonList(Employee.builder()
+                .id("1").employeeName("Mr Low").employeeSalary("10000").employeeAge("30").profileImage("").build()));
+        HttpURLConnection connection = openChanges();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(40);
+        int heartbeats = 0;
+        try (BufferedReader events = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+            while (System.nanoTime() < deadline) {
+                String line = events.readLine();
+                assertNotNull(line, "stream closed after " + heartbeats + " heartbeats");
+                if (line.startsWith(":heartbeat")) {
+                    heartbeats++;
+                }
+            }
+        } finally {
+            connection.disconnect();
+        }
+        assertTrue(heartbeats >= 7, "only " + heartbeats + " heartbeats in 40s");
+    }
+
+    @Test
+    void streamChanges_SlowSubscriberIsDisconnectedWithoutHoldingUpOthers() throws Exception {
+        when(apiClient.fetchAllEmployees()).thenReturn(roster(0));
+        double overflowsBefore = meterRegistry.counter("employees.changes.overflows").count();
+        HttpURLConnection slow = openChanges();
+        HttpURLConnection fast = openChanges();
+        BlockingQueue<String> fastIds = new LinkedBlockingQueue<>();
+        Thread reader = new Thread(() -> {
+            try (BufferedReader events = new BufferedReader(new InputStreamReader(fast.getInputStream(), StandardCharsets.UTF_8))) {
+                for (String line = events.readLine(); line != null; line = events.readLine()) {
+                    if (line.startsWith("id:")) {
+                        fastIds.add(line.substring(3));
+                    }
+                }
+            } catch (IOException e) {
+                // Disconnected at the end of the test
+            }
+        });
+        reader.setDaemon(true);
+        reader.start();
+
+        try {
+            // Each change replaces the whole roster, so a few of them fill the socket buffers of a client that never reads
+            for (int round = 1; round <= 60; round++) {
+                long version = snapshotCache.publish(roster(round), snapshotCache.generation()).getVersion();
+                String id;
+                do {
+                    id = fastIds.poll(10, TimeUnit.SECONDS);
+                    assertNotNull(id, "reading subscriber stalled at round " + round);
+                } while (!id.endsWith("-" + version));
+            }
+            assertTrue(meterRegistry.counter("employees.changes.overflows").count() > overflowsBefore,
+                    "the subscriber that never reads was not disconnected");
+        } finally {
+            slow.disconnect();
+            fast.disconnect();
+        }
+    }
+
+    private HttpURLConnection openChanges() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + "/changes").openConnection();
+        connection.setRequestProperty("Accept", "text/event-stream");
+        connection.setReadTimeout(10_000);
+        assertEquals(200, connection.getResponseCode());
+        return connection;
+    }
+
+    private static List<Employee> roster(int round) {
+        String padding = String.join("", Collections.nCopies(30, "padding "));
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String id = Integer.toString(round * 1000 + i + 1);
+            employees.add(Employee.builder().id(id).employeeName("Employee " + id + " " + padding)
+                    .employeeSalary("10000").employeeAge("30").profileImage("").build());
+        }
+        return employees;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.rqchallenge.employees;
+
+import com.example.rqchallenge.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.cache.SnapshotCacheProperties;
+import com.example.rqchallenge.dtos.Employee;
+import com.example.rqchallenge.upstream.EmployeeApiClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SnapshotETagsTests {
+
+    private EmployeeApiClient apiClient;
+    private EmployeeSnapshotCache snapshotCache;
+    private SnapshotETags snapshotETags;
+    private HandlerMethod getAllEmployees;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        apiClient = mock(EmployeeApiClient.class);
+        when(apiClient.fetchAllEmployees()).thenReturn(Collections.singletonList(
+                Employee.builder().id("1").employeeName("Mr Tagged").employeeSalary("50000").employeeAge("30").profileImage("").build()));
+        snapshotCache = new EmployeeSnapshotCache(apiClient, new SnapshotCacheProperties(), meterRegistry);
+        snapshotETags = new SnapshotETags(snapshotCache, new HttpCacheProperties(), new ServerProperties(), meterRegistry);
+        getAllEmployees = new HandlerMethod(mock(EmployeeController.class), EmployeeController.class.getMethod("getAllEmployees"));
+    }
+
+    @Test
+    void preHandle_MatchingIfNoneMatchAnsweredWithoutHandler() {
+        snapshotCache.get();
+        MockHttpServletRequest first = new MockHttpServletRequest("GET", "/");
+        String etag = snapshotETags.etagFor(snapshotCache.peek(), first);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(snapshotETags.preHandle(request, response, getAllEmployees));
+        assertEquals(304, response.getStatus());
+        assertEquals(etag, response.getHeader(HttpHeaders.ETAG));
+        assertEquals("no-cache", response.getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    void preHandle_ChangedSnapshotOrUriGetsNewETag() {
+        snapshotCache.get();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        String etag = snapshotETags.etagFor(snapshotCache.peek(), request);
+
+        assertNotEquals(etag, snapshotETags.etagFor(snapshotCache.peek(), new MockHttpServletRequest("GET", "/highestSalary")));
+
+        snapshotCache.applyDeleted("1");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(snapshotETags.preHandle(request, response, getAllEmployees));
+        assertEquals(200, response.getStatus());
+    }
+}
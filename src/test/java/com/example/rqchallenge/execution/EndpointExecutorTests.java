@@ -0,0 +1,73 @@
+package com.example.rqchallenge.execution;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndpointExecutorTests {
+
+    private SimpleMeterRegistry meterRegistry;
+    private EndpointExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        ExecutionProperties properties = new ExecutionProperties();
+        properties.getDefaults().setMaxConcurrency(1);
+        properties.getDefaults().setMaxQueued(1);
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new EndpointExecutor(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void submit_RunsWorkOffCallerThread() throws Exception {
+        Thread caller = Thread.currentThread();
+
+        Thread worker = executor.submit("getAllEmployees", Thread::currentThread).get(5, TimeUnit.SECONDS);
+
+        assertNotSame(caller, worker);
+    }
+
+    @Test
+    void submit_RejectsOnceEndpointQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> running = executor.submit("getAllEmployees", () -> await(release));
+        CompletableFuture<String> queued = executor.submit("getAllEmployees", () -> "queued");
+        CompletableFuture<String> rejected = executor.submit("getAllEmployees", () -> "rejected");
+        CompletableFuture<String> otherEndpoint = executor.submit("getEmployeeById", () -> "other");
+
+        assertEquals("other", otherEndpoint.get(5, TimeUnit.SECONDS));
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        assertTrue(failure.getCause() instanceof RejectedExecutionException);
+        assertFalse(queued.isDone());
+
+        release.countDown();
+
+        assertEquals("released", running.get(5, TimeUnit.SECONDS));
+        assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get("employees.executor.rejected").tag("endpoint", "getAllEmployees").counter().count());
+    }
+
+    private static String await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "released";
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.rqchallenge.index;
+
+import com.example.rqchallenge.dtos.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactRosterTests {
+
+    @Test
+    void employee_RoundTripsExactStrings() {
+        List<Employee> employees = Arrays.asList(
+                Employee.builder().id("1").employeeName("Mr Compact").employeeSalary("50000").employeeAge("30").profileImage("").build(),
+                Employee.builder().id("007").employeeName("Mr Padded").employeeSalary("0060000").employeeAge("35").profileImage(null).build(),
+                Employee.builder().id("3").employeeName("Mr Compact").employeeSalary("unknown").employeeAge("40").profileImage("").build()
+        );
+
+        CompactRoster roster = CompactRoster.of(employees);
+
+        assertEquals(employees, roster.asList());
+        assertTrue(roster.hasSalary(1));
+        assertEquals(60000, roster.salary(1));
+        assertFalse(roster.hasSalary(2));
+    }
+
+    @Test
+    void hasAge_MissingAgesStayOutOfAggregateAndSortFirst() {
+        CompactRoster roster = CompactRoster.of(Arrays.asList(
+                Employee.builder().id("1").employeeName("Mr Old").employeeSalary("50000").employeeAge("60").profileImage("").build(),
+                Employee.builder().id("2").employeeName("Mr Ageless").employeeSalary("60000").employeeAge(null).profileImage("").build(),
+                Employee.builder().id("3").employeeName("Mr Young").employeeSalary("70000").employeeAge("20").profileImage("").build()
+        )).withAppended(Employee.builder().id("4").employeeName("Mr New").employeeSalary("80000").employeeAge("").profileImage("").build());
+
+        RosterAggregate aggregate = RosterAggregate.of(roster, 10000, 2);
+
+        assertFalse(roster.hasAge(1));
+        assertFalse(roster.hasAge(3));
+        assertEquals(2, aggregate.getAgeCount());
+        assertEquals(40.0, aggregate.getAgeMean(), 0.001);
+        assertEquals(0, aggregate.ageCount(0));
+        assertEquals(4, aggregate.getSalaryCount());
+        assertArrayEquals(new int[]{1, 3, 2, 0}, SortIndex.build(roster, SortField.AGE).page(0, 4, SortDirection.ASC));
+    }
+
+    @Test
+    void of_SplitChunksMergeToTheSingleChunkHistogram() {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            // A few far-off salaries leave some chunks too sparse for a dense histogram
+            String salary = i % 13 == 0 ? Integer.toString(1_000_000_000 + i) : Integer.toString(30000 + i * 1700);
+            employees.add(Employee.builder().id(Integer.toString(i + 1)).employeeName("Mr " + i)
+                    .employeeSalary(salary).employeeAge(Integer.toString(20 + i)).profileImage("").build());
+        }
+        CompactRoster roster = CompactRoster.of(employees).withRemoved(5);
+
+        RosterAggregate whole = RosterAggregate.of(roster, 10000, 1000);
+        RosterAggregate split = RosterAggregate.of(roster, 10000, 3);
+
+        assertEquals(whole.getSalaryBuckets(), split.getSalaryBuckets());
+        assertEquals(39, split.getSalaryCount());
+        assertEquals(39L, split.getSalaryBuckets().values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(4L, split.getSalaryBuckets().get(1_000_000_000L));
+        assertEquals(4L, split.getSalaryBuckets().get(30000L));
+        assertEquals(whole.getSalaryMin(), split.getSalaryMin());
+        assertEquals(whole.getSalaryMax(), split.getSalaryMax());
+        assertEquals(whole.getAgeMean(), split.getAgeMean(), 0.001);
+    }
+
+    @Test
+    void positionOf_FindsCanonicalAndIrregularIds() {
+        List<Employee> employees = Arrays.asList(
+                Employee.builder().id("30").employeeName("Mr Thirty").employeeSalary("1").employeeAge("30").profileImage("").build(),
+                Employee.builder().id("007").employeeName("Mr Padded").employeeSalary("2").employeeAge("35").profileImage("").build(),
+                Employee.builder().id("4").employeeName("Mr Four").employeeSalary("3").employeeAge("40").profileImage("").build()
+        );
+
+        CompactRoster roster = CompactRoster.of(employees);
+
+        assertEquals(0, roster.positionOf("30"));
+        assertEquals(1, roster.positionOf("007"));
+        assertEquals(2, roster.positionOf("4"));
+        assertEquals(-1, roster.positionOf("7"));
+        assertEquals(-1, roster.positionOf("5"));
+    }
+
+    @Test
+    void withAppendedAndRemoved_KeepPositionsStable() {
+        Employee first = Employee.builder().id("1").employeeName("Mr One").employeeSalary("10").employeeAge("30").profileImage("").build();
+        Employee second = Employee.builder().id("2").employeeName("Mr Two").employeeSalary("20").employeeAge("31").profileImage("").build();
+        Employee third = Employee.builder().id("3").employeeName("Mr Three").employeeSalary("30").employeeAge("32").profileImage("").build();
+        CompactRoster roster = CompactRoster.of(Arrays.asList(first, second));
+
+        CompactRoster updated = roster.withAppended(third).withRemoved(roster.positionOf("1"));
+
+        assertEquals(Arrays.asList(second, third), updated.asList());
+        assertEquals(-1, updated.positionOf("1"));
+        assertEquals(1, updated.positionOf("2"));
+        assertEquals(2, updated.positionOf("3"));
+        assertEquals(30, updated.salary(2));
+        assertFalse(updated.isLive(0));
+        assertEquals(2, updated.deltaSize());
+        assertEquals(Arrays.asList(first, second), roster.asList());
+    }
+}
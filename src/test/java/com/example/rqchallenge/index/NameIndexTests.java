@@ -0,0 +1,39 @@
+package com.example.rqchallenge.index;
+
+import com.example.rqchallenge.dtos.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameIndexTests {
+
+    private static Employee employee(String id, String name) {
+        return Employee.builder().id(id).employeeName(name).employeeSalary("1").employeeAge("30").profileImage("").build();
+    }
+
+    @Test
+    void search_SharesRepeatedNamesAndMergesAppended() {
+        CompactRoster roster = CompactRoster.of(Arrays.asList(
+                employee("1", "Zoë Smith"),
+                employee("2", "zoe adams"),
+                employee("3", "Zoë Smith"),
+                employee("4", null),
+                employee("5", "Bob")
+        ));
+        NameIndex index = NameIndex.build(roster);
+        CompactRoster appended = roster.withAppended(employee("6", "Zoe Brown"));
+        index = index.withAppended(appended, 5);
+
+        assertArrayEquals(new int[]{1, 5, 0, 2}, index.searchPositions("zoe", NameMatch.PREFIX, true, 10));
+        assertArrayEquals(new int[]{0, 2}, index.searchPositions("ZOË", NameMatch.PREFIX, false, 10));
+        assertArrayEquals(new int[]{0, 2}, index.searchPositions("smith", NameMatch.CONTAINS, true, 10));
+        assertArrayEquals(new int[]{5}, index.searchPositions("brown", NameMatch.CONTAINS, false, 10));
+
+        // Rebuilding over the delta keeps the same answers
+        NameIndex rebuilt = NameIndex.build(appended, index);
+        assertArrayEquals(new int[]{1, 5, 0, 2}, rebuilt.searchPositions("zoe", NameMatch.PREFIX, true, 10));
+        assertTrue(rebuilt.estimatedBytes() > 0);
+    }
+}
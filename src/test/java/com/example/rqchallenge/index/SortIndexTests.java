@@ -0,0 +1,72 @@
+package com.example.rqchallenge.index;
+
+import com.example.rqchallenge.dtos.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortIndexTests {
+
+    private static Employee employee(String id, String name, String salary, String age) {
+        return Employee.builder().id(id).employeeName(name).employeeSalary(salary).employeeAge(age).profileImage("").build();
+    }
+
+    @Test
+    void page_MergesDeltaAndSkipsRemoved() {
+        CompactRoster roster = CompactRoster.of(Arrays.asList(
+                employee("1", "Mr One", "300", "30"),
+                employee("2", "Mr Two", "100", "40"),
+                employee("3", "Mr Three", "200", "50")
+        ));
+        SortIndex index = SortIndex.build(roster, SortField.SALARY);
+
+        CompactRoster appended = roster.withAppended(employee("4", "Mr Four", "150", "20"));
+        index = index.withAppended(appended, 3);
+        CompactRoster removed = appended.withRemoved(2);
+        index = index.withRemoved(removed, 2);
+
+        assertEquals(3, index.size());
+        assertArrayEquals(new int[]{1, 3, 0}, index.page(0, 10, SortDirection.ASC));
+        assertArrayEquals(new int[]{3, 0}, index.page(1, 10, SortDirection.ASC));
+        assertArrayEquals(new int[]{3, 1}, index.page(1, 10, SortDirection.DESC));
+        assertArrayEquals(new int[0], index.page(3, 10, SortDirection.ASC));
+    }
+
+    @Test
+    void pageAfter_ResumesFromCursorKey() {
+        List<Employee> employees = Arrays.asList(
+                employee("1", "carol", "1", "30"),
+                employee("2", "Alice", "1", "30"),
+                employee("3", "bob", "1", "30"),
+                employee("4", "alice", "1", "30")
+        );
+        SortIndex index = SortIndex.build(CompactRoster.of(employees), SortField.NAME);
+
+        int[] first = index.page(0, 2, SortDirection.ASC);
+        assertArrayEquals(new int[]{1, 3}, first);
+        assertArrayEquals(new int[]{2, 0}, index.pageAfter(index.keyOf(3), 3, 2, SortDirection.ASC));
+        assertArrayEquals(new int[]{3, 1}, index.pageAfter(index.keyOf(2), 2, 5, SortDirection.DESC));
+    }
+
+    @Test
+    void sort_PlacesMatchesByRankAndMergesAppended() {
+        CompactRoster roster = CompactRoster.of(Arrays.asList(
+                employee("1", "dave", "1", "30"),
+                employee("2", "Bob", "1", "30"),
+                employee("3", "erin", "1", "30"),
+                employee("4", "alice", "1", "30")
+        ));
+        SortIndex index = SortIndex.build(roster, SortField.NAME);
+        CompactRoster appended = roster.withAppended(employee("5", "Carol", "1", "30"));
+        index = index.withAppended(appended, 4);
+        appended = appended.withAppended(employee("6", "zed", "1", "30"));
+        index = index.withAppended(appended, 5);
+
+        assertArrayEquals(new int[]{3, 1, 4, 0, 2, 5}, index.sort(new int[]{0, 1, 2, 3, 4, 5}));
+        assertArrayEquals(new int[]{4, 0, 5}, index.sort(new int[]{5, 0, 4}));
+        assertArrayEquals(new int[]{3, 2}, index.sort(new int[]{2, 3}));
+    }
+}
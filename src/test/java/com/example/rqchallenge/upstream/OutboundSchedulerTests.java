@@ -0,0 +1,109 @@
+package com.example.rqchallenge.upstream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboundSchedulerTests {
+
+    @Test
+    void call_ThrottledResponseHalvesTheRate() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OutboundScheduler scheduler = new OutboundScheduler(properties(10), meterRegistry);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "0");
+
+        assertThrows(HttpClientErrorException.class, () -> scheduler.call("create", () -> {
+            throw HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", headers, null, null);
+        }));
+
+        assertEquals(5.0, meterRegistry.get("employees.upstream.outbound.rate").gauge().value());
+        assertEquals(1.0, meterRegistry.get("employees.upstream.outbound.throttled").counter().count());
+    }
+
+    @Test
+    void call_ServerErrorsDoNotRaiseTheRate() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OutboundProperties properties = properties(10);
+        properties.setMaxRate(20);
+        properties.setAdjustInterval(Duration.ZERO);
+        OutboundScheduler scheduler = new OutboundScheduler(properties, meterRegistry);
+
+        assertThrows(HttpServerErrorException.class, () -> scheduler.call("employees", () -> {
+            throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR);
+        }));
+        assertEquals(10.0, meterRegistry.get("employees.upstream.outbound.rate").gauge().value());
+
+        scheduler.call("employees", () -> "ok");
+        assertEquals(11.0, meterRegistry.get("employees.upstream.outbound.rate").gauge().value());
+    }
+
+    @Test
+    void call_QueuedInteractiveCallsOvertakeBackgroundOnes() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OutboundScheduler scheduler = new OutboundScheduler(properties(2), meterRegistry);
+        scheduler.call("employee", () -> "burst 1");
+        scheduler.call("employee", () -> "burst 2");
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<Void> background = CompletableFuture.runAsync(() -> OutboundScheduler.withPriority(
+                CallPriority.BACKGROUND, () -> scheduler.call("employees", () -> order.add("background"))));
+        awaitQueued(meterRegistry, "background");
+        CompletableFuture<Void> interactive = CompletableFuture.runAsync(
+                () -> scheduler.call("employee", () -> order.add("interactive")));
+
+        CompletableFuture.allOf(background, interactive).get(5, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("interactive", "background"), order);
+        scheduler.stop();
+    }
+
+    @Test
+    void call_DropsCallsWhoseDeadlinePassedWhileQueued() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OutboundProperties properties = properties(1);
+        properties.getMaxWait().put(CallPriority.INTERACTIVE, Duration.ofMillis(50));
+        OutboundScheduler scheduler = new OutboundScheduler(properties, meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+        scheduler.call("employee", calls::incrementAndGet);
+
+        UpstreamUnavailableException dropped = assertThrows(UpstreamUnavailableException.class,
+                () -> scheduler.call("employee", calls::incrementAndGet));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, dropped.getStatusCode());
+        assertEquals(1, calls.get());
+        assertEquals(1.0, meterRegistry.get("employees.upstream.outbound.dropped")
+                .tag("priority", "interactive").tag("reason", "expired").counter().count());
+        assertEquals(0.0, meterRegistry.get("employees.upstream.outbound.queued").tag("priority", "interactive").gauge().value());
+        scheduler.stop();
+    }
+
+    private static OutboundProperties properties(double rate) {
+        OutboundProperties properties = new OutboundProperties();
+        properties.setInitialRate(rate);
+        properties.setMaxRate(rate);
+        return properties;
+    }
+
+    private static void awaitQueued(SimpleMeterRegistry meterRegistry, String priority) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            if (meterRegistry.get("employees.upstream.outbound.queued").tag("priority", priority).gauge().value() > 0) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+        fail("No " + priority + " call was queued");
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.rqchallenge.upstream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTests {
+
+    @Test
+    void execute_ConcurrentCallersShareOneCall() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("/employee/{id}", meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("1", () -> {
+            calls.incrementAndGet();
+            leaderStarted.countDown();
+            await(release);
+            return "employee 1";
+        }), callers);
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> singleFlight.execute("1", () -> {
+            calls.incrementAndGet();
+            return "duplicate";
+        }), callers);
+        while (meterRegistry.get("employees.upstream.singleflight").tag("result", "coalesced").counter().count() < 1) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertEquals("employee 1", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("employee 1", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+        callers.shutdown();
+    }
+
+    @Test
+    void execute_FailureIsSharedAndNotCached() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("/employees", new SimpleMeterRegistry());
+
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("", () -> {
+            throw new IllegalStateException("upstream down");
+        }));
+        assertEquals("recovered", singleFlight.execute("", () -> "recovered"));
+    }
+
+    @Test
+    void execute_ErrorWakesFollowers() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("/employees", meterRegistry);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("", () -> {
+            leaderStarted.countDown();
+            await(release);
+            throw new AssertionError("out of memory, say");
+        }), callers);
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> singleFlight.execute("", () -> "duplicate"), callers);
+        while (meterRegistry.get("employees.upstream.singleflight").tag("result", "coalesced").counter().count() < 1) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertTrue(failure.getCause() instanceof AssertionError);
+        assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        callers.shutdown();
+    }
+
+    @Test
+    void executeReactive_FollowerReissuesWhenLeaderCancels() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("reactive:/employees", new SimpleMeterRegistry());
+        AtomicInteger calls = new AtomicInteger();
+        Sinks.One<String> never = Sinks.one();
+
+        Disposable leader = singleFlight.executeReactive("", () -> {
+            calls.incrementAndGet();
+            return never.asMono();
+        }).subscribe();
+        Mono<String> follower = singleFlight.executeReactive("", () -> {
+            calls.incrementAndGet();
+            return Mono.just("reissued");
+        });
+        CompletableFuture<String> result = follower.toFuture();
+        leader.dispose();
+
+        assertEquals("reissued", result.join());
+        assertEquals(2, calls.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.rqchallenge.upstream;
+
+import com.example.rqchallenge.dtos.Employee;
+import com.example.rqchallenge.dtos.EmployeeResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamClientConfigurationTests {
+
+    @Test
+    void employeeWebClient_DecodesRosterOverTheDefaultBufferLimit() throws Exception {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 1; i <= 5000; i++) {
+            employees.add(Employee.builder().id(Integer.toString(i)).employeeName("Employee Number " + i)
+                    .employeeSalary(Integer.toString(30000 + i)).employeeAge("40").profileImage("").build());
+        }
+        EmployeeResponse roster = new EmployeeResponse();
+        roster.setStatus(HttpStatus.OK);
+        roster.setEmployees(employees);
+        byte[] body = new ObjectMapper().writeValueAsBytes(roster);
+        assertTrue(body.length > 256 * 1024);
+
+        HttpServer upstream = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        upstream.createContext("/employees", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        upstream.start();
+        UpstreamClientProperties properties = new UpstreamClientProperties();
+        properties.setBaseUrl("http://localhost:" + upstream.getAddress().getPort());
+        properties.setHttp2(false);
+        UpstreamClientConfiguration configuration = new UpstreamClientConfiguration();
+        ConnectionProvider connectionProvider = configuration.employeeConnectionProvider(properties);
+        try {
+            WebClient webClient = configuration.employeeWebClient(WebClient.builder(), connectionProvider, properties,
+                    new SimpleMeterRegistry());
+
+            EmployeeResponse fetched = webClient.get().uri("/employees").retrieve().bodyToMono(EmployeeResponse.class).block();
+
+            assertEquals(employees, fetched.getEmployees());
+        } finally {
+            connectionProvider.dispose();
+            upstream.stop(0);
+        }
+    }
+}
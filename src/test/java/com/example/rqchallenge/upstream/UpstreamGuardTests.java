@@ -0,0 +1,149 @@
+package com.example.rqchallenge.upstream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamGuardTests {
+
+    @Test
+    void call_OpensAfterFailuresAndFailsFast() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UpstreamGuard guard = new UpstreamGuard("employees", policy(Duration.ofMinutes(1)), meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(HttpServerErrorException.class, () -> guard.call(() -> {
+                calls.incrementAndGet();
+                throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+            }));
+        }
+        UpstreamUnavailableException rejected = assertThrows(UpstreamUnavailableException.class,
+                () -> guard.call(() -> calls.incrementAndGet()));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+        assertEquals(4, calls.get());
+        assertEquals(2.0, meterRegistry.get("employees.upstream.breaker.state").tag("route", "employees").gauge().value());
+        assertEquals(1.0, meterRegistry.get("employees.upstream.breaker.rejected").tag("route", "employees").counter().count());
+    }
+
+    @Test
+    void call_ClientErrorsDoNotOpenTheCircuit() {
+        UpstreamGuard guard = new UpstreamGuard("employee", policy(Duration.ofMinutes(1)), new SimpleMeterRegistry());
+
+        for (int i = 0; i < 8; i++) {
+            assertThrows(HttpClientErrorException.class, () -> guard.call(() -> {
+                throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+            }));
+        }
+
+        assertEquals("ok", guard.call(() -> "ok"));
+    }
+
+    @Test
+    void call_HalfOpenTrialsCloseTheCircuit() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UpstreamGuard guard = new UpstreamGuard("employees", policy(Duration.ofMillis(50)), meterRegistry);
+        for (int i = 0; i < 4; i++) {
+            assertThrows(HttpServerErrorException.class, () -> guard.call(() -> {
+                throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+            }));
+        }
+        assertThrows(UpstreamUnavailableException.class, () -> guard.call(() -> "rejected"));
+
+        Thread.sleep(100);
+        assertEquals("trial 1", guard.call(() -> "trial 1"));
+        assertEquals("trial 2", guard.call(() -> "trial 2"));
+
+        assertEquals(0.0, meterRegistry.get("employees.upstream.breaker.state").tag("route", "employees").gauge().value());
+        assertEquals("closed", guard.call(() -> "closed"));
+    }
+
+    @Test
+    void call_TimeoutsBackTheTimeoutOffUpward() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ResilienceProperties.Policy policy = policy(Duration.ofMinutes(1));
+        policy.setMinimumCalls(100);
+        policy.setMinTimeout(Duration.ofMillis(100));
+        policy.setMaxTimeout(Duration.ofSeconds(2));
+        UpstreamGuard guard = new UpstreamGuard("employees", policy, meterRegistry);
+        for (int i = 0; i < 20; i++) {
+            guard.call(() -> "fast");
+        }
+        assertEquals(0.1, timeoutSeconds(meterRegistry));
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ResourceAccessException.class, () -> guard.call(() -> {
+                throw new ResourceAccessException("Read timed out", new SocketTimeoutException("Read timed out"));
+            }));
+        }
+
+        assertEquals(0.8, timeoutSeconds(meterRegistry));
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ResourceAccessException.class, () -> guard.call(() -> {
+                throw new ResourceAccessException("Read timed out", new SocketTimeoutException("Read timed out"));
+            }));
+        }
+        assertEquals(2.0, timeoutSeconds(meterRegistry));
+    }
+
+    @Test
+    void call_FullBulkheadRejectsInsteadOfQueueing() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UpstreamGuard guard = new UpstreamGuard("delete", policy(Duration.ofMinutes(1)), meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newSingleThreadExecutor();
+
+        CompletableFuture<String> slow = CompletableFuture.supplyAsync(() -> guard.call(() -> {
+            started.countDown();
+            await(release);
+            return "deleted";
+        }), callers);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(UpstreamUnavailableException.class, () -> guard.call(() -> "second delete"));
+        release.countDown();
+
+        assertEquals("deleted", slow.get(5, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get("employees.upstream.bulkhead.rejected").tag("route", "delete").counter().count());
+        callers.shutdown();
+    }
+
+    private static ResilienceProperties.Policy policy(Duration openDuration) {
+        ResilienceProperties.Policy policy = new ResilienceProperties.Policy();
+        policy.setSlidingWindowSize(4);
+        policy.setMinimumCalls(4);
+        policy.setOpenDuration(openDuration);
+        policy.setHalfOpenCalls(2);
+        policy.setMaxConcurrent(1);
+        policy.setMaxWait(Duration.ofMillis(10));
+        return policy;
+    }
+
+    private static double timeoutSeconds(SimpleMeterRegistry meterRegistry) {
+        return meterRegistry.get("employees.upstream.timeout").tag("route", "employees").gauge().value();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.rqchallenge.upstream;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Mono;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamMetricsInterceptorTests {
+
+    @Test
+    void intercept_RecordsPayloadSizePerRoute() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UpstreamMetricsInterceptor interceptor = new UpstreamMetricsInterceptor(meterRegistry);
+        byte[] payload = "{\"status\":\"OK\",\"employees\":[]}".getBytes(StandardCharsets.UTF_8);
+        MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET, URI.create("https://upstream.test/api/v1/employee/42"));
+
+        ClientHttpResponse response = interceptor.intercept(request, new byte[0],
+                (req, body) -> new MockClientHttpResponse(payload, HttpStatus.OK));
+        try (InputStream in = response.getBody()) {
+            assertEquals(payload.length, in.readAllBytes().length);
+        }
+        response.close();
+
+        DistributionSummary sizes = meterRegistry.get("employees.upstream.payload").tag("route", "employee").summary();
+        assertEquals(1, sizes.count());
+        assertEquals(payload.length, sizes.totalAmount());
+        assertEquals(1, meterRegistry.get("employees.upstream.body.read").tag("route", "employee").timer().count());
+    }
+
+    @Test
+    void filter_RecordsWebClientPayloadSizePerRoute() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UpstreamMetricsInterceptor interceptor = new UpstreamMetricsInterceptor(meterRegistry);
+        String payload = "{\"status\":\"OK\",\"employees\":[]}";
+        ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("https://upstream.test/api/v1/employees")).build();
+
+        String read = interceptor.filter(request, req -> Mono.just(ClientResponse.create(HttpStatus.OK).body(payload).build()))
+                .flatMap(response -> response.bodyToMono(String.class))
+                .block();
+
+        assertEquals(payload, read);
+        DistributionSummary sizes = meterRegistry.get("employees.upstream.payload").tag("route", "employees").summary();
+        assertEquals(1, sizes.count());
+        assertEquals(payload.getBytes(StandardCharsets.UTF_8).length, sizes.totalAmount());
+        assertEquals(1, meterRegistry.get("employees.upstream.body.read").tag("route", "employees").timer().count());
+    }
+
+    @Test
+    void routeOf_MapsPathsToBoundedRouteNames() {
+        assertEquals("employees", UpstreamMetricsInterceptor.routeOf("/api/v1/employees"));
+        assertEquals("employee", UpstreamMetricsInterceptor.routeOf("/api/v1/employee/7"));
+        assertEquals("create", UpstreamMetricsInterceptor.routeOf("/api/v1/create"));
+        assertEquals("delete", UpstreamMetricsInterceptor.routeOf("/api/v1/delete/7"));
+        assertEquals("other", UpstreamMetricsInterceptor.routeOf("/api/v1/unknown"));
+    }
+}